@@ -1,5 +1,8 @@
 const API_URL = "http://localhost:8080/tasks";
 
+// Local copy of the task list, kept current by the /tasks/events change feed
+const tasks = new Map();
+
 function addTask() {
     const task = {
         title: document.getElementById("title").value,
@@ -15,29 +18,38 @@ function addTask() {
         body: JSON.stringify(task)
     })
     .then(res => res.json())
-    .then(() => {
-        loadTasks();
+    .then(created => {
+        tasks.set(created.id, created);
+        renderTasks();
         alert("Task added successfully");
     });
 }
 
 function loadTasks() {
-    fetch(`${API_URL}/list`)
+    return fetch(`${API_URL}/list`)
         .then(res => res.json())
         .then(data => {
-            const list = document.getElementById("taskList");
-            list.innerHTML = "";
+            tasks.clear();
+            data.forEach(task => tasks.set(task.id, task));
+            renderTasks();
+        });
+}
+
+function renderTasks() {
+    const list = document.getElementById("taskList");
+    list.innerHTML = "";
 
-            data.forEach(task => {
-                const li = document.createElement("li");
+    Array.from(tasks.values())
+        .sort((a, b) => b.createdAt - a.createdAt)
+        .forEach(task => {
+            const li = document.createElement("li");
 
-                li.innerHTML = `
-                    <b>${task.title}</b> - ${task.status}
-                    <button onclick="deleteTask(${task.id})">❌ Delete</button>
-                `;
+            li.innerHTML = `
+                <b>${task.title}</b> - ${task.status}
+                <button onclick="deleteTask(${task.id})">❌ Delete</button>
+            `;
 
-                list.appendChild(li);
-            });
+            list.appendChild(li);
         });
 }
 
@@ -50,9 +62,35 @@ function deleteTask(id) {
         method: "DELETE"
     })
     .then(() => {
-        loadTasks();
+        tasks.delete(id);
+        renderTasks();
         alert("Task deleted successfully");
     });
 }
 
-loadTasks();
+function applyEvent(event) {
+    switch (event.type) {
+        case "CREATED":
+        case "UPDATED":
+        case "COMPLETED":
+            tasks.set(event.taskId, event.task);
+            break;
+        case "DELETED":
+            tasks.delete(event.taskId);
+            break;
+        default:
+            // REMINDER_FIRED does not change the list
+            return;
+    }
+    renderTasks();
+}
+
+function connectEvents() {
+    const source = new EventSource(`${API_URL}/events`);
+
+    // A full reload is only needed when (re)connecting, since events may have been missed
+    source.addEventListener("connected", () => loadTasks());
+    source.addEventListener("task", e => applyEvent(JSON.parse(e.data)));
+}
+
+connectEvents();
@@ -0,0 +1,16 @@
+package com.example.taskreminder.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Reactive variant of the task API: WebFlux on Netty in front of R2DBC, so no request path
+ * blocks a thread. Shares the task model and schema with the servlet application.
+ */
+@SpringBootApplication
+public class ReactiveTaskReminderApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveTaskReminderApplication.class, args);
+    }
+}
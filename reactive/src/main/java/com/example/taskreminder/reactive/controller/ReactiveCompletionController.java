@@ -0,0 +1,65 @@
+package com.example.taskreminder.reactive.controller;
+
+import com.example.taskreminder.reactive.service.ReactiveTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Controller for marking tasks completed.
+ */
+@RestController
+@RequestMapping("/completion")
+public class ReactiveCompletionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCompletionController.class);
+
+    private final ReactiveTaskService taskService;
+
+    @Autowired
+    public ReactiveCompletionController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    /**
+     * PUT /completion/mark - Mark a task as completed
+     */
+    @PutMapping("/mark")
+    public Mono<ResponseEntity<?>> markTaskCompleted(@RequestBody Map<String, Object> request) {
+        Object idObj = request.get("id");
+        if (idObj == null) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Task id is required")));
+        }
+        Long id;
+        try {
+            id = idObj instanceof Number ? ((Number) idObj).longValue() : Long.valueOf(idObj.toString());
+        } catch (NumberFormatException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid task id: " + idObj)));
+        }
+
+        return taskService.markTaskCompleted(id)
+            .<ResponseEntity<?>>map(completed -> {
+                if (!completed) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Task not found with ID: " + id));
+                }
+                logger.info("Marked task {} as completed", id);
+                return ResponseEntity.ok(Map.of(
+                    "message", "Task marked as completed",
+                    "taskId", id
+                ));
+            })
+            .onErrorResume(e -> ReactiveTaskController.error("Failed to mark task as completed", e));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.taskreminder.reactive.controller;
+
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.reactive.service.ReactiveTaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streaming exports. Unlike the servlet application's file export, the CSV is written straight to
+ * the response: each row is read from the database when the client is ready for it, so a slow
+ * client or a large table never buffers the whole export in memory.
+ */
+@RestController
+@RequestMapping("/reports")
+public class ReactiveReportController {
+
+    private static final String HEADER = "ID,Title,Description,Due Timestamp,Email,Status,Created At,Completed At\n";
+    private static final DateTimeFormatter DATE_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final ReactiveTaskService taskService;
+
+    @Autowired
+    public ReactiveReportController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    /**
+     * GET /reports/export - Stream tasks as CSV, optionally filtered by status
+     */
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<Flux<String>> exportToCsv(@RequestParam(required = false) String status) {
+        Flux<String> rows = taskService.getAllTasks(status).map(ReactiveReportController::toCsvRow);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks_export.csv\"")
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .body(Flux.concat(Flux.just(HEADER), rows));
+    }
+
+    private static String toCsvRow(Task task) {
+        return escapeCsvField(String.valueOf(task.getId())) + "," +
+            escapeCsvField(task.getTitle()) + "," +
+            escapeCsvField(task.getDescription() != null ? task.getDescription() : "") + "," +
+            escapeCsvField(formatDate(task.getDueTimestamp())) + "," +
+            escapeCsvField(task.getEmail() != null ? task.getEmail() : "") + "," +
+            escapeCsvField(task.getStatus().name()) + "," +
+            escapeCsvField(formatDate(task.getCreatedAt())) + "," +
+            escapeCsvField(formatDate(task.getCompletedAt())) + "\n";
+    }
+
+    private static String formatDate(Long timestamp) {
+        return timestamp != null ? DATE_FORMAT.format(Instant.ofEpochMilli(timestamp)) : "";
+    }
+
+    private static String escapeCsvField(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.taskreminder.reactive.controller;
+
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.reactive.service.ReactiveTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * REST controller for tasks, with the servlet application's paths and response bodies.
+ * Handlers return publishers, so a request holds no thread while it waits for the database.
+ */
+@RestController
+@RequestMapping("/tasks")
+public class ReactiveTaskController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTaskController.class);
+
+    private final ReactiveTaskService taskService;
+
+    @Autowired
+    public ReactiveTaskController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    /**
+     * POST /tasks/add
+     * Create a new task
+     */
+    @PostMapping(
+            value = "/add",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<?>> createTask(@RequestBody Task task) {
+        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Task title is required")));
+        }
+        return taskService.createTask(task)
+                .<ResponseEntity<?>>map(created -> {
+                    logger.info("Created task with ID: {}", created.getId());
+                    return ResponseEntity.status(HttpStatus.CREATED).body(created);
+                })
+                .onErrorResume(e -> error("Failed to create task", e));
+    }
+
+    /**
+     * GET /tasks/list
+     * Stream all tasks, optionally filtered by status. As a JSON array by default, or one task per
+     * line with Accept: application/x-ndjson; either way rows are read as the client consumes them.
+     */
+    @GetMapping(
+            value = "/list",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<Task> listTasks(@RequestParam(required = false) String status) {
+        return taskService.getAllTasks(status);
+    }
+
+    /**
+     * GET /tasks/{id}
+     * Get a single task (ID must be numeric), honouring If-None-Match
+     */
+    @GetMapping(
+            value = "/{id:\\d+}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<?>> getTask(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return taskService.getTaskById(id)
+                .<ResponseEntity<?>>map(task -> {
+                    String etag = ReactiveTaskService.taskETag(task.getVersion());
+                    if (etag.equals(ifNoneMatch)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(task);
+                })
+                .defaultIfEmpty(notFound(id))
+                .onErrorResume(e -> error("Failed to get task", e));
+    }
+
+    /**
+     * PUT /tasks/{id}
+     * Update an existing task (ID must be numeric)
+     */
+    @PutMapping(
+            value = "/{id:\\d+}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<?>> updateTask(@PathVariable Long id, @RequestBody Task task) {
+        task.setId(id);
+        return taskService.updateTask(task)
+                .<ResponseEntity<?>>map(updated -> {
+                    logger.info("Updated task with ID: {}", id);
+                    return ResponseEntity.ok(updated);
+                })
+                .defaultIfEmpty(notFound(id))
+                .onErrorResume(e -> error("Failed to update task", e));
+    }
+
+    /**
+     * DELETE /tasks/{id}
+     * Delete a task (ID must be numeric)
+     */
+    @DeleteMapping(
+            value = "/{id:\\d+}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<?>> deleteTask(@PathVariable Long id) {
+        return taskService.deleteTask(id)
+                .<ResponseEntity<?>>map(deleted -> deleted
+                        ? ResponseEntity.ok(Map.of("message", "Task deleted successfully"))
+                        : notFound(id))
+                .onErrorResume(e -> error("Failed to delete task", e));
+    }
+
+    private static ResponseEntity<?> notFound(Long id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Task not found with ID: " + id));
+    }
+
+    static Mono<ResponseEntity<?>> error(String message, Throwable e) {
+        if (e instanceof IllegalArgumentException) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        }
+        logger.error(message, e);
+        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", message + ": " + e.getMessage())));
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.taskreminder.reactive.repository;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.ReminderOffsets;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import io.r2dbc.spi.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reactive repository for tasks, on the same tables as the servlet application's TaskRepository.
+ * Every method returns a cold publisher; nothing runs until it is subscribed, and queries returning
+ * many rows emit them as the subscriber requests them. Methods that run more than one statement do
+ * so in a transaction, which also keeps them on one pooled connection: a statement chained after
+ * another would otherwise take a second connection while the first is still held.
+ *
+ * Completing a task enqueues its completion notifications in the notification outbox in the same
+ * transaction, as the servlet application does. This application has no relay; the servlet
+ * application's relay delivers them when both run on one database.
+ */
+@Repository
+public class ReactiveTaskRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTaskRepository.class);
+
+    private static final String NEXT_VERSION = "NEXT VALUE FOR task_version_seq";
+    private static final short COMPLETED_CODE = TaskStatus.COMPLETED.code();
+
+    // Channel names and targets as in the servlet application's NotificationChannels
+    private static final String EMAIL_CHANNEL = "email";
+    private static final String WEBHOOK_CHANNEL = "webhook";
+
+    // Same statement as the servlet application's NotificationOutboxRepository: inserts unless a
+    // message with the same dedup key was ever enqueued
+    private static final String OUTBOX_COLUMNS =
+        "dedup_key, kind, channel, target, task_id, email, title, description, due_timestamp, " +
+        "created_at, next_attempt_at, locale, completed_at";
+    private static final String ENQUEUE_SQL =
+        "MERGE INTO notification_outbox o " +
+        "USING (VALUES (CAST(:dedupKey AS VARCHAR(100)), CAST(:kind AS VARCHAR(20)), CAST(:channel AS VARCHAR(20)), " +
+        "CAST(:target AS VARCHAR(500)), CAST(:taskId AS BIGINT), CAST(:email AS VARCHAR(255)), " +
+        "CAST(:title AS VARCHAR(255)), CAST(:description AS VARCHAR(1000)), CAST(:due AS BIGINT), " +
+        "CAST(:createdAt AS BIGINT), CAST(:nextAttemptAt AS BIGINT), CAST(:locale AS VARCHAR(35)), " +
+        "CAST(:completedAt AS BIGINT))) AS m(" + OUTBOX_COLUMNS + ") " +
+        "ON o.dedup_key = m.dedup_key " +
+        "WHEN NOT MATCHED THEN INSERT (" + OUTBOX_COLUMNS + ") VALUES (m.dedup_key, m.kind, m.channel, m.target, " +
+        "m.task_id, m.email, m.title, m.description, m.due_timestamp, m.created_at, m.next_attempt_at, m.locale, " +
+        "m.completed_at)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public ReactiveTaskRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    private static Task mapTask(Row row) {
+        Task task = new Task();
+        task.setId(row.get("id", Long.class));
+        task.setTitle(row.get("title", String.class));
+        task.setDescription(row.get("description", String.class));
+        task.setDueTimestamp(row.get("due_timestamp", Long.class));
+        task.setEmail(row.get("email", String.class));
+        task.setStatus(TaskStatus.fromCode(row.get("status", Short.class)));
+        task.setCreatedAt(row.get("created_at", Long.class));
+        task.setCompletedAt(row.get("completed_at", Long.class));
+        task.setVersion(row.get("version", Long.class));
+        task.setChannels(row.get("channels", String.class));
+        task.setWebhookUrl(row.get("webhook_url", String.class));
+        task.setLocale(row.get("locale", String.class));
+        task.setReminderOffsets(ReminderOffsets.unpack(row.get("reminder_offsets", byte[].class)));
+        return task;
+    }
+
+    /**
+     * Insert a task and emit it with its generated ID and version.
+     */
+    public Mono<Task> save(Task task) {
+        String sql = "INSERT INTO tasks (title, description, due_timestamp, email, status, created_at, completed_at, " +
+                     "version, channels, webhook_url, reminder_offsets, first_reminder_at, locale) VALUES (:title, " +
+                     ":description, :due, :email, :status, :createdAt, :completedAt, " + NEXT_VERSION + ", :channels, " +
+                     ":webhookUrl, :reminderOffsets, :firstReminderAt, :locale)";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+            .filter(statement -> statement.returnGeneratedValues("id"));
+        spec = bind(spec, "title", task.getTitle(), String.class);
+        spec = bind(spec, "description", task.getDescription(), String.class);
+        spec = bind(spec, "due", task.getDueTimestamp(), Long.class);
+        spec = bind(spec, "email", task.getEmail(), String.class);
+        spec = bind(spec, "status", task.getStatus() != null ? task.getStatus().code() : null, Short.class);
+        spec = bind(spec, "createdAt", task.getCreatedAt(), Long.class);
+        spec = bind(spec, "completedAt", task.getCompletedAt(), Long.class);
+        spec = bind(spec, "channels", task.getChannels(), String.class);
+        spec = bind(spec, "webhookUrl", task.getWebhookUrl(), String.class);
+        spec = bind(spec, "reminderOffsets", ReminderOffsets.pack(task.getReminderOffsets()), byte[].class);
+        spec = spec.bind("firstReminderAt", ReminderOffsets.firstReminderAt(task));
+        spec = bind(spec, "locale", task.getLocale(), String.class);
+        return spec.map(row -> row.get("id", Long.class)).one()
+            .flatMap(this::findById)
+            .as(transactionalOperator::transactional)
+            .doOnNext(saved -> logger.info("Saved task with ID: {}", saved.getId()));
+    }
+
+    /**
+     * Find task by ID; empty if there is none.
+     */
+    public Mono<Task> findById(Long id) {
+        return databaseClient.sql("SELECT * FROM tasks WHERE id = :id")
+            .bind("id", id)
+            .map(ReactiveTaskRepository::mapTask)
+            .one();
+    }
+
+    /**
+     * Stream all tasks, newest first.
+     */
+    public Flux<Task> findAll() {
+        return databaseClient.sql("SELECT * FROM tasks ORDER BY created_at DESC")
+            .map(ReactiveTaskRepository::mapTask)
+            .all();
+    }
+
+    /**
+     * Stream tasks with the given status, newest first.
+     */
+    public Flux<Task> findByStatus(TaskStatus status) {
+        return databaseClient.sql("SELECT * FROM tasks WHERE status = :status ORDER BY created_at DESC")
+            .bind("status", status.code())
+            .map(ReactiveTaskRepository::mapTask)
+            .all();
+    }
+
+    /**
+     * Update an existing task and emit it as stored; empty if there is no such task. An update
+     * that completes the task enqueues its completion notifications.
+     */
+    public Mono<Task> update(Task task) {
+        // Moving the due time re-arms the reminder, so the sent marker is cleared
+        String sql = "UPDATE tasks SET reminder_sent_at = CASE WHEN due_timestamp = :due THEN reminder_sent_at END, " +
+                     "title = :title, description = :description, due_timestamp = :due, email = :email, " +
+                     "status = :status, completed_at = :completedAt, version = " + NEXT_VERSION + ", " +
+                     "channels = :channels, webhook_url = :webhookUrl, reminder_offsets = :reminderOffsets, " +
+                     "first_reminder_at = :firstReminderAt, locale = :locale WHERE id = :id";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind("id", task.getId());
+        spec = bind(spec, "title", task.getTitle(), String.class);
+        spec = bind(spec, "description", task.getDescription(), String.class);
+        spec = bind(spec, "due", task.getDueTimestamp(), Long.class);
+        spec = bind(spec, "email", task.getEmail(), String.class);
+        spec = bind(spec, "status", task.getStatus() != null ? task.getStatus().code() : null, Short.class);
+        spec = bind(spec, "completedAt", task.getCompletedAt(), Long.class);
+        spec = bind(spec, "channels", task.getChannels(), String.class);
+        spec = bind(spec, "webhookUrl", task.getWebhookUrl(), String.class);
+        spec = bind(spec, "reminderOffsets", ReminderOffsets.pack(task.getReminderOffsets()), byte[].class);
+        spec = spec.bind("firstReminderAt", ReminderOffsets.firstReminderAt(task));
+        spec = bind(spec, "locale", task.getLocale(), String.class);
+        DatabaseClient.GenericExecuteSpec update = spec;
+        return findById(task.getId())
+            .flatMap(existing -> update.fetch().rowsUpdated()
+                .doOnNext(rows -> logger.info("Updated task with ID: {}, rows affected: {}", task.getId(), rows))
+                .flatMap(rows -> rows > 0 ? findById(task.getId()) : Mono.empty())
+                .flatMap(updated -> updated.isCompleted() && !existing.isCompleted()
+                    ? enqueueCompletion(updated, System.currentTimeMillis()).thenReturn(updated)
+                    : Mono.just(updated)))
+            .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Mark a task completed unless it already is, and emit it; empty if there is no such task.
+     * Completing it enqueues its completion notifications.
+     */
+    public Mono<Task> markCompleted(Long id, long completedAt) {
+        return databaseClient.sql("UPDATE tasks SET status = " + COMPLETED_CODE + ", completed_at = :completedAt, " +
+                                  "version = " + NEXT_VERSION + " WHERE id = :id AND status <> " + COMPLETED_CODE)
+            .bind("completedAt", completedAt)
+            .bind("id", id)
+            .fetch().rowsUpdated()
+            .flatMap(rows -> findById(id)
+                .flatMap(task -> rows > 0 ? enqueueCompletion(task, completedAt).thenReturn(task) : Mono.just(task)))
+            .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Enqueue a completed task's notification on each of its channels that has a target.
+     * Runs in the caller's transaction.
+     */
+    private Mono<Void> enqueueCompletion(Task task, long now) {
+        return Flux.fromIterable(completionMessages(task, now))
+            .concatMap(message -> {
+                DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(ENQUEUE_SQL)
+                    .bind("dedupKey", message.getDedupKey())
+                    .bind("kind", message.getKind().name())
+                    .bind("channel", message.getChannel())
+                    .bind("target", message.getTarget())
+                    .bind("taskId", message.getTaskId())
+                    .bind("createdAt", message.getCreatedAt())
+                    .bind("nextAttemptAt", message.getCreatedAt());
+                spec = bind(spec, "email", message.getEmail(), String.class);
+                spec = bind(spec, "title", message.getTitle(), String.class);
+                spec = bind(spec, "description", message.getDescription(), String.class);
+                spec = bind(spec, "due", message.getDueTimestamp(), Long.class);
+                spec = bind(spec, "locale", message.getLocale(), String.class);
+                spec = bind(spec, "completedAt", message.getCompletedAt(), Long.class);
+                return spec.fetch().rowsUpdated();
+            })
+            .then();
+    }
+
+    private static List<OutboxMessage> completionMessages(Task task, long now) {
+        Set<String> channels = new LinkedHashSet<>();
+        if (task.getChannels() == null) {
+            channels.add(EMAIL_CHANNEL);
+        } else {
+            for (String name : task.getChannels().split(",")) {
+                channels.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (String channel : channels) {
+            String target = EMAIL_CHANNEL.equals(channel) ? task.getEmail()
+                : WEBHOOK_CHANNEL.equals(channel) ? task.getWebhookUrl()
+                : null;
+            if (target != null && !target.isEmpty()) {
+                messages.add(OutboxMessage.completion(channel, target, task, now));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Delete task by ID, leaving a tombstone for delta sync clients. Emits true if it existed.
+     */
+    public Mono<Boolean> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM tasks WHERE id = :id")
+            .bind("id", id)
+            .fetch().rowsUpdated()
+            .flatMap(rows -> rows == 0
+                ? Mono.just(false)
+                : databaseClient.sql("MERGE INTO task_tombstones (task_id, version) KEY (task_id) " +
+                                     "VALUES (:id, " + NEXT_VERSION + ")")
+                    .bind("id", id)
+                    .fetch().rowsUpdated()
+                    .thenReturn(true))
+            .as(transactionalOperator::transactional)
+            .doOnNext(deleted -> logger.info("Deleted task with ID: {}: {}", id, deleted));
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                              T value, Class<T> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.taskreminder.reactive.service;
+
+import com.example.taskreminder.model.ReminderOffsets;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.reactive.repository.ReactiveTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the servlet application's TaskService: the same operations and rules,
+ * with results as {@link Mono} and {@link Flux}. Where the servlet service returns an empty Optional
+ * or {@code false} for a missing task, these methods complete empty or emit {@code false}.
+ */
+@Service
+public class ReactiveTaskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTaskService.class);
+
+    private final ReactiveTaskRepository taskRepository;
+
+    @Autowired
+    public ReactiveTaskService(ReactiveTaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Create a new task.
+     */
+    public Mono<Task> createTask(Task task) {
+        try {
+            task.setReminderOffsets(ReminderOffsets.normalize(task.getReminderOffsets()));
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatus.PENDING);
+        }
+        if (task.createdAt() == Task.ABSENT) {
+            task.setCreatedAt(System.currentTimeMillis());
+        }
+        logger.info("Creating task: {}", task.getTitle());
+        return taskRepository.save(task);
+    }
+
+    /**
+     * Get task by ID.
+     */
+    public Mono<Task> getTaskById(Long id) {
+        return taskRepository.findById(id);
+    }
+
+    /**
+     * Get all tasks, optionally filtered by status (any case), as a stream. No task has an unknown status.
+     */
+    public Flux<Task> getAllTasks(String status) {
+        if (status != null && !status.isEmpty()) {
+            TaskStatus named = TaskStatus.named(status);
+            return named != null ? taskRepository.findByStatus(named) : Flux.empty();
+        }
+        return taskRepository.findAll();
+    }
+
+    /**
+     * Update an existing task and emit it as stored; empty if it does not exist.
+     */
+    public Mono<Task> updateTask(Task task) {
+        try {
+            task.setReminderOffsets(ReminderOffsets.normalize(task.getReminderOffsets()));
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        logger.info("Updating task ID: {}", task.getId());
+        return taskRepository.update(task);
+    }
+
+    /**
+     * Delete a task by ID.
+     */
+    public Mono<Boolean> deleteTask(Long id) {
+        logger.info("Deleting task ID: {}", id);
+        return taskRepository.deleteById(id);
+    }
+
+    /**
+     * Mark task as completed. Emits false only if the task does not exist.
+     */
+    public Mono<Boolean> markTaskCompleted(Long id) {
+        // Already completed counts as success, as in the servlet service
+        return taskRepository.markCompleted(id, System.currentTimeMillis())
+            .map(task -> true)
+            .defaultIfEmpty(false);
+    }
+
+    /**
+     * ETag for a task representation, in the servlet application's format.
+     */
+    public static String taskETag(Long version) {
+        return "\"r" + version + "\"";
+    }
+}
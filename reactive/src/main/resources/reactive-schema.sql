@@ -0,0 +1,4 @@
+-- Additions to the shared schema for the reactive application
+
+-- Change-tracking versions; the servlet application assigns them in memory instead
+CREATE SEQUENCE IF NOT EXISTS task_version_seq START WITH 1;
@@ -0,0 +1,193 @@
+package com.example.taskreminder.reactive.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load test for the task API, run against the servlet application or the reactive one
+ * (they share paths). For each concurrency level it keeps that many requests in flight, each on its
+ * own connection, for a fixed time: 90% GET /tasks/{id}, 10% POST /tasks/add, plus a GET /tasks/list
+ * every {@code --list-every} requests. It prints throughput and latency, and the server's live
+ * threads and resident memory (from /proc when {@code --pid} is given, else JVM heap from the
+ * metrics endpoint) at idle and under load, divided by the number of connections.
+ *
+ * <pre>
+ * java -cp reactive/target/test-classes com.example.taskreminder.reactive.loadtest.ConnectionLoadTest \
+ *     --url=http://localhost:8081 --pid=$(pgrep -f task-reminder-reactive) --connections=50,200,1000 --seconds=15
+ * </pre>
+ */
+public class ConnectionLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final String url;
+    private final int seconds;
+    private final int seedTasks;
+    private final int listEvery;
+    private final String pid;
+    private final List<Long> ids = new ArrayList<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4, r -> {
+        Thread thread = new Thread(r, "load-client");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .executor(executor)
+        .build();
+
+    ConnectionLoadTest(Map<String, String> args) {
+        this.url = args.getOrDefault("url", "http://localhost:8081");
+        this.seconds = Integer.parseInt(args.getOrDefault("seconds", "15"));
+        this.seedTasks = Integer.parseInt(args.getOrDefault("seed", "1000"));
+        this.listEvery = Integer.parseInt(args.getOrDefault("list-every", "500"));
+        this.pid = args.get("pid");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int[] levels = Arrays.stream(options.getOrDefault("connections", "50,200,1000").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+
+        ConnectionLoadTest test = new ConnectionLoadTest(options);
+        test.seed();
+        System.out.printf("%s: %d tasks, %d s per level%n", test.url, test.ids.size(), test.seconds);
+        System.out.println("connections   req/s   p50 ms   p99 ms  errors  threads idle/load  memory MB idle/load  KB/conn");
+        for (int connections : levels) {
+            test.run(connections);
+        }
+        System.exit(0);
+    }
+
+    private void seed() throws Exception {
+        long due = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30);
+        for (int i = 0; i < seedTasks; i++) {
+            HttpResponse<String> response = client.send(createRequest("seed " + i, due), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() == 201 && matcher.find()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Could not create tasks at " + url);
+        }
+    }
+
+    private void run(int connections) throws Exception {
+        System.gc();
+        double idleThreads = metric("jvm.threads.live");
+        double idleMemory = memoryMb();
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<CompletableFuture<Void>> loops = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            next(deadline, latencies, requests, errors, done);
+            loops.add(done);
+        }
+
+        // Sample the server halfway through, when every connection is open and busy
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds) / 2);
+        double loadThreads = metric("jvm.threads.live");
+        double loadMemory = memoryMb();
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).get(seconds + 60L, TimeUnit.SECONDS);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double p50 = sorted.length > 0 ? sorted[sorted.length / 2] / 1e6 : 0;
+        double p99 = sorted.length > 0 ? sorted[(int) (sorted.length * 0.99)] / 1e6 : 0;
+        double perConnectionKb = (loadMemory - idleMemory) * 1024 / connections;
+        System.out.printf("%11d  %6.0f  %7.1f  %7.1f  %6d  %8.0f/%-8.0f  %9.0f/%-9.0f  %7.1f%n",
+            connections, requests.get() / (double) seconds, p50, p99, errors.get(),
+            idleThreads, loadThreads, idleMemory, loadMemory, perConnectionKb);
+    }
+
+    /**
+     * One request, then the next from its completion, until the deadline: a connection's worth of load.
+     */
+    private void next(long deadline, ConcurrentLinkedQueue<Long> latencies, AtomicLong requests, AtomicLong errors,
+                      CompletableFuture<Void> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete(null);
+            return;
+        }
+        long count = requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request;
+        if (listEvery > 0 && count % listEvery == 0) {
+            request = HttpRequest.newBuilder(URI.create(url + "/tasks/list?status=COMPLETED")).GET().build();
+        } else if (random.nextInt(10) == 0) {
+            request = createRequest("load " + count, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30));
+        } else {
+            request = HttpRequest.newBuilder(URI.create(url + "/tasks/" + ids.get(random.nextInt(ids.size())))).GET().build();
+        }
+        long started = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            latencies.add(System.nanoTime() - started);
+            if (error != null || response.statusCode() >= 400) {
+                errors.incrementAndGet();
+            }
+            next(deadline, latencies, requests, errors, done);
+        });
+    }
+
+    private HttpRequest createRequest(String title, long due) {
+        String body = "{\"title\":\"" + title + "\",\"dueTimestamp\":" + due + ",\"email\":\"load@example.com\"}";
+        return HttpRequest.newBuilder(URI.create(url + "/tasks/add"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    /**
+     * Resident set size of the server process when its pid is known, else JVM memory in use.
+     */
+    private double memoryMb() throws Exception {
+        if (pid != null) {
+            for (String line : Files.readAllLines(Path.of("/proc", pid, "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024.0;
+                }
+            }
+        }
+        return metric("jvm.memory.used") / (1024 * 1024);
+    }
+
+    private double metric(String name) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(url + "/actuator/metrics/" + name)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = VALUE.matcher(response.body());
+        return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+}
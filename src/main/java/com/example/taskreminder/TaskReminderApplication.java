@@ -1,6 +1,7 @@
 package com.example.taskreminder;
 
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
 import com.example.taskreminder.repository.TaskRepository;
 import com.example.taskreminder.service.ScheduleService;
 import org.slf4j.Logger;
@@ -9,12 +10,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Main Spring Boot application class.
- * On startup, loads pending tasks and schedules reminders.
+ * On startup, loads pending tasks and schedules reminders,
+ * and queues reminders missed during downtime for catch-up delivery.
  */
 @SpringBootApplication
 public class TaskReminderApplication implements CommandLineRunner {
@@ -28,7 +32,11 @@ public class TaskReminderApplication implements CommandLineRunner {
     private ScheduleService scheduleService;
 
     public static void main(String[] args) {
-        SpringApplication.run(TaskReminderApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(TaskReminderApplication.class, args);
+        // Training runs (e.g. for the CDS archive) only need to go through startup once
+        if (context.getEnvironment().getProperty("taskreminder.startup.exit-after-start", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
     @Override
@@ -37,16 +45,18 @@ public class TaskReminderApplication implements CommandLineRunner {
         
         try {
             // Load all pending tasks
-            List<Task> pendingTasks = taskRepository.findByStatus("PENDING");
+            List<Task> pendingTasks = taskRepository.findByStatus(TaskStatus.PENDING);
             logger.info("Found {} pending tasks", pendingTasks.size());
             
-            // Schedule reminders for tasks with future due dates
-            for (Task task : pendingTasks) {
-                if (task.getDueTimestamp() != null && task.getDueTimestamp() > System.currentTimeMillis()) {
-                    scheduleService.scheduleReminder(task);
-                    logger.info("Scheduled reminder for task ID: {}", task.getId());
-                }
-            }
+            // Schedule reminders for tasks with future due dates in one bulk pass
+            long now = System.currentTimeMillis();
+            List<Task> upcoming = pendingTasks.stream()
+                .filter(task -> task.dueTimestamp() != Task.ABSENT && task.dueTimestamp() > now)
+                .collect(Collectors.toList());
+            scheduleService.scheduleReminders(upcoming, null, count -> { });
+
+            // Reminders that came due while the application was down go through the catch-up lane
+            scheduleService.recoverMissedReminders();
             
             logger.info("Startup scheduling completed successfully");
         } catch (Exception e) {
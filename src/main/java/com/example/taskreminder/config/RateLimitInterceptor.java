@@ -0,0 +1,67 @@
+package com.example.taskreminder.config;
+
+import com.example.taskreminder.ratelimit.EndpointClass;
+import com.example.taskreminder.ratelimit.RateLimitDecision;
+import com.example.taskreminder.service.RateLimitService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Interceptor that applies per-client rate limits before a controller runs.
+ * Clients are identified by their remote address, which a client cannot choose per request;
+ * behind a reverse proxy, configure {@code server.forward-headers-strategy} so it is the
+ * address the proxy reports. Rejected requests get an immediate 429 with a Retry-After header.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".acquired";
+
+    private final RateLimitService rateLimitService;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getAttribute(ACQUIRED_ATTRIBUTE) != null) {
+            // Async re-dispatch of a request that was already admitted
+            return true;
+        }
+
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        RateLimitDecision decision = rateLimitService.tryAcquire(request.getRemoteAddr(), endpointClass);
+        if (decision.isAllowed()) {
+            request.setAttribute(ACQUIRED_ATTRIBUTE, endpointClass);
+            return true;
+        }
+
+        String message = decision.getOutcome() == RateLimitDecision.Outcome.CONCURRENCY_LIMITED
+            ? "Too many concurrent requests for this endpoint"
+            : "Rate limit exceeded";
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            // Streaming responses release their slot when the async dispatch completes
+            return;
+        }
+        Object acquired = request.getAttribute(ACQUIRED_ATTRIBUTE);
+        if (acquired instanceof EndpointClass) {
+            request.removeAttribute(ACQUIRED_ATTRIBUTE);
+            rateLimitService.release((EndpointClass) acquired);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskreminder.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Scheduler configuration providing the clock and executors used by the reminder pipeline.
+ * Defined as beans so tests and the virtual-time simulation can substitute their own.
+ */
+@Configuration
+public class SchedulerConfiguration {
+
+    @Bean
+    public Clock reminderClock() {
+        return Clock.systemUTC();
+    }
+
+    @Bean
+    public ScheduledExecutorService reminderScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(5);
+        // Cancelled reminders would otherwise stay queued until their due time
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Bean
+    public ScheduledExecutorService sendShaperExecutor() {
+        return Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Bean
+    public ExecutorService reminderSendExecutor(@Value("${taskreminder.shaping.send-threads:5}") int sendThreads) {
+        return Executors.newFixedThreadPool(sendThreads);
+    }
+
+    @Bean
+    public ScheduledExecutorService catchUpExecutor() {
+        return Executors.newSingleThreadScheduledExecutor();
+    }
+}
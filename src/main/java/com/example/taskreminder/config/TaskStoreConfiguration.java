@@ -0,0 +1,121 @@
+package com.example.taskreminder.config;
+
+import com.example.taskreminder.notification.NotificationChannels;
+import com.example.taskreminder.readmodel.ReadModelTaskRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.example.taskreminder.sharding.ShardedTaskRepository;
+import com.example.taskreminder.writebehind.WriteBehindTaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single-database task repository wherever a {@code TaskRepository} is injected:
+ * <ul>
+ *   <li>with a sharded store when {@code taskreminder.sharding.shards} is greater than one.
+ *       Shard 0 is the application's own database; the others are created from the URL
+ *       template and given the same schema;</li>
+ *   <li>with an in-memory read model in front of the store (single or sharded) when
+ *       {@code taskreminder.readmodel.enabled} is true;</li>
+ *   <li>with a write-behind log in front of both that acknowledges completions before they
+ *       commit when {@code taskreminder.writebehind.enabled} is true.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnExpression("${taskreminder.sharding.shards:1} > 1 or ${taskreminder.readmodel.enabled:false} " +
+    "or ${taskreminder.writebehind.enabled:false}")
+public class TaskStoreConfiguration {
+
+    private final List<HikariDataSource> shardDataSources = new ArrayList<>();
+    // Set when the sharded store is wrapped and so not managed by Spring
+    private ShardedTaskRepository unmanagedShards;
+
+    @Bean
+    @Primary
+    public TaskRepository taskStore(
+            @Qualifier("taskRepository") TaskRepository taskRepository,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            NotificationChannels notificationChannels,
+            @Value("${taskreminder.sharding.shards:1}") int shards,
+            @Value("${taskreminder.sharding.url-template:jdbc:h2:mem:taskreminderdb-shard{shard};DB_CLOSE_DELAY=-1}") String urlTemplate,
+            @Value("${taskreminder.sharding.pool-size:10}") int poolSize,
+            @Value("${taskreminder.sharding.query-threads:8}") int queryThreads,
+            @Value("${taskreminder.readmodel.enabled:false}") boolean readModel,
+            @Value("${taskreminder.writebehind.enabled:false}") boolean writeBehind,
+            @Value("${taskreminder.writebehind.commit-latency-millis:5}") long commitLatencyMillis,
+            @Value("${taskreminder.writebehind.flush-size:500}") int flushSize,
+            @Value("${taskreminder.writebehind.journal:}") String journal) {
+        TaskRepository store = taskRepository;
+        if (shards > 1) {
+            store = sharded(jdbcTemplate, dataSourceProperties, shards, urlTemplate, poolSize, queryThreads);
+        }
+        if (readModel) {
+            // The read model loads from the store in its own init, so the store must be ready first
+            store = new ReadModelTaskRepository(initialised(store, taskRepository));
+        }
+        if (writeBehind) {
+            store = new WriteBehindTaskRepository(initialised(store, taskRepository), commitLatencyMillis, flushSize,
+                journal.isEmpty() ? null : Paths.get(journal),
+                task -> notificationChannels.completionNotifications(task, System.currentTimeMillis()));
+        }
+        return store;
+    }
+
+    private ShardedTaskRepository sharded(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                          int shards, String urlTemplate, int poolSize, int queryThreads) {
+        // Taken from the JdbcTemplate so the application's schema has been created first
+        List<DataSource> dataSources = new ArrayList<>();
+        dataSources.add(jdbcTemplate.getDataSource());
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        for (int shard = 1; shard < shards; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setJdbcUrl(urlTemplate.replace("{shard}", String.valueOf(shard)));
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(dataSourceProperties.determineUsername());
+            dataSource.setPassword(dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(poolSize);
+            shardDataSources.add(dataSource);
+            schema.execute(dataSource);
+            dataSources.add(dataSource);
+        }
+        return new ShardedTaskRepository(dataSources, queryThreads);
+    }
+
+    /**
+     * A store about to be wrapped is no longer the bean Spring manages, so it is initialised
+     * here; the plain repository is a bean of its own and already is.
+     */
+    private TaskRepository initialised(TaskRepository store, TaskRepository taskRepository) {
+        if (store != taskRepository) {
+            store.init();
+        }
+        if (store instanceof ShardedTaskRepository) {
+            unmanagedShards = (ShardedTaskRepository) store;
+        }
+        return store;
+    }
+
+    @PreDestroy
+    public void closeShards() {
+        if (unmanagedShards != null) {
+            unmanagedShards.shutdown();
+        }
+        shardDataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.taskreminder.config;
+
+import com.example.taskreminder.service.RateLimitService;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web configuration that adds a CBOR message converter next to JSON, registers REST admission
+ * control and allows cross-origin calls to the task APIs from the configured origins only.
+ * Clients opt in to CBOR with "Accept: application/cbor" / "Content-Type: application/cbor".
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    // Empty by default: browsers may only call the API from pages it serves itself
+    @Value("${taskreminder.cors.allowed-origins:}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimitService))
+            .excludePathPatterns("/actuator/**", "/h2-console/**", "/error");
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        if (allowedOrigins.length == 0) {
+            return;
+        }
+        for (String path : new String[]{"/tasks/**", "/users/**"}) {
+            registry.addMapping(path)
+                .allowedOrigins(allowedOrigins)
+                .allowedMethods("GET", "HEAD", "POST", "PUT", "DELETE");
+        }
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // Same modules and features as the JSON mapper, only the encoding differs
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.taskreminder.controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses the {@code ids} list of a batch request body.
+ */
+final class BatchIds {
+
+    static final int MAX_IDS = 5000;
+
+    private BatchIds() {
+    }
+
+    /**
+     * Read {@code request.ids} as distinct task ids in request order.
+     *
+     * @throws IllegalArgumentException if the list is missing, too long or holds a non-numeric id
+     */
+    static List<Long> parse(Map<String, Object> request) {
+        return toIds(request != null ? request.get("ids") : null, MAX_IDS);
+    }
+
+    /**
+     * Convert a JSON id list to distinct task ids in request order.
+     *
+     * @throws IllegalArgumentException if it is not a list, longer than maxIds or holds a non-numeric id
+     */
+    static List<Long> toIds(Object idsObj, int maxIds) {
+        if (!(idsObj instanceof List)) {
+            throw new IllegalArgumentException("ids must be a list of task IDs");
+        }
+        List<?> raw = (List<?>) idsObj;
+        if (raw.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids are allowed per request");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Object id : raw) {
+            if (id instanceof Number) {
+                ids.add(((Number) id).longValue());
+            } else if (id != null) {
+                try {
+                    ids.add(Long.parseLong(id.toString()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid task ID: " + id);
+                }
+            } else {
+                throw new IllegalArgumentException("Invalid task ID: null");
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+}
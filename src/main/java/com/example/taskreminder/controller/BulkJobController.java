@@ -0,0 +1,66 @@
+package com.example.taskreminder.controller;
+
+import com.example.taskreminder.model.BulkJob;
+import com.example.taskreminder.service.BulkOperationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST controller for bulk job progress.
+ */
+@RestController
+@RequestMapping("/bulk/jobs")
+public class BulkJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkJobController.class);
+
+    private final BulkOperationService bulkOperationService;
+
+    @Autowired
+    public BulkJobController(BulkOperationService bulkOperationService) {
+        this.bulkOperationService = bulkOperationService;
+    }
+
+    /**
+     * GET /bulk/jobs/{jobId} - Get progress and result of a bulk job
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        try {
+            Optional<BulkJob> job = bulkOperationService.getJob(jobId);
+            if (job.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Bulk job not found: " + jobId));
+            }
+            return ResponseEntity.ok(job.get());
+        } catch (Exception e) {
+            logger.error("Error getting bulk job", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to get bulk job: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Response for a just-submitted job: 200 when done, 202 with a Location to poll while running.
+     */
+    static ResponseEntity<?> submitted(BulkJob job) {
+        switch (job.getState()) {
+            case COMPLETED:
+                return ResponseEntity.ok(job);
+            case FAILED:
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job);
+            default:
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/bulk/jobs/" + job.getId())
+                    .body(job);
+        }
+    }
+}
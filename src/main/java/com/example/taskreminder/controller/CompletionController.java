@@ -1,5 +1,9 @@
 package com.example.taskreminder.controller;
 
+import com.example.taskreminder.model.BulkJob;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.service.BulkOperationService;
 import com.example.taskreminder.service.ScheduleService;
 import com.example.taskreminder.service.TaskService;
 import org.slf4j.Logger;
@@ -23,11 +27,14 @@ public class CompletionController {
 
     private final TaskService taskService;
     private final ScheduleService scheduleService;
+    private final BulkOperationService bulkOperationService;
 
     @Autowired
-    public CompletionController(TaskService taskService, ScheduleService scheduleService) {
+    public CompletionController(TaskService taskService, ScheduleService scheduleService,
+                                BulkOperationService bulkOperationService) {
         this.taskService = taskService;
         this.scheduleService = scheduleService;
+        this.bulkOperationService = bulkOperationService;
     }
 
     /**
@@ -49,7 +56,7 @@ public class CompletionController {
                 id = Long.parseLong(idObj.toString());
             }
             
-            Optional<String> statusOpt = taskService.getTaskStatus(id);
+            Optional<TaskStatus> statusOpt = taskService.getTaskStatus(id);
             if (statusOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "Task not found with ID: " + id));
@@ -76,5 +83,23 @@ public class CompletionController {
                 .body(Map.of("error", "Failed to mark task as completed: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * PUT /completion/bulk - Mark all tasks selected by ids and/or a filter as completed
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<?> markTasksCompleted(@RequestBody Map<String, Object> request) {
+        try {
+            TaskFilter filter = TaskFilters.parse(request);
+            BulkJob job = bulkOperationService.completeTasks(filter);
+            return BulkJobController.submitted(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error marking tasks as completed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to mark tasks as completed: " + e.getMessage()));
+        }
+    }
+}
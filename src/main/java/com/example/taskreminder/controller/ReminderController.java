@@ -8,6 +8,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,22 +30,32 @@ public class ReminderController {
     }
 
     /**
-     * GET /reminders/{taskId} - Get scheduled reminder info for a task
+     * GET /reminders/{taskId} - Get scheduled reminder info for a task: its next reminder, and all
+     * of them in firing order
      */
     @GetMapping("/{taskId}")
     public ResponseEntity<?> getReminderInfo(@PathVariable Long taskId) {
         try {
-            ScheduleService.ReminderInfo info = scheduleService.getReminderInfo(taskId);
+            List<ScheduleService.ReminderInfo> infos = scheduleService.getReminderInfos(taskId);
             
-            if (info == null) {
+            if (infos.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "No scheduled reminder found for task ID: " + taskId));
             }
             
+            ScheduleService.ReminderInfo info = infos.get(0);
+            List<Map<String, Object>> reminders = new ArrayList<>();
+            for (ScheduleService.ReminderInfo reminder : infos) {
+                reminders.add(Map.of(
+                    "scheduledTime", reminder.getScheduledTime(),
+                    "offsetMillis", reminder.getOffsetMillis()
+                ));
+            }
             return ResponseEntity.ok(Map.of(
                 "taskId", info.getTaskId(),
                 "scheduledTime", info.getScheduledTime(),
-                "timezone", info.getTimezone() != null ? info.getTimezone() : "system default"
+                "timezone", info.getTimezone() != null ? info.getTimezone() : "system default",
+                "reminders", reminders
             ));
         } catch (Exception e) {
             logger.error("Error getting reminder info", e);
@@ -50,5 +63,41 @@ public class ReminderController {
                 .body(Map.of("error", "Failed to get reminder info: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * POST /reminders/batch - Get scheduled reminder info for many tasks in one call
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getReminderInfos(@RequestBody Map<String, Object> request) {
+        try {
+            List<Long> ids = BatchIds.parse(request);
+            Map<Long, ScheduleService.ReminderInfo> infos = scheduleService.getReminderInfos(ids);
+
+            Map<Long, Map<String, Object>> reminders = new LinkedHashMap<>();
+            List<Long> notFound = new ArrayList<>();
+            for (Long id : ids) {
+                ScheduleService.ReminderInfo info = infos.get(id);
+                if (info == null) {
+                    notFound.add(id);
+                    continue;
+                }
+                reminders.put(id, Map.of(
+                    "scheduledTime", info.getScheduledTime(),
+                    "timezone", info.getTimezone() != null ? info.getTimezone() : "system default"
+                ));
+            }
+
+            return ResponseEntity.ok(Map.of(
+                "reminders", reminders,
+                "notFound", notFound
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting reminder info", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to get reminder info: " + e.getMessage()));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.taskreminder.controller;
 
+import com.example.taskreminder.service.AnalyticsService;
 import com.example.taskreminder.service.ReportService;
+import com.example.taskreminder.service.TaskArchiveService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,19 +27,24 @@ public class ReportController {
     private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
 
     private final ReportService reportService;
+    private final TaskArchiveService taskArchiveService;
+    private final AnalyticsService analyticsService;
 
     @Autowired
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, TaskArchiveService taskArchiveService,
+                            AnalyticsService analyticsService) {
         this.reportService = reportService;
+        this.taskArchiveService = taskArchiveService;
+        this.analyticsService = analyticsService;
     }
 
     /**
-     * GET /reports/overview - Get overview statistics
+     * GET /reports/overview - Get overview statistics (archived tasks counted with includeArchived=true)
      */
     @GetMapping("/overview")
-    public ResponseEntity<?> getOverview() {
+    public ResponseEntity<?> getOverview(@RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
-            Map<String, Object> overview = reportService.getOverview();
+            Map<String, Object> overview = reportService.getOverview(includeArchived);
             return ResponseEntity.ok(overview);
         } catch (Exception e) {
             logger.error("Error generating overview", e);
@@ -47,13 +54,39 @@ public class ReportController {
     }
 
     /**
-     * POST /reports/export - Export tasks to CSV
+     * GET /reports/analytics - Created vs completed, on-time rate and time-to-complete per hour or day bucket
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(@RequestParam(defaultValue = "day") String granularity,
+                                          @RequestParam(required = false) Long from,
+                                          @RequestParam(required = false) Long to,
+                                          @RequestParam(required = false) String email,
+                                          @RequestParam(defaultValue = "false") boolean byEmail) {
+        try {
+            return ResponseEntity.ok(analyticsService.getAnalytics(granularity, from, to, email, byEmail));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error generating analytics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to generate analytics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /reports/export - Export tasks to CSV (or CBOR with "format": "cbor");
+     * "includeArchived": "true" adds archived tasks
      */
     @PostMapping("/export")
     public ResponseEntity<?> exportToCsv(@RequestBody(required = false) Map<String, String> request) {
         try {
             String status = request != null ? request.get("status") : null;
-            String filePath = reportService.exportToCsv(status);
+            boolean cbor = request != null && "cbor".equalsIgnoreCase(request.get("format"));
+            boolean includeArchived = request != null && "true".equalsIgnoreCase(request.get("includeArchived"));
+            String filePath = cbor
+                ? reportService.exportToCbor(status, includeArchived)
+                : reportService.exportToCsv(status, includeArchived);
             
             File file = new File(filePath);
             if (!file.exists()) {
@@ -66,13 +99,12 @@ public class ReportController {
             HttpHeaders headers = new HttpHeaders();
             headers.add(HttpHeaders.CONTENT_DISPOSITION, 
                 "attachment; filename=\"" + file.getName() + "\"");
-            headers.add(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE);
             
-            logger.info("Exported CSV file: {}", filePath);
+            logger.info("Exported {} file: {}", cbor ? "CBOR" : "CSV", filePath);
             return ResponseEntity.ok()
                 .headers(headers)
                 .contentLength(file.length())
-                .contentType(MediaType.parseMediaType("text/csv"))
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.parseMediaType("text/csv"))
                 .body(resource);
         } catch (Exception e) {
             logger.error("Error exporting to CSV", e);
@@ -80,5 +112,25 @@ public class ReportController {
                 .body(Map.of("error", "Failed to export CSV: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * POST /reports/archive - Archive old completed tasks now instead of waiting for the next run
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<?> archive() {
+        try {
+            int archived = taskArchiveService.archiveNow();
+            return ResponseEntity.ok(Map.of(
+                "archived", archived,
+                "completedBefore", System.currentTimeMillis() - taskArchiveService.getMinAgeMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Archiving was interrupted"));
+        } catch (Exception e) {
+            logger.error("Error archiving tasks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to archive tasks: " + e.getMessage()));
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.taskreminder.controller;
 
+import com.example.taskreminder.model.BulkJob;
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.service.BulkOperationService;
 import com.example.taskreminder.service.ScheduleService;
 import com.example.taskreminder.service.TaskService;
 import org.slf4j.Logger;
@@ -10,6 +13,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.Map;
 import java.util.Optional;
 
@@ -24,11 +29,14 @@ public class ScheduleController {
 
     private final ScheduleService scheduleService;
     private final TaskService taskService;
+    private final BulkOperationService bulkOperationService;
 
     @Autowired
-    public ScheduleController(ScheduleService scheduleService, TaskService taskService) {
+    public ScheduleController(ScheduleService scheduleService, TaskService taskService,
+                              BulkOperationService bulkOperationService) {
         this.scheduleService = scheduleService;
         this.taskService = taskService;
+        this.bulkOperationService = bulkOperationService;
     }
 
     /**
@@ -47,8 +55,14 @@ public class ScheduleController {
             if (taskIdObj instanceof Number) {
                 taskId = ((Number) taskIdObj).longValue();
             } else {
-                taskId = Long.parseLong(taskIdObj.toString());
+                try {
+                    taskId = Long.parseLong(taskIdObj.toString());
+                } catch (NumberFormatException e) {
+                    return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Invalid taskId: " + taskIdObj));
+                }
             }
+            String timezone = timezone(request);
             
             Optional<Task> taskOpt = taskService.getTaskById(taskId);
             if (taskOpt.isEmpty()) {
@@ -57,9 +71,7 @@ public class ScheduleController {
             }
             
             Task task = taskOpt.get();
-            String timezone = (String) request.get("timezone");
-            
-            if (timezone != null && !timezone.isEmpty()) {
+            if (timezone != null) {
                 scheduleService.scheduleReminder(task, timezone);
             } else {
                 scheduleService.scheduleReminder(task);
@@ -70,11 +82,56 @@ public class ScheduleController {
                 "message", "Reminder scheduled successfully",
                 "taskId", taskId
             ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error setting schedule", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to set schedule: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * POST /schedule/bulk - Schedule reminders for all tasks selected by ids and/or a filter
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> setScheduleBulk(@RequestBody Map<String, Object> request) {
+        try {
+            TaskFilter filter = TaskFilters.parse(request);
+            // Rejects a bad timezone up front rather than failing the job
+            String timezone = timezone(request);
+
+            BulkJob job = bulkOperationService.scheduleReminders(filter, timezone);
+            return BulkJobController.submitted(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error setting bulk schedule", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to set bulk schedule: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The request's optional timezone, or null when it is absent or empty.
+     *
+     * @throws IllegalArgumentException if it is not a string naming a valid zone
+     */
+    private static String timezone(Map<String, Object> request) {
+        Object value = request.get("timezone");
+        if (value == null || "".equals(value)) {
+            return null;
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("timezone must be a string, e.g. \"Europe/Paris\"");
+        }
+        try {
+            ZoneId.of((String) value);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid timezone: " + value);
+        }
+        return (String) value;
+    }
+}
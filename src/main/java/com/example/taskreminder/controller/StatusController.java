@@ -1,5 +1,6 @@
 package com.example.taskreminder.controller;
 
+import com.example.taskreminder.model.TaskStatus;
 import com.example.taskreminder.service.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,8 +9,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for task status operations.
@@ -33,7 +36,7 @@ public class StatusController {
     @GetMapping("/{taskId}")
     public ResponseEntity<?> getTaskStatus(@PathVariable Long taskId) {
         try {
-            Optional<String> statusOpt = taskService.getTaskStatus(taskId);
+            Optional<TaskStatus> statusOpt = taskService.getTaskStatus(taskId);
             
             if (statusOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -50,5 +53,30 @@ public class StatusController {
                 .body(Map.of("error", "Failed to get task status: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * POST /status/batch - Get the status of many tasks in one call
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getTaskStatuses(@RequestBody Map<String, Object> request) {
+        try {
+            List<Long> ids = BatchIds.parse(request);
+            Map<Long, TaskStatus> statuses = taskService.getTaskStatuses(ids);
+            List<Long> notFound = ids.stream()
+                .filter(id -> !statuses.containsKey(id))
+                .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                "statuses", statuses,
+                "notFound", notFound
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting task statuses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to get task statuses: " + e.getMessage()));
+        }
+    }
+}
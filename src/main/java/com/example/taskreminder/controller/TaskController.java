@@ -1,15 +1,30 @@
 package com.example.taskreminder.controller;
 
+import com.example.taskreminder.importer.ColumnMapping;
+import com.example.taskreminder.importer.ImportOptions;
+import com.example.taskreminder.model.ImportReport;
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskChanges;
+import com.example.taskreminder.service.TaskImportService;
 import com.example.taskreminder.service.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,16 +33,17 @@ import java.util.Optional;
  */
 @RestController
 @RequestMapping("/tasks")
-@CrossOrigin(origins = "*")
 public class TaskController {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
 
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskImportService taskImportService) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
     }
 
     /**
@@ -36,8 +52,8 @@ public class TaskController {
      */
     @PostMapping(
             value = "/add",
-            consumes = "application/json",
-            produces = "application/json"
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
     public ResponseEntity<?> createTask(@RequestBody Task task) {
         try {
@@ -51,6 +67,9 @@ public class TaskController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error creating task", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -59,15 +78,114 @@ public class TaskController {
     }
 
 
+    /**
+     * POST /tasks/import
+     * Import tasks from an uploaded CSV or XLSX spreadsheet (multipart field "file").
+     * The header row is mapped to task fields by name; the *Column parameters override the mapping.
+     */
+    @PostMapping(
+            value = "/import",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    public ResponseEntity<?> importTasks(@RequestParam("file") MultipartFile file,
+                                         @RequestParam(required = false) String format,
+                                         @RequestParam(required = false) String sheet,
+                                         @RequestParam(required = false) Long defaultDueTimestamp,
+                                         @RequestParam(required = false) String timezone,
+                                         @RequestParam(defaultValue = "false") boolean schedule,
+                                         @RequestParam(defaultValue = ",") String delimiter,
+                                         @RequestParam(required = false) String titleColumn,
+                                         @RequestParam(required = false) String descriptionColumn,
+                                         @RequestParam(required = false) String dueColumn,
+                                         @RequestParam(required = false) String emailColumn,
+                                         @RequestParam(required = false) String statusColumn) {
+        String type = format != null ? format.toLowerCase(Locale.ROOT) : extension(file.getOriginalFilename());
+        if (!"csv".equals(type) && !"xlsx".equals(type)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Unsupported format '" + type + "': use csv or xlsx"));
+        }
+        if (delimiter.length() != 1) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "delimiter must be a single character"));
+        }
+        try {
+            if (timezone != null) {
+                ZoneId.of(timezone);
+            }
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid timezone: " + timezone));
+        }
+
+        ImportOptions options = new ImportOptions();
+        options.setSheet(sheet);
+        options.setDefaultDueTimestamp(defaultDueTimestamp);
+        options.setTimezone(timezone);
+        options.setSchedule(schedule);
+        options.setDelimiter(delimiter.charAt(0));
+        options.setColumn(ColumnMapping.TITLE, titleColumn);
+        options.setColumn(ColumnMapping.DESCRIPTION, descriptionColumn);
+        options.setColumn(ColumnMapping.DUE, dueColumn);
+        options.setColumn(ColumnMapping.EMAIL, emailColumn);
+        options.setColumn(ColumnMapping.STATUS, statusColumn);
+
+        File workbook = null;
+        try {
+            ImportReport report;
+            if ("csv".equals(type)) {
+                try (InputStream in = file.getInputStream()) {
+                    report = taskImportService.importCsv(in, options);
+                }
+            } else {
+                // The zip directory is at the end of the file, so the upload is spooled to disk
+                workbook = Files.createTempFile("task-import", ".xlsx").toFile();
+                file.transferTo(workbook);
+                report = taskImportService.importXlsx(workbook, options);
+            }
+            logger.info("Imported {} tasks from {}", report.getImported(), file.getOriginalFilename());
+            return ResponseEntity.ok(report);
+
+        } catch (IllegalArgumentException | IOException e) {
+            logger.warn("Rejected import of {}: {}", file.getOriginalFilename(), e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid import file: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error importing tasks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import tasks: " + e.getMessage()));
+        } finally {
+            if (workbook != null && !workbook.delete()) {
+                workbook.deleteOnExit();
+            }
+        }
+    }
+
+    private static String extension(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
     @GetMapping(
             value = "/list",
-            produces = "application/json"
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
-    public ResponseEntity<?> listTasks(@RequestParam(required = false) String status) {
+    public ResponseEntity<?> listTasks(@RequestParam(required = false) String status,
+                                       @RequestParam(defaultValue = "false") boolean includeArchived,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Task> tasks = taskService.getAllTasks(status);
+            // Computed before the query so a concurrent write always changes the tag
+            String etag = taskService.getListETag(status, includeArchived);
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+
+            List<Task> tasks = taskService.getAllTasks(status, includeArchived);
             logger.info("Retrieved {} tasks", tasks.size());
-            return ResponseEntity.ok(tasks);
+            // JSON and CBOR share the tag, so caches must key on Accept too
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(tasks);
 
         } catch (Exception e) {
             logger.error("Error listing tasks", e);
@@ -76,14 +194,82 @@ public class TaskController {
         }
     }
 
+    /**
+     * GET /tasks/{id}
+     * Get a single task (ID must be numeric), honouring If-None-Match
+     */
+    @GetMapping(
+            value = "/{id:\\d+}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    public ResponseEntity<?> getTask(@PathVariable Long id,
+                                     @RequestParam(defaultValue = "false") boolean includeArchived,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            if (ifNoneMatch != null) {
+                Optional<String> knownETag = taskService.getKnownTaskETag(id);
+                if (knownETag.isPresent() && knownETag.get().equals(ifNoneMatch)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownETag.get())
+                            .varyBy(HttpHeaders.ACCEPT).build();
+                }
+            }
+
+            Optional<Task> task = taskService.getTaskById(id, includeArchived);
+            if (task.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Task not found with ID: " + id));
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(TaskService.taskETag(task.get().getVersion()))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(task.get());
+
+        } catch (Exception e) {
+            logger.error("Error getting task", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get task: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /tasks/changes?since={version}&afterId={id}
+     * Get tasks modified and deleted after a change-tracking cursor
+     */
+    @GetMapping(
+            value = "/changes",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(required = false) Long afterId,
+                                        @RequestParam(defaultValue = "500") int limit) {
+        try {
+            if (since < 0 || limit <= 0 || limit > 5000 || afterId != null && afterId < 0) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "since and afterId must be >= 0 and limit between 1 and 5000"));
+            }
+
+            TaskChanges changes = taskService.getChangesSince(since,
+                    afterId != null ? afterId : TaskChanges.VERSION_DONE, limit);
+            logger.info("Retrieved {} changed and {} deleted tasks since version {}",
+                    changes.getTasks().size(), changes.getDeleted().size(), since);
+            return ResponseEntity.ok(changes);
+
+        } catch (Exception e) {
+            logger.error("Error getting task changes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get task changes: " + e.getMessage()));
+        }
+    }
+
     /**
      * PUT /tasks/{id}
      * Update an existing task (ID must be numeric)
      */
     @PutMapping(
             value = "/{id:\\d+}",
-            consumes = "application/json",
-            produces = "application/json"
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
     public ResponseEntity<?> updateTask(@PathVariable Long id, @RequestBody Task task) {
         try {
@@ -104,6 +290,9 @@ public class TaskController {
                         .body(Map.of("error", "Failed to update task"));
             }
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error updating task", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -117,7 +306,7 @@ public class TaskController {
      */
     @DeleteMapping(
             value = "/{id:\\d+}",
-            produces = "application/json"
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
     public ResponseEntity<?> deleteTask(@PathVariable Long id) {
         try {
@@ -0,0 +1,34 @@
+package com.example.taskreminder.controller;
+
+import com.example.taskreminder.service.TaskEventStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for the task change feed.
+ */
+@RestController
+@RequestMapping("/tasks")
+public class TaskEventController {
+
+    private final TaskEventStreamService eventStreamService;
+
+    @Autowired
+    public TaskEventController(TaskEventStreamService eventStreamService) {
+        this.eventStreamService = eventStreamService;
+    }
+
+    /**
+     * GET /tasks/events
+     * Stream task create/update/complete/delete/reminder events as Server-Sent Events
+     */
+    @GetMapping(
+            value = "/events",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter streamEvents() {
+        return eventStreamService.connect();
+    }
+}
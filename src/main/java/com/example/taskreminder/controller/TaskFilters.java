@@ -0,0 +1,59 @@
+package com.example.taskreminder.controller;
+
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the task selection of a bulk request body: {@code ids} and/or
+ * {@code email}, {@code dueFrom}, {@code dueTo}, {@code status}.
+ */
+final class TaskFilters {
+
+    static final int MAX_BULK_IDS = 100_000;
+
+    private TaskFilters() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if a value is malformed or nothing is selected
+     */
+    static TaskFilter parse(Map<String, Object> request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+        List<Long> ids = request.containsKey("ids") ? BatchIds.toIds(request.get("ids"), MAX_BULK_IDS) : null;
+        String email = text(request.get("email"));
+        TaskFilter filter = new TaskFilter(
+            ids,
+            email,
+            timestamp(request.get("dueFrom"), "dueFrom"),
+            timestamp(request.get("dueTo"), "dueTo"),
+            TaskStatus.parse(text(request.get("status")))
+        );
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("Provide ids or at least one of email, dueFrom, dueTo, status");
+        }
+        return filter;
+    }
+
+    private static String text(Object value) {
+        return value != null && !value.toString().isEmpty() ? value.toString() : null;
+    }
+
+    private static Long timestamp(Object value, String name) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an epoch millisecond timestamp");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.taskreminder.controller;
+
+import com.example.taskreminder.model.UserTaskPage;
+import com.example.taskreminder.service.UserTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for per-recipient task views.
+ */
+@RestController
+@RequestMapping("/users")
+public class UserTaskController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTaskController.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final UserTaskService userTaskService;
+
+    @Autowired
+    public UserTaskController(UserTaskService userTaskService) {
+        this.userTaskService = userTaskService;
+    }
+
+    /**
+     * GET /users/{email}/tasks - A recipient's tasks by due time, optionally filtered by status and
+     * due range [dueFrom, dueTo). Pass the returned nextCursor as cursor for the next page.
+     */
+    @GetMapping(
+            value = "/{email:.+}/tasks",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    public ResponseEntity<?> getUserTasks(@PathVariable String email,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) Long dueFrom,
+                                          @RequestParam(required = false) Long dueTo,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            UserTaskPage page = userTaskService.getTasks(email, status, dueFrom, dueTo, cursor, limit);
+            logger.debug("Retrieved {} tasks for {}", page.getTasks().size(), email);
+            return ResponseEntity.ok(page);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting tasks for {}", email, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get user tasks: " + e.getMessage()));
+        }
+    }
+}
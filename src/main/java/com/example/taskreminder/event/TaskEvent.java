@@ -0,0 +1,52 @@
+package com.example.taskreminder.event;
+
+import com.example.taskreminder.model.Task;
+
+/**
+ * Immutable change notification for a single task.
+ */
+public class TaskEvent {
+    private final long sequence;
+    private final TaskEventType type;
+    private final Long taskId;
+    private final Task task; // snapshot after the change, last known state for DELETED
+    private final long timestamp; // epoch milliseconds
+
+    public TaskEvent(long sequence, TaskEventType type, Long taskId, Task task, long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.taskId = taskId;
+        this.task = task;
+        this.timestamp = timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public TaskEventType getType() {
+        return type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", taskId=" + taskId +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskreminder.event;
+
+import com.example.taskreminder.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process event bus for task changes.
+ * Listeners are invoked synchronously on the publishing thread and must not block.
+ */
+@Component
+public class TaskEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBus.class);
+
+    private final List<Consumer<TaskEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Register a listener. Returns a handle that removes it again.
+     */
+    public Runnable subscribe(Consumer<TaskEvent> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Publish a change for a task.
+     */
+    public void publish(TaskEventType type, Task task) {
+        publish(type, task.getId(), task);
+    }
+
+    /**
+     * Publish a change for a task id with an optional snapshot.
+     */
+    public void publish(TaskEventType type, Long taskId, Task task) {
+        Task snapshot = task != null ? new Task(task) : null;
+        TaskEvent event = new TaskEvent(sequence.incrementAndGet(), type, taskId, snapshot, System.currentTimeMillis());
+        for (Consumer<TaskEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                logger.error("Task event listener failed for {}", event, e);
+            }
+        }
+    }
+
+    /**
+     * Sequence number of the most recently published event.
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+}
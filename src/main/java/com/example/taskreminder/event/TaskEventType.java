@@ -0,0 +1,12 @@
+package com.example.taskreminder.event;
+
+/**
+ * Kinds of task changes published on the event bus.
+ */
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    COMPLETED,
+    DELETED,
+    REMINDER_FIRED
+}
@@ -0,0 +1,105 @@
+package com.example.taskreminder.importer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps spreadsheet columns to task fields from the header row. Headers are matched
+ * case-insensitively ignoring spaces and punctuation against a list of common names,
+ * unless the caller names the column explicitly.
+ */
+public class ColumnMapping {
+
+    public static final String TITLE = "title";
+    public static final String DESCRIPTION = "description";
+    public static final String DUE = "due";
+    public static final String EMAIL = "email";
+    public static final String STATUS = "status";
+
+    private static final Map<String, List<String>> SYNONYMS = new LinkedHashMap<>();
+
+    static {
+        SYNONYMS.put(TITLE, Arrays.asList("title", "name", "task", "taskname", "summary", "subject",
+            "userstory", "userstorydescription"));
+        SYNONYMS.put(DESCRIPTION, Arrays.asList("description", "details", "notes", "comments"));
+        SYNONYMS.put(DUE, Arrays.asList("due", "duedate", "duetimestamp", "deadline", "dueat", "date"));
+        SYNONYMS.put(EMAIL, Arrays.asList("email", "emailaddress", "mail"));
+        SYNONYMS.put(STATUS, Arrays.asList("status", "state"));
+    }
+
+    private final Map<String, Integer> indexes = new LinkedHashMap<>();
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Resolve the mapping from a header row. Overrides map a field to a header name.
+     *
+     * @throws IllegalArgumentException if an override names a missing column or no title column is found
+     */
+    public static ColumnMapping fromHeader(List<String> header, Map<String, String> overrides) {
+        ColumnMapping mapping = new ColumnMapping();
+        for (String field : SYNONYMS.keySet()) {
+            String override = overrides.get(field);
+            int index = override != null
+                ? find(header, List.of(normalize(override)))
+                : find(header, SYNONYMS.get(field));
+            if (index < 0 && override != null) {
+                throw new IllegalArgumentException("Column '" + override + "' for " + field + " not found in header " + header);
+            }
+            // A column feeds one field only; the first field to claim it wins
+            if (index >= 0 && !mapping.indexes.containsValue(index)) {
+                mapping.indexes.put(field, index);
+                mapping.headers.put(field, header.get(index));
+            }
+        }
+        if (!mapping.indexes.containsKey(TITLE)) {
+            throw new IllegalArgumentException("No title column found in header " + header
+                + "; name one with titleColumn");
+        }
+        return mapping;
+    }
+
+    /**
+     * Value of a field in a row, trimmed, or null when the column is absent or blank.
+     */
+    public String get(List<String> row, String field) {
+        Integer index = indexes.get(field);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    public boolean has(String field) {
+        return indexes.containsKey(field);
+    }
+
+    /**
+     * Field to source header, for the import report.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    private static int find(List<String> header, List<String> names) {
+        for (String name : names) {
+            for (int i = 0; i < header.size(); i++) {
+                if (name.equals(normalize(header.get(i)))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
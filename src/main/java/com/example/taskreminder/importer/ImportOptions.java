@@ -0,0 +1,88 @@
+package com.example.taskreminder.importer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options for a spreadsheet import.
+ */
+public class ImportOptions {
+
+    private String format;
+    private String sheet;
+    private Long defaultDueTimestamp;
+    private String timezone;
+    private boolean schedule;
+    private char delimiter = ',';
+    private final Map<String, String> columnOverrides = new HashMap<>();
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getSheet() {
+        return sheet;
+    }
+
+    public void setSheet(String sheet) {
+        this.sheet = sheet;
+    }
+
+    /**
+     * Due timestamp for rows without one; rows without a due date are rejected when null.
+     */
+    public Long getDefaultDueTimestamp() {
+        return defaultDueTimestamp;
+    }
+
+    public void setDefaultDueTimestamp(Long defaultDueTimestamp) {
+        this.defaultDueTimestamp = defaultDueTimestamp;
+    }
+
+    /**
+     * Zone for dates without an offset and for scheduled reminders; system default when null.
+     */
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+    }
+
+    /**
+     * Whether to schedule reminders for imported pending tasks as they are inserted.
+     */
+    public boolean isSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(boolean schedule) {
+        this.schedule = schedule;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Field name ({@link ColumnMapping#TITLE} etc.) to header name.
+     */
+    public Map<String, String> getColumnOverrides() {
+        return columnOverrides;
+    }
+
+    public void setColumn(String field, String header) {
+        if (header != null && !header.trim().isEmpty()) {
+            columnOverrides.put(field, header.trim());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.taskreminder.importer;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link RowReader#nextRow()} when one row cannot be read but the reader has moved
+ * past it, so reading can go on with the next row.
+ */
+public class MalformedRowException extends IOException {
+
+    public MalformedRowException(String message) {
+        super(message);
+    }
+}
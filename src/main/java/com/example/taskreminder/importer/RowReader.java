@@ -0,0 +1,24 @@
+package com.example.taskreminder.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Forward-only reader over the rows of a spreadsheet. Implementations hold at most one
+ * row in memory, so arbitrarily large sheets can be imported in constant space.
+ */
+public interface RowReader extends Closeable {
+
+    /**
+     * Read the next row, or return null at the end. The returned list may be reused by the next call.
+     *
+     * @throws MalformedRowException if the row cannot be read; the next call reads the row after it
+     */
+    List<String> nextRow() throws IOException;
+
+    /**
+     * 1-based row number of the row last returned, as shown in the source (line or sheet row number).
+     */
+    long getRowNumber();
+}
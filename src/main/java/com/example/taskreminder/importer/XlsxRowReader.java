@@ -0,0 +1,297 @@
+package com.example.taskreminder.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streaming XLSX reader. The worksheet XML is pulled with StAX one row at a time, so memory
+ * does not grow with the number of rows. Only the shared string table is loaded up front,
+ * because cells refer to it by index in any order.
+ */
+public class XlsxRowReader implements RowReader {
+
+    // Column XFD, the last one a worksheet can have
+    static final int MAX_COLUMNS = 16_384;
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xml;
+    private final String sheetName;
+    private final List<String> row = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+    private long rowNumber;
+
+    /**
+     * Open a sheet by name, or the first sheet when the name is null.
+     */
+    public XlsxRowReader(File file, String sheetName) throws IOException {
+        this.zip = new ZipFile(file);
+        try {
+            XMLInputFactory factory = newInputFactory();
+            Map<String, String> sheets = readSheetPaths(factory);
+            if (sheets.isEmpty()) {
+                throw new IOException("Workbook has no sheets");
+            }
+            String name = sheetName != null ? sheetName : sheets.keySet().iterator().next();
+            String path = sheets.get(name);
+            if (path == null) {
+                throw new IOException("Sheet not found: " + sheetName + " (available: " + sheets.keySet() + ")");
+            }
+            this.sheetName = name;
+            this.sharedStrings = readSharedStrings(factory);
+            this.sheetStream = zip.getInputStream(entry(path));
+            this.xml = factory.createXMLStreamReader(sheetStream);
+        } catch (XMLStreamException e) {
+            zip.close();
+            throw new IOException("Malformed XLSX: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                    String r = xml.getAttributeValue(null, "r");
+                    rowNumber = r != null ? Long.parseLong(r) : rowNumber + 1;
+                    String invalidRef = readRow();
+                    if (invalidRef != null) {
+                        throw new MalformedRowException("Cell reference out of range: " + invalidRef);
+                    }
+                    return row;
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Malformed worksheet near row " + rowNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            // Closing the zip below releases everything anyway
+        }
+        sheetStream.close();
+        zip.close();
+    }
+
+    /**
+     * Read the cells of the current row up to its end. Returns the first cell reference outside
+     * columns A to XFD, or null when the row is valid.
+     */
+    private String readRow() throws XMLStreamException {
+        row.clear();
+        String invalidRef = null;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String ref = xml.getAttributeValue(null, "r");
+                String type = xml.getAttributeValue(null, "t");
+                int column = ref != null ? columnIndex(ref) : row.size();
+                String value = readCell(type);
+                if (column < 0 || column >= MAX_COLUMNS) {
+                    if (invalidRef == null) {
+                        invalidRef = ref != null ? ref : "(column " + (column + 1) + ")";
+                    }
+                    continue;
+                }
+                while (row.size() < column) {
+                    row.add("");
+                }
+                if (row.size() == column) {
+                    row.add(value);
+                } else {
+                    row.set(column, value);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                return invalidRef;
+            }
+        }
+        return invalidRef;
+    }
+
+    /**
+     * Read a cell's value; the reader is left on the cell's end element.
+     */
+    private String readCell(String type) throws XMLStreamException {
+        text.setLength(0);
+        boolean inValue = false;
+        boolean inPhonetic = false;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("rPh".equals(name)) {
+                    inPhonetic = true;
+                } else if (("v".equals(name) || "t".equals(name)) && !inPhonetic) {
+                    inValue = true;
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (inValue) {
+                    text.append(xml.getText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("c".equals(name)) {
+                    break;
+                } else if ("rPh".equals(name)) {
+                    inPhonetic = false;
+                } else if ("v".equals(name) || "t".equals(name)) {
+                    inValue = false;
+                }
+            }
+        }
+
+        String raw = text.toString();
+        if ("s".equals(type)) {
+            try {
+                return sharedStrings.get(Integer.parseInt(raw.trim()));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return "";
+            }
+        }
+        if ("b".equals(type)) {
+            return "1".equals(raw) ? "TRUE" : "FALSE";
+        }
+        return raw;
+    }
+
+    private List<String> readSharedStrings(XMLInputFactory factory) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            StringBuilder item = new StringBuilder();
+            boolean inText = false;
+            boolean inPhonetic = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("si".equals(name)) {
+                        item.setLength(0);
+                    } else if ("rPh".equals(name)) {
+                        inPhonetic = true;
+                    } else if ("t".equals(name) && !inPhonetic) {
+                        inText = true;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (inText) {
+                        item.append(reader.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("si".equals(name)) {
+                        strings.add(item.toString());
+                    } else if ("rPh".equals(name)) {
+                        inPhonetic = false;
+                    } else if ("t".equals(name)) {
+                        inText = false;
+                    }
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    /**
+     * Sheet name to zip entry path, in workbook order.
+     */
+    private Map<String, String> readSheetPaths(XMLInputFactory factory) throws IOException, XMLStreamException {
+        Map<String, String> targets = new HashMap<>();
+        try (InputStream in = zip.getInputStream(entry("xl/_rels/workbook.xml.rels"))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(reader.getLocalName())) {
+                    targets.put(reader.getAttributeValue(null, "Id"), reader.getAttributeValue(null, "Target"));
+                }
+            }
+            reader.close();
+        }
+
+        Map<String, String> sheets = new LinkedHashMap<>();
+        try (InputStream in = zip.getInputStream(entry("xl/workbook.xml"))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(reader.getLocalName())) {
+                    String target = targets.get(reader.getAttributeValue(RELATIONSHIPS_NS, "id"));
+                    if (target != null) {
+                        String path = target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                        sheets.put(reader.getAttributeValue(null, "name"), path);
+                    }
+                }
+            }
+            reader.close();
+        }
+        return sheets;
+    }
+
+    private ZipEntry entry(String path) throws IOException {
+        ZipEntry entry = zip.getEntry(path);
+        if (entry == null) {
+            throw new IOException("Not an XLSX workbook: missing " + path);
+        }
+        return entry;
+    }
+
+    /**
+     * Zero-based column index of a cell reference such as "B12", or -1 when the reference has
+     * no column letters or names a column past XFD.
+     */
+    static int columnIndex(String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char ch = ref.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+            if (column > MAX_COLUMNS) {
+                return -1;
+            }
+        }
+        return column - 1;
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Workbooks are untrusted uploads
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
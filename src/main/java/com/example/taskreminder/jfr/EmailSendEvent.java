@@ -0,0 +1,60 @@
+package com.example.taskreminder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Locale;
+
+/**
+ * Flight Recorder event spanning one email send. Only the recipient's domain is recorded,
+ * so recordings can be shared without exposing addresses.
+ */
+@Name("taskreminder.EmailSend")
+@Label("Email Send")
+@Category({"Task Reminder", "Email"})
+@Description("Sending one notification email")
+public class EmailSendEvent extends Event {
+
+    public static final String SENT = "SENT";
+    public static final String MOCK = "MOCK";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    @Label("Kind")
+    @Description("Template the email was rendered from, e.g. reminder or completion")
+    String kind;
+
+    @Label("Recipient Domain")
+    String recipientDomain;
+
+    @Label("HTML")
+    boolean html;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * End the event and commit it if it passed its threshold.
+     */
+    public void finish(String kind, String recipient, boolean html, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.recipientDomain = domainOf(recipient);
+            this.html = html;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+
+    private static String domainOf(String recipient) {
+        if (recipient == null) {
+            return null;
+        }
+        int at = recipient.lastIndexOf('@');
+        return at >= 0 ? recipient.substring(at + 1).toLowerCase(Locale.ROOT) : null;
+    }
+}
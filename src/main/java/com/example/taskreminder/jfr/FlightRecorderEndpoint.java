@@ -0,0 +1,236 @@
+package com.example.taskreminder.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Actuator endpoint to start, dump and stop a Flight Recorder recording that includes the
+ * application's reminder, email and repository events. Dumps are written to the configured
+ * local directory under generated names; only the newest {@code taskreminder.jfr.max-dumps}
+ * are kept. The endpoint has no authentication of its own, so it is not exposed by default.
+ *
+ * <pre>
+ * POST /actuator/jfr/start  {"settings": "profile", "maxAgeSeconds": 600, "queryThresholdMillis": 0}
+ * POST /actuator/jfr/dump
+ * POST /actuator/jfr/stop
+ * GET  /actuator/jfr
+ * </pre>
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    private static final String RECORDING_NAME = "taskreminder";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path dumpDirectory;
+    private final long maxAgeLimitSeconds;
+    private final int maxDumps;
+    private Recording recording;
+    private int dumpSequence;
+
+    public FlightRecorderEndpoint(@Value("${taskreminder.jfr.dump-dir:recordings}") String dumpDirectory,
+                                  @Value("${taskreminder.jfr.max-age-limit-seconds:3600}") long maxAgeLimitSeconds,
+                                  @Value("${taskreminder.jfr.max-dumps:10}") int maxDumps) {
+        this.dumpDirectory = Paths.get(dumpDirectory).toAbsolutePath();
+        this.maxAgeLimitSeconds = Math.max(1L, maxAgeLimitSeconds);
+        this.maxDumps = Math.max(1, maxDumps);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * State of the recording and the dumps written so far.
+     */
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("available", FlightRecorder.isAvailable());
+        status.put("recording", recording != null ? describe(recording) : null);
+        status.put("dumpDirectory", dumpDirectory.toString());
+        status.put("dumps", listDumps());
+        return status;
+    }
+
+    /**
+     * {@code start} begins a recording with the named JFC settings ("default" or "profile");
+     * {@code dump} writes the recording so far to a file; {@code stop} dumps and closes it.
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> control(@Selector String action,
+                                                                         @Nullable String settings,
+                                                                         @Nullable Long maxAgeSeconds,
+                                                                         @Nullable Long queryThresholdMillis) {
+        try {
+            switch (action) {
+                case "start":
+                    return new WebEndpointResponse<>(start(settings, maxAgeSeconds, queryThresholdMillis));
+                case "dump":
+                    return new WebEndpointResponse<>(dump(false));
+                case "stop":
+                    return new WebEndpointResponse<>(dump(true));
+                default:
+                    throw new IllegalArgumentException("Unknown action: " + action + " (use start, dump or stop)");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IOException | ParseException e) {
+            logger.error("Flight Recorder {} failed", action, e);
+            return new WebEndpointResponse<>(Map.of("error", "Failed to " + action + " recording: " + e.getMessage()),
+                WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Map<String, Object> start(String settings, Long maxAgeSeconds, Long queryThresholdMillis)
+            throws IOException, ParseException {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder is not available in this JVM");
+        }
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running; stop it first");
+        }
+        if (maxAgeSeconds != null && (maxAgeSeconds <= 0 || maxAgeSeconds > maxAgeLimitSeconds)) {
+            throw new IllegalArgumentException("maxAgeSeconds must be between 1 and " + maxAgeLimitSeconds);
+        }
+        if (queryThresholdMillis != null && queryThresholdMillis < 0) {
+            throw new IllegalArgumentException("queryThresholdMillis must not be negative");
+        }
+        String configuration = settings != null ? settings : "default";
+        if (!configuration.equals("default") && !configuration.equals("profile")) {
+            throw new IllegalArgumentException("settings must be default or profile");
+        }
+
+        Recording started = new Recording(Configuration.getConfiguration(configuration));
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        // Bounds the repository so a forgotten recording cannot fill the disk
+        started.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : maxAgeLimitSeconds));
+        started.enable(ReminderEvent.class);
+        started.enable(EmailSendEvent.class);
+        if (queryThresholdMillis != null) {
+            started.enable(RepositoryQueryEvent.class).withThreshold(Duration.ofMillis(queryThresholdMillis));
+        } else {
+            started.enable(RepositoryQueryEvent.class);
+        }
+        started.start();
+        recording = started;
+        logger.info("Started Flight Recorder recording with {} settings", configuration);
+        return describe(started);
+    }
+
+    private Map<String, Object> dump(boolean stop) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running");
+        }
+        Files.createDirectories(dumpDirectory);
+        // The time alone repeats within a second; the recording id and a sequence make names unique
+        Path file;
+        do {
+            file = dumpDirectory.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(FILE_TIME) + "-"
+                + recording.getId() + "-" + (++dumpSequence) + ".jfr");
+        } while (Files.exists(file));
+        Map<String, Object> result;
+        if (stop) {
+            recording.stop();
+            recording.dump(file);
+            result = describe(recording);
+            recording.close();
+            recording = null;
+        } else {
+            recording.dump(file);
+            result = describe(recording);
+        }
+        result.put("file", file.toString());
+        result.put("bytes", Files.size(file));
+        logger.info("Dumped Flight Recorder recording to {}", file);
+        deleteOldDumps();
+        return result;
+    }
+
+    /**
+     * Delete all but the newest {@code maxDumps} recordings in the dump directory.
+     */
+    private void deleteOldDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            dumps = files.filter(path -> path.getFileName().toString().endsWith(".jfr"))
+                .sorted(Comparator.comparing(FlightRecorderEndpoint::lastModified).reversed())
+                .collect(Collectors.toList());
+        }
+        for (Path old : dumps.subList(Math.min(maxDumps, dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+            logger.info("Deleted old Flight Recorder recording {}", old);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            // Gone already; sorts as oldest
+            return FileTime.fromMillis(0L);
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new HashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime());
+        description.put("maxAgeSeconds", recording.getMaxAge() != null ? recording.getMaxAge().getSeconds() : null);
+        return description;
+    }
+
+    private List<String> listDumps() {
+        if (!Files.isDirectory(dumpDirectory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(".jfr"))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warn("Could not list recordings in {}", dumpDirectory, e);
+            return new ArrayList<>();
+        }
+    }
+}
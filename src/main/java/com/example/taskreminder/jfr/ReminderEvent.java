@@ -0,0 +1,80 @@
+package com.example.taskreminder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.Timestamp;
+
+/**
+ * Flight Recorder event for a reminder being scheduled, cancelled or fired. Fired events
+ * span the dispatch and carry the lag between the due time and the start of the send.
+ */
+@Name("taskreminder.Reminder")
+@Label("Reminder")
+@Category({"Task Reminder", "Scheduling"})
+@Description("A reminder was scheduled, cancelled or fired")
+@StackTrace(false)
+public class ReminderEvent extends Event {
+
+    public static final String SCHEDULED = "SCHEDULED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String FIRED = "FIRED";
+
+    @Label("Task ID")
+    long taskId;
+
+    @Label("Action")
+    String action;
+
+    @Label("Outcome")
+    @Description("Final reminder state for fired events")
+    String outcome;
+
+    @Label("Due")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long dueTimestamp;
+
+    @Label("Lag")
+    @Description("Time from the due time to the start of the send, negative when shaping sent it early")
+    @Timespan(Timespan.MILLISECONDS)
+    long lagMillis;
+
+    @Label("Timezone")
+    String timezone;
+
+    /**
+     * Record a scheduled or cancelled reminder. Does nothing unless a recording has the event enabled.
+     */
+    public static void emit(String action, long taskId, long dueTimestamp, String timezone) {
+        ReminderEvent event = new ReminderEvent();
+        if (event.isEnabled()) {
+            event.set(action, taskId, dueTimestamp, timezone);
+            event.commit();
+        }
+    }
+
+    /**
+     * Fill in the fields and commit if the event passed its threshold. For fired events, after
+     * {@link #begin()} and the send; {@code sendStarted} is when the send began.
+     */
+    public void fired(long taskId, long dueTimestamp, String timezone, String outcome, long sendStarted) {
+        end();
+        if (shouldCommit()) {
+            set(FIRED, taskId, dueTimestamp, timezone);
+            this.outcome = outcome;
+            this.lagMillis = sendStarted - dueTimestamp;
+            commit();
+        }
+    }
+
+    private void set(String action, long taskId, long dueTimestamp, String timezone) {
+        this.action = action;
+        this.taskId = taskId;
+        this.dueTimestamp = dueTimestamp;
+        this.timezone = timezone;
+    }
+}
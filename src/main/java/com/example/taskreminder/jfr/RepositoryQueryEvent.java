@@ -0,0 +1,40 @@
+package com.example.taskreminder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event spanning one repository statement. The statement is the SQL with
+ * placeholders, never the bound values. Statements under the threshold (1 ms unless the
+ * recording overrides it) are dropped.
+ */
+@Name("taskreminder.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Task Reminder", "Database"})
+@Description("One SQL statement or transaction issued by a repository")
+@Threshold("1 ms")
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Statement")
+    String statement;
+
+    @Label("Rows")
+    @Description("Rows returned or affected, -1 if not known")
+    long rows;
+
+    /**
+     * End the event and commit it if it passed its threshold.
+     */
+    public void finish(String statement, long rows) {
+        end();
+        if (shouldCommit()) {
+            this.statement = statement;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
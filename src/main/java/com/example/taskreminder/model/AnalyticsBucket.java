@@ -0,0 +1,70 @@
+package com.example.taskreminder.model;
+
+/**
+ * Task throughput for one time bucket: tasks created and completed in it, how many of the
+ * completions were on time, and the summed time-to-complete of those completions.
+ */
+public class AnalyticsBucket {
+    private final long bucketStart;
+    private long created;
+    private long completed;
+    private long completedOnTime;
+    private long totalCompletionMillis;
+
+    public AnalyticsBucket(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public AnalyticsBucket(long bucketStart, long created, long completed, long completedOnTime, long totalCompletionMillis) {
+        this.bucketStart = bucketStart;
+        this.created = created;
+        this.completed = completed;
+        this.completedOnTime = completedOnTime;
+        this.totalCompletionMillis = totalCompletionMillis;
+    }
+
+    public void add(long created, long completed, long completedOnTime, long totalCompletionMillis) {
+        this.created += created;
+        this.completed += completed;
+        this.completedOnTime += completedOnTime;
+        this.totalCompletionMillis += totalCompletionMillis;
+    }
+
+    public void add(AnalyticsBucket other) {
+        add(other.created, other.completed, other.completedOnTime, other.totalCompletionMillis);
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getCompletedOnTime() {
+        return completedOnTime;
+    }
+
+    public long getTotalCompletionMillis() {
+        return totalCompletionMillis;
+    }
+
+    /**
+     * Share of completions at or before the due time, or null when nothing was completed.
+     */
+    public Double getOnTimeRate() {
+        return completed > 0 ? completedOnTime / (double) completed : null;
+    }
+
+    /**
+     * Mean completedAt - createdAt of the completions, or null when nothing was completed.
+     */
+    public Long getAverageTimeToCompleteMillis() {
+        return completed > 0 ? totalCompletionMillis / completed : null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.taskreminder.model;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and outcome of a bulk operation. Updated by the worker thread, read by the jobs endpoint.
+ */
+public class BulkJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final String type;
+    private final long startedAt;
+    private final AtomicInteger total = new AtomicInteger(-1);
+    private final AtomicInteger processed = new AtomicInteger();
+    private volatile State state = State.RUNNING;
+    private volatile String phase = "selecting";
+    private volatile Long finishedAt;
+    private volatile Map<String, Object> result;
+    private volatile String error;
+
+    public BulkJob(String id, String type, long startedAt) {
+        this.id = id;
+        this.type = type;
+        this.startedAt = startedAt;
+    }
+
+    public void start(String phase, int total) {
+        this.phase = phase;
+        this.processed.set(0);
+        this.total.set(total);
+    }
+
+    public void advance(int count) {
+        processed.addAndGet(count);
+    }
+
+    public void complete(Map<String, Object> result, long finishedAt) {
+        this.result = result;
+        this.finishedAt = finishedAt;
+        this.phase = "done";
+        this.state = State.COMPLETED;
+    }
+
+    public void fail(String error, long finishedAt) {
+        this.error = error;
+        this.finishedAt = finishedAt;
+        this.state = State.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Items in the current phase, or -1 while still unknown.
+     */
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Map<String, Object> getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.taskreminder.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a spreadsheet import. Row errors are counted in full but only the first
+ * {@code MAX_ERRORS} are listed.
+ */
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 100;
+
+    private final String format;
+    private String sheet;
+    private long rowsRead;
+    private long imported;
+    private long skipped;
+    private long scheduled;
+    private long errorCount;
+    private final List<RowError> errors = new ArrayList<>();
+    private Map<String, String> columns;
+    private long durationMillis;
+
+    public ImportReport(String format) {
+        this.format = format;
+    }
+
+    public void addError(long row, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void skip() {
+        skipped++;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addScheduled(long count) {
+        scheduled += count;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getSheet() {
+        return sheet;
+    }
+
+    public void setSheet(String sheet) {
+        this.sheet = sheet;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(Map<String, String> columns) {
+        this.columns = columns;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return durationMillis > 0 ? rowsRead * 1000.0 / durationMillis : rowsRead;
+    }
+
+    /**
+     * A rejected row, by its row number in the source.
+     */
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.taskreminder.model;
+
+/**
+ * A notification waiting in the transactional outbox. Written in the same transaction as the
+ * task change that caused it and delivered later by the relay through one notification channel.
+ * The dedup key identifies the notification (not the row), so enqueueing the same notification
+ * twice is a no-op.
+ */
+public class OutboxMessage {
+
+    public enum Kind {
+        REMINDER,
+        COMPLETION
+    }
+
+    private Long id;
+    private String dedupKey;
+    private Kind kind;
+    private String channel;
+    private String target; // channel address, e.g. the email address or webhook URL
+    private Long taskId;
+    private String email;
+    private String title;
+    private String description;
+    private Long dueTimestamp;
+    private String timezone;
+    private String locale; // the task's locale when enqueued, null for the default
+    private Long completedAt; // completion messages only
+    private long createdAt;
+    private int attempts;
+
+    public OutboxMessage() {
+    }
+
+    /**
+     * The reminder scheduled for {@code remindAt} (the due time less one of the task's
+     * reminder offsets), through the given channel.
+     */
+    public static OutboxMessage reminder(String channel, String target, Task task, String timezone,
+                                         long remindAt, long now) {
+        OutboxMessage message = of(Kind.REMINDER, channel, target, task, now);
+        message.dedupKey = channel + ":reminder:" + task.getId() + ":" + remindAt;
+        message.timezone = timezone;
+        return message;
+    }
+
+    /**
+     * The completion notification for a task through the given channel, keyed by its completion time.
+     */
+    public static OutboxMessage completion(String channel, String target, Task task, long now) {
+        OutboxMessage message = of(Kind.COMPLETION, channel, target, task, now);
+        message.dedupKey = channel + ":completion:" + task.getId() + ":" + task.getCompletedAt();
+        message.completedAt = task.getCompletedAt();
+        return message;
+    }
+
+    private static OutboxMessage of(Kind kind, String channel, String target, Task task, long now) {
+        OutboxMessage message = new OutboxMessage();
+        message.kind = kind;
+        message.channel = channel;
+        message.target = target;
+        message.taskId = task.getId();
+        message.email = task.getEmail();
+        message.title = task.getTitle();
+        message.description = task.getDescription();
+        message.dueTimestamp = task.getDueTimestamp();
+        message.locale = task.getLocale();
+        message.createdAt = now;
+        return message;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getDueTimestamp() {
+        return dueTimestamp;
+    }
+
+    public void setDueTimestamp(Long dueTimestamp) {
+        this.dueTimestamp = dueTimestamp;
+    }
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+
+    public Long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Long completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.taskreminder.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder offsets of a task: how long before its due time each of its reminders fires, in
+ * milliseconds. A task keeps them as a primitive {@code long[]}, largest first (so reminder 0
+ * fires first), and the repository stores them in one column as packed 8-byte values.
+ * A task without offsets gets one reminder at its due time.
+ */
+public final class ReminderOffsets {
+
+    /** Reminders per task; a reminder's index must fit the scheduler's key. */
+    public static final int MAX_OFFSETS = 16;
+    public static final long MAX_OFFSET_MILLIS = TimeUnit.DAYS.toMillis(366);
+
+    private static final long[] AT_DUE_TIME = {0L};
+
+    private ReminderOffsets() {
+    }
+
+    /**
+     * Offsets sorted largest first without duplicates. Null, empty and {@code [0]} all mean one
+     * reminder at the due time and come back as null, so the common case stores nothing.
+     *
+     * @throws IllegalArgumentException if there are too many offsets or one is out of range
+     */
+    public static long[] normalize(long[] offsets) {
+        if (offsets == null || offsets.length == 0) {
+            return null;
+        }
+        long[] sorted = offsets.clone();
+        Arrays.sort(sorted);
+        long[] normalized = new long[sorted.length];
+        int distinct = 0;
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            long offset = sorted[i];
+            if (offset < 0 || offset > MAX_OFFSET_MILLIS) {
+                throw new IllegalArgumentException("Reminder offsets must be between 0 and " + MAX_OFFSET_MILLIS
+                    + " milliseconds before the due time: " + offset);
+            }
+            if (distinct == 0 || normalized[distinct - 1] != offset) {
+                normalized[distinct++] = offset;
+            }
+        }
+        if (distinct > MAX_OFFSETS) {
+            throw new IllegalArgumentException("At most " + MAX_OFFSETS + " reminder offsets are allowed, got " + distinct);
+        }
+        return distinct == 1 && normalized[0] == 0L ? null : Arrays.copyOf(normalized, distinct);
+    }
+
+    /**
+     * The task's offsets, or one at the due time. The array must not be modified.
+     */
+    public static long[] of(Task task) {
+        long[] offsets = task.getReminderOffsets();
+        return offsets != null && offsets.length > 0 ? offsets : AT_DUE_TIME;
+    }
+
+    /**
+     * When the task's first reminder fires.
+     */
+    public static long firstReminderAt(Task task) {
+        return task.dueTimestamp() - of(task)[0];
+    }
+
+    /**
+     * Index of the last reminder that fires at or before the given time, or -1 if none does.
+     */
+    public static int lastReminderBy(long dueTimestamp, long[] offsets, long time) {
+        int last = -1;
+        for (int i = 0; i < offsets.length && dueTimestamp - offsets[i] <= time; i++) {
+            last = i;
+        }
+        return last;
+    }
+
+    public static byte[] pack(long[] offsets) {
+        if (offsets == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(offsets.length * Long.BYTES);
+        buffer.asLongBuffer().put(offsets);
+        return buffer.array();
+    }
+
+    public static long[] unpack(byte[] packed) {
+        if (packed == null) {
+            return null;
+        }
+        long[] offsets = new long[packed.length / Long.BYTES];
+        ByteBuffer.wrap(packed).asLongBuffer().get(offsets);
+        return offsets;
+    }
+}
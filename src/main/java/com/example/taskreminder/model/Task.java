@@ -1,25 +1,42 @@
 package com.example.taskreminder.model;
 
-import java.util.Objects;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Arrays;
 
 /**
  * Task model representing a reminder task.
+ *
+ * Ids and timestamps are primitive fields that hold {@link #ABSENT} when unset, and the status
+ * is a {@link TaskStatus}, so a task carries no boxed values. The bean accessors keep the JSON
+ * contract (a missing value is null, a status is its name); code on hot paths reads the fields
+ * through the primitive accessors such as {@link #dueTimestamp()} instead.
  */
 public class Task {
-    private Long id;
+
+    /** Value of an id or timestamp that is not set. */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private long id = ABSENT;
     private String title;
     private String description;
-    private Long dueTimestamp; // epoch milliseconds
+    private long dueTimestamp = ABSENT; // epoch milliseconds
     private String email; // email to notify
-    private String status; // PENDING or COMPLETED
-    private Long createdAt; // epoch milliseconds
-    private Long completedAt; // epoch milliseconds, null if not completed
+    private TaskStatus status;
+    private long createdAt = ABSENT; // epoch milliseconds
+    private long completedAt = ABSENT; // epoch milliseconds, ABSENT if not completed
+    private long version = ABSENT; // change-tracking version assigned by the repository
+    private String channels; // comma-separated notification channels, null for email only
+    private String webhookUrl; // callback URL for the webhook channel
+    private String locale; // BCP 47 language tag for notification emails, null for the default locale
+    private long[] reminderOffsets; // millis before dueTimestamp, largest first; null = one reminder at the due time
+    private long reminderSentAt = ABSENT; // when the last reminder handed off was due to fire; repository-internal
 
     public Task() {
     }
 
-    public Task(Long id, String title, String description, Long dueTimestamp, 
-                String email, String status, Long createdAt, Long completedAt) {
+    public Task(long id, String title, String description, long dueTimestamp,
+                String email, TaskStatus status, long createdAt, long completedAt) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -30,13 +47,65 @@ public class Task {
         this.completedAt = completedAt;
     }
 
+    /**
+     * Copy constructor, used to take immutable-in-practice snapshots.
+     */
+    public Task(Task other) {
+        this(other.id, other.title, other.description, other.dueTimestamp,
+             other.email, other.status, other.createdAt, other.completedAt);
+        this.version = other.version;
+        this.channels = other.channels;
+        this.webhookUrl = other.webhookUrl;
+        this.locale = other.locale;
+        this.reminderOffsets = other.reminderOffsets;
+        this.reminderSentAt = other.reminderSentAt;
+    }
+
+    private static Long boxed(long value) {
+        return value != ABSENT ? value : null;
+    }
+
+    private static long unboxed(Long value) {
+        return value != null ? value : ABSENT;
+    }
+
+    // Primitive accessors; ABSENT when unset
+    public long id() {
+        return id;
+    }
+
+    public long dueTimestamp() {
+        return dueTimestamp;
+    }
+
+    public long createdAt() {
+        return createdAt;
+    }
+
+    public long completedAt() {
+        return completedAt;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long reminderSentAt() {
+        return reminderSentAt;
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return status == TaskStatus.COMPLETED;
+    }
+
     // Getters and Setters
     public Long getId() {
-        return id;
+        return boxed(id);
     }
 
     public void setId(Long id) {
-        this.id = id;
+        this.id = unboxed(id);
     }
 
     public String getTitle() {
@@ -56,11 +125,11 @@ public class Task {
     }
 
     public Long getDueTimestamp() {
-        return dueTimestamp;
+        return boxed(dueTimestamp);
     }
 
     public void setDueTimestamp(Long dueTimestamp) {
-        this.dueTimestamp = dueTimestamp;
+        this.dueTimestamp = unboxed(dueTimestamp);
     }
 
     public String getEmail() {
@@ -71,28 +140,78 @@ public class Task {
         this.email = email;
     }
 
-    public String getStatus() {
+    public TaskStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(TaskStatus status) {
         this.status = status;
     }
 
     public Long getCreatedAt() {
-        return createdAt;
+        return boxed(createdAt);
     }
 
     public void setCreatedAt(Long createdAt) {
-        this.createdAt = createdAt;
+        this.createdAt = unboxed(createdAt);
     }
 
     public Long getCompletedAt() {
-        return completedAt;
+        return boxed(completedAt);
     }
 
     public void setCompletedAt(Long completedAt) {
-        this.completedAt = completedAt;
+        this.completedAt = unboxed(completedAt);
+    }
+
+    public Long getVersion() {
+        return boxed(version);
+    }
+
+    public void setVersion(Long version) {
+        this.version = unboxed(version);
+    }
+
+    public String getChannels() {
+        return channels;
+    }
+
+    public void setChannels(String channels) {
+        this.channels = channels;
+    }
+
+    public String getWebhookUrl() {
+        return webhookUrl;
+    }
+
+    public void setWebhookUrl(String webhookUrl) {
+        this.webhookUrl = webhookUrl;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+
+    public long[] getReminderOffsets() {
+        return reminderOffsets;
+    }
+
+    public void setReminderOffsets(long[] reminderOffsets) {
+        this.reminderOffsets = reminderOffsets;
+    }
+
+    @JsonIgnore
+    public Long getReminderSentAt() {
+        return boxed(reminderSentAt);
+    }
+
+    @JsonIgnore
+    public void setReminderSentAt(Long reminderSentAt) {
+        this.reminderSentAt = unboxed(reminderSentAt);
     }
 
     @Override
@@ -100,25 +219,28 @@ public class Task {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
-        return Objects.equals(id, task.id);
+        return id == task.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 
     @Override
     public String toString() {
         return "Task{" +
-                "id=" + id +
+                "id=" + getId() +
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
-                ", dueTimestamp=" + dueTimestamp +
+                ", dueTimestamp=" + getDueTimestamp() +
                 ", email='" + email + '\'' +
                 ", status='" + status + '\'' +
-                ", createdAt=" + createdAt +
-                ", completedAt=" + completedAt +
+                ", createdAt=" + getCreatedAt() +
+                ", completedAt=" + getCompletedAt() +
+                ", version=" + getVersion() +
+                ", channels='" + channels + '\'' +
+                ", reminderOffsets=" + Arrays.toString(reminderOffsets) +
                 '}';
     }
 }
@@ -0,0 +1,58 @@
+package com.example.taskreminder.model;
+
+import java.util.List;
+
+/**
+ * Delta of task changes between two change-tracking cursors. A cursor is a version and the
+ * last task id returned at that version; a page can end part-way through the rows of one
+ * version, as happens when a bulk write stamps many rows with the same version.
+ */
+public class TaskChanges {
+
+    /**
+     * Cursor id meaning every change at the cursor's version has been returned.
+     */
+    public static final long VERSION_DONE = Long.MAX_VALUE;
+
+    private final long version; // pass as "since" on the next call
+    private final long afterId; // pass as "afterId" on the next call, VERSION_DONE if not needed
+    private final List<Task> tasks; // created or modified tasks
+    private final List<Long> deleted; // ids of deleted tasks
+    private final boolean hasMore;
+
+    public TaskChanges(long version, long afterId, List<Task> tasks, List<Long> deleted, boolean hasMore) {
+        this.version = version;
+        this.afterId = afterId;
+        this.tasks = tasks;
+        this.deleted = deleted;
+        this.hasMore = hasMore;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Last task id returned at {@link #getVersion()}, or null when the whole version has been
+     * returned and the next call needs only {@code since}.
+     */
+    public Long getAfterId() {
+        return afterId == VERSION_DONE ? null : afterId;
+    }
+
+    public long afterId() {
+        return afterId;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
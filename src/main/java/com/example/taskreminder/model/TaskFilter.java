@@ -0,0 +1,64 @@
+package com.example.taskreminder.model;
+
+import java.util.List;
+
+/**
+ * Selects tasks for bulk operations: an explicit id list and/or field criteria, combined with AND.
+ */
+public class TaskFilter {
+    private final List<Long> ids; // null = any id
+    private final String email;
+    private final Long dueFrom; // inclusive
+    private final Long dueTo; // exclusive
+    private final TaskStatus status;
+
+    public TaskFilter(List<Long> ids, String email, Long dueFrom, Long dueTo, TaskStatus status) {
+        this.ids = ids;
+        this.email = email;
+        this.dueFrom = dueFrom;
+        this.dueTo = dueTo;
+        this.status = status;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getDueFrom() {
+        return dueFrom;
+    }
+
+    public Long getDueTo() {
+        return dueTo;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * True when no criterion is set, i.e. the filter would match every task.
+     */
+    public boolean isEmpty() {
+        return ids == null && email == null && dueFrom == null && dueTo == null && status == null;
+    }
+
+    public TaskFilter withStatus(TaskStatus status) {
+        return new TaskFilter(ids, email, dueFrom, dueTo, status);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskFilter{" +
+                "ids=" + (ids != null ? ids.size() + " ids" : "any") +
+                ", email='" + email + '\'' +
+                ", dueFrom=" + dueFrom +
+                ", dueTo=" + dueTo +
+                ", status=" + status +
+                '}';
+    }
+}
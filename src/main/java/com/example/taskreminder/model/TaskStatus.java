@@ -0,0 +1,65 @@
+package com.example.taskreminder.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle status of a task. In JSON and CSV a status is its name; the database stores
+ * its {@link #code()} in a SMALLINT column, so codes must never be renumbered.
+ */
+public enum TaskStatus {
+    PENDING(0),
+    COMPLETED(1);
+
+    private static final TaskStatus[] BY_CODE = {PENDING, COMPLETED};
+
+    private final short code;
+
+    TaskStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status has the code
+     */
+    public static TaskStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown task status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * The status with the given name, ignoring case, or null if there is none.
+     */
+    public static TaskStatus named(String name) {
+        for (TaskStatus status : values()) {
+            if (status.name().equalsIgnoreCase(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Status from request input, ignoring case; null or empty input means none was given.
+     *
+     * @throws IllegalArgumentException if the name is not a status
+     */
+    @JsonCreator
+    public static TaskStatus parse(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        TaskStatus status = named(name);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown task status: " + name.toUpperCase(Locale.ROOT));
+        }
+        return status;
+    }
+}
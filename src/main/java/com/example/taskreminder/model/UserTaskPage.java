@@ -0,0 +1,37 @@
+package com.example.taskreminder.model;
+
+import java.util.List;
+
+/**
+ * One page of a recipient's tasks, ordered by due time. Pass {@code nextCursor} as the cursor
+ * to fetch the following page.
+ */
+public class UserTaskPage {
+    private final String email;
+    private final List<Task> tasks;
+    private final String nextCursor; // null on the last page
+    private final boolean hasMore;
+
+    public UserTaskPage(String email, List<Task> tasks, String nextCursor, boolean hasMore) {
+        this.email = email;
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.taskreminder.notification;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.service.EmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The email channel. Sends each message through {@link EmailService} on the caller's thread.
+ */
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "email";
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailNotificationChannel.class);
+
+    private final EmailService emailService;
+
+    @Autowired
+    public EmailNotificationChannel(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void validate(Task task) {
+        // Tasks without an email address simply get no email
+    }
+
+    @Override
+    public String targetOf(Task task) {
+        return task.getEmail() != null && !task.getEmail().isEmpty() ? task.getEmail() : null;
+    }
+
+    @Override
+    public CompletableFuture<Set<Long>> deliver(List<OutboxMessage> messages) {
+        Set<Long> delivered = new HashSet<>();
+        for (OutboxMessage message : messages) {
+            if (send(message)) {
+                delivered.add(message.getId());
+            }
+        }
+        return CompletableFuture.completedFuture(delivered);
+    }
+
+    private boolean send(OutboxMessage message) {
+        try {
+            switch (message.getKind()) {
+                case REMINDER:
+                    return emailService.sendReminderEmail(message.getTarget(), message.getTitle(),
+                        message.getDescription(), message.getDueTimestamp(), message.getTimezone(), locale(message));
+                case COMPLETION:
+                    return emailService.sendCompletionEmail(message.getTarget(), message.getTitle(),
+                        completedAt(message), message.getTimezone(), locale(message));
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            // e.g. a template error; retried like a rejected send
+            logger.error("Error delivering {}", message.getDedupKey(), e);
+            return false;
+        }
+    }
+
+    // Messages enqueued before completed_at was recorded were enqueued at completion
+    private static Long completedAt(OutboxMessage message) {
+        return message.getCompletedAt() != null ? message.getCompletedAt() : message.getCreatedAt();
+    }
+
+    // Null selects the configured default locale
+    private static Locale locale(OutboxMessage message) {
+        return message.getLocale() != null ? Locale.forLanguageTag(message.getLocale()) : null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskreminder.notification;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A way of delivering task notifications, such as email or webhooks. Tasks name the channels
+ * they use; the outbox holds one message per channel and the relay hands each channel its
+ * messages in batches.
+ */
+public interface NotificationChannel {
+
+    /**
+     * Name stored in task channel lists and outbox rows, e.g. {@code email}.
+     */
+    String getName();
+
+    /**
+     * Check the task's settings for this channel.
+     *
+     * @throws IllegalArgumentException if the task cannot be delivered through this channel
+     */
+    void validate(Task task);
+
+    /**
+     * Where to deliver the task's notifications, or null if the task has no address on this channel.
+     */
+    String targetOf(Task task);
+
+    /**
+     * Deliver a batch of messages. The future completes with the ids of the messages that were
+     * delivered; the others are retried later. It should not complete exceptionally.
+     */
+    CompletableFuture<Set<Long>> deliver(List<OutboxMessage> messages);
+}
@@ -0,0 +1,119 @@
+package com.example.taskreminder.notification;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the notification channels, and the per-task channel configuration: a task's
+ * {@code channels} is a comma-separated list of channel names, and tasks without one get email.
+ */
+@Service
+public class NotificationChannels {
+
+    private final Map<String, NotificationChannel> channels = new LinkedHashMap<>();
+
+    @Autowired
+    public NotificationChannels(List<NotificationChannel> channels) {
+        for (NotificationChannel channel : channels) {
+            this.channels.put(channel.getName(), channel);
+        }
+    }
+
+    /**
+     * The channel with the given name, or null if there is none.
+     */
+    public NotificationChannel get(String name) {
+        return channels.get(name);
+    }
+
+    public Set<String> getNames() {
+        return channels.keySet();
+    }
+
+    /**
+     * Normalise the task's channel list and check its settings for each channel.
+     *
+     * @throws IllegalArgumentException if a channel is unknown or rejects the task's settings
+     */
+    public void validate(Task task) {
+        if (task.getChannels() != null) {
+            Set<String> names = parse(task.getChannels());
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("channels must name at least one of " + getNames());
+            }
+            task.setChannels(String.join(",", names));
+        }
+        for (String name : channelNames(task)) {
+            NotificationChannel channel = channels.get(name);
+            if (channel == null) {
+                throw new IllegalArgumentException("Unknown notification channel: " + name + " (expected one of " + getNames() + ")");
+            }
+            channel.validate(task);
+        }
+    }
+
+    /**
+     * The reminder scheduled for {@code remindAt} on each of the task's channels that has an address for it.
+     */
+    public List<OutboxMessage> reminderNotifications(Task task, String timezone, long remindAt, long now) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (NotificationChannel channel : channelsOf(task)) {
+            String target = channel.targetOf(task);
+            if (target != null) {
+                messages.add(OutboxMessage.reminder(channel.getName(), target, task, timezone, remindAt, now));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * The completion notification for the task on each of its channels that has an address for it.
+     */
+    public List<OutboxMessage> completionNotifications(Task task, long now) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (NotificationChannel channel : channelsOf(task)) {
+            String target = channel.targetOf(task);
+            if (target != null) {
+                messages.add(OutboxMessage.completion(channel.getName(), target, task, now));
+            }
+        }
+        return messages;
+    }
+
+    private List<NotificationChannel> channelsOf(Task task) {
+        List<NotificationChannel> result = new ArrayList<>();
+        for (String name : channelNames(task)) {
+            // Unknown names were rejected on write; a channel removed since then is skipped
+            NotificationChannel channel = channels.get(name);
+            if (channel != null) {
+                result.add(channel);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> channelNames(Task task) {
+        return task.getChannels() != null ? parse(task.getChannels()) : Set.of(EmailNotificationChannel.NAME);
+    }
+
+    private static Set<String> parse(String channels) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : channels.split(",")) {
+            String trimmed = name.trim().toLowerCase(Locale.ROOT);
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.taskreminder.notification;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The webhook channel. POSTs signed JSON batches to each task's webhook URL through one shared
+ * {@link HttpClient}, which keeps connections alive and reuses them across deliveries (and
+ * multiplexes over HTTP/2 where the endpoint offers it). Messages for the same URL are sent
+ * together, up to {@code max-batch-size} per request, and each endpoint (scheme, host and port)
+ * has at most {@code max-concurrent-per-endpoint} requests in flight; the rest wait in a queue
+ * so one slow receiver cannot take every connection. A batch is delivered when the endpoint
+ * answers 2xx.
+ *
+ * <p>The channel is disabled until {@code taskreminder.webhook.secret} is set, so payloads always
+ * go out signed. Without {@code allowed-hosts}, webhook hosts must resolve to public addresses
+ * only: loopback, link-local, private and other internal addresses are rejected when a task is
+ * written and again before each delivery, so tasks cannot make the server call itself, cloud
+ * metadata endpoints or other internal services. Hosts on the allowlist are trusted as listed.
+ */
+@Component
+public class WebhookNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "webhook";
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookNotificationChannel.class);
+
+    private static final int MAX_URL_LENGTH = 500;
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final String secret;
+    private final int maxBatchSize;
+    private final int maxConcurrentPerEndpoint;
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final int ioThreads;
+    private final Set<String> allowedHosts;
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private HttpClient httpClient;
+
+    @Autowired
+    public WebhookNotificationChannel(ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      Clock clock,
+                                      @Value("${taskreminder.webhook.secret:}") String secret,
+                                      @Value("${taskreminder.webhook.max-batch-size:50}") int maxBatchSize,
+                                      @Value("${taskreminder.webhook.max-concurrent-per-endpoint:4}") int maxConcurrentPerEndpoint,
+                                      @Value("${taskreminder.webhook.connect-timeout-millis:2000}") long connectTimeoutMillis,
+                                      @Value("${taskreminder.webhook.request-timeout-millis:5000}") long requestTimeoutMillis,
+                                      @Value("${taskreminder.webhook.io-threads:2}") int ioThreads,
+                                      @Value("${taskreminder.webhook.allowed-hosts:}") String allowedHosts) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.secret = secret;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxConcurrentPerEndpoint = Math.max(1, maxConcurrentPerEndpoint);
+        this.connectTimeout = Duration.ofMillis(Math.max(1L, connectTimeoutMillis));
+        this.requestTimeout = Duration.ofMillis(Math.max(1L, requestTimeoutMillis));
+        this.ioThreads = Math.max(1, ioThreads);
+        this.allowedHosts = Arrays.stream(allowedHosts.split(","))
+            .map(host -> host.trim().toLowerCase(Locale.ROOT))
+            .filter(host -> !host.isEmpty())
+            .collect(Collectors.toSet());
+        this.successCounter = Counter.builder("taskreminder.webhook.requests").tag("outcome", "success")
+            .description("Webhook batches POSTed").register(meterRegistry);
+        this.failureCounter = Counter.builder("taskreminder.webhook.requests").tag("outcome", "failure")
+            .description("Webhook batches POSTed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(ioThreads, r -> {
+            Thread thread = new Thread(r, "webhook-http-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(executor)
+            .build();
+        if (secret.isEmpty()) {
+            logger.warn("taskreminder.webhook.secret is not set; the webhook channel is disabled");
+        }
+        logger.info("Webhook channel initialized (batches of {}, {} concurrent requests per endpoint)",
+            maxBatchSize, maxConcurrentPerEndpoint);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void validate(Task task) {
+        if (secret.isEmpty()) {
+            throw new IllegalArgumentException("The webhook channel is disabled: taskreminder.webhook.secret is not set");
+        }
+        String url = task.getWebhookUrl();
+        if (url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("webhookUrl is required for the webhook channel");
+        }
+        if (url.length() > MAX_URL_LENGTH) {
+            throw new IllegalArgumentException("webhookUrl is longer than " + MAX_URL_LENGTH + " characters");
+        }
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid webhookUrl: " + e.getMessage());
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            throw new IllegalArgumentException("webhookUrl must be an absolute http or https URL");
+        }
+        String refused = refusal(uri);
+        if (refused != null) {
+            throw new IllegalArgumentException(refused);
+        }
+    }
+
+    /**
+     * Why deliveries to the URI's host are not allowed, or null if they are.
+     */
+    private String refusal(URI uri) {
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!allowedHosts.isEmpty()) {
+            return allowedHosts.contains(host) ? null : "webhookUrl host is not allowed: " + uri.getHost();
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            return "webhookUrl host cannot be resolved: " + uri.getHost();
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                return "webhookUrl host resolves to an internal address: " + uri.getHost();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loopback, wildcard, link-local (which includes cloud metadata endpoints), private,
+     * carrier-grade NAT, IPv6 unique-local and multicast addresses.
+     */
+    private static boolean isInternal(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            return first == 0 || first == 100 && second >= 64 && second < 128;
+        }
+        return (bytes[0] & 0xfe) == 0xfc;
+    }
+
+    @Override
+    public String targetOf(Task task) {
+        return task.getWebhookUrl() != null && !task.getWebhookUrl().isEmpty() ? task.getWebhookUrl() : null;
+    }
+
+    @Override
+    public CompletableFuture<Set<Long>> deliver(List<OutboxMessage> messages) {
+        Map<String, List<OutboxMessage>> byUrl = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            byUrl.computeIfAbsent(message.getTarget(), url -> new ArrayList<>()).add(message);
+        }
+
+        List<CompletableFuture<Set<Long>>> requests = new ArrayList<>();
+        for (Map.Entry<String, List<OutboxMessage>> entry : byUrl.entrySet()) {
+            URI uri = parse(entry.getKey());
+            if (uri == null) {
+                logger.warn("Skipping {} webhook messages with an invalid URL: {}", entry.getValue().size(), entry.getKey());
+                continue;
+            }
+            // Checked again here: the secret may have been removed or the host re-pointed since the task was written
+            String refused = secret.isEmpty() ? "the webhook channel is disabled" : refusal(uri);
+            if (refused != null) {
+                logger.warn("Not delivering {} webhook messages to {}: {}", entry.getValue().size(), entry.getKey(), refused);
+                continue;
+            }
+            Endpoint endpoint = endpoints.computeIfAbsent(endpointKey(uri), key -> new Endpoint(maxConcurrentPerEndpoint));
+            List<OutboxMessage> forUrl = entry.getValue();
+            for (int from = 0; from < forUrl.size(); from += maxBatchSize) {
+                List<OutboxMessage> batch = forUrl.subList(from, Math.min(from + maxBatchSize, forUrl.size()));
+                requests.add(endpoint.submit(() -> post(uri, batch)));
+            }
+        }
+
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Set<Long> delivered = new HashSet<>();
+            for (CompletableFuture<Set<Long>> request : requests) {
+                delivered.addAll(request.join());
+            }
+            return delivered;
+        });
+    }
+
+    /**
+     * POST one batch. Completes with the batch's ids on a 2xx answer and with no ids otherwise.
+     */
+    private CompletableFuture<Set<Long>> post(URI uri, List<OutboxMessage> batch) {
+        String deliveryId = UUID.randomUUID().toString();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(payload(deliveryId, batch));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialise webhook batch for {}", uri, e);
+            return CompletableFuture.completedFuture(Collections.emptySet());
+        }
+        String timestamp = Long.toString(clock.millis() / 1000);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .header(WebhookSignature.DELIVERY_HEADER, deliveryId)
+            .header(WebhookSignature.TIMESTAMP_HEADER, timestamp)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        request.header(WebhookSignature.SIGNATURE_HEADER, WebhookSignature.sign(secret, timestamp, body));
+
+        Set<Long> ids = batch.stream().map(OutboxMessage::getId).collect(Collectors.toSet());
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                if (error == null && response.statusCode() / 100 == 2) {
+                    successCounter.increment();
+                    return ids;
+                }
+                failureCounter.increment();
+                logger.warn("Webhook delivery {} of {} events to {} failed: {}", deliveryId, batch.size(), uri,
+                    error != null ? error.toString() : "HTTP " + response.statusCode());
+                return Collections.<Long>emptySet();
+            });
+    }
+
+    private Map<String, Object> payload(String deliveryId, List<OutboxMessage> batch) {
+        List<Map<String, Object>> events = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("id", message.getDedupKey());
+            event.put("type", message.getKind() == OutboxMessage.Kind.REMINDER ? "task.reminder" : "task.completed");
+            event.put("taskId", message.getTaskId());
+            event.put("title", message.getTitle());
+            event.put("description", message.getDescription());
+            event.put("dueTimestamp", message.getDueTimestamp());
+            event.put("timezone", message.getTimezone());
+            event.put("email", message.getEmail());
+            event.put("completedAt", message.getCompletedAt());
+            event.put("createdAt", message.getCreatedAt());
+            events.add(event);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("deliveryId", deliveryId);
+        payload.put("events", events);
+        return payload;
+    }
+
+    private static URI parse(String url) {
+        try {
+            URI uri = url != null ? new URI(url) : null;
+            return uri != null && uri.getScheme() != null && uri.getHost() != null ? uri : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String endpointKey(URI uri) {
+        return uri.getScheme().toLowerCase(Locale.ROOT) + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ":" + uri.getPort();
+    }
+
+    /**
+     * Caps the requests in flight to one endpoint. Requests over the cap wait in FIFO order and
+     * start as earlier ones complete.
+     */
+    private static final class Endpoint {
+        private final int maxConcurrent;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        Endpoint(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Runnable start = () -> {
+                CompletableFuture<T> started;
+                try {
+                    started = request.get();
+                } catch (RuntimeException e) {
+                    started = CompletableFuture.failedFuture(e);
+                }
+                started.whenComplete((value, error) -> {
+                    release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            };
+            synchronized (this) {
+                if (inFlight >= maxConcurrent) {
+                    waiting.add(start);
+                    return result;
+                }
+                inFlight++;
+            }
+            start.run();
+            return result;
+        }
+
+        private void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            // The finished request's slot passes straight to the next one
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskreminder.notification;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * HMAC-SHA256 signatures for webhook payloads. The signed string is the timestamp header value,
+ * a dot, and the raw request body, so a receiver can reject replays with an old timestamp.
+ * The header value is {@code sha256=<lowercase hex>}.
+ */
+public final class WebhookSignature {
+
+    public static final String TIMESTAMP_HEADER = "X-TaskReminder-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-TaskReminder-Signature";
+    public static final String DELIVERY_HEADER = "X-TaskReminder-Delivery";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "sha256=";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private WebhookSignature() {
+    }
+
+    /**
+     * The signature header value for a body sent with the given timestamp.
+     */
+    public static String sign(String secret, String timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) '.');
+            byte[] digest = mac.doFinal(body);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return PREFIX + new String(hex);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Check a received signature header in constant time.
+     */
+    public static boolean verify(String secret, String timestamp, byte[] body, String signature) {
+        if (signature == null || timestamp == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(secret, timestamp, body).getBytes(StandardCharsets.UTF_8),
+            signature.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.taskreminder.ratelimit;
+
+/**
+ * Groups of endpoints that share a rate limit budget.
+ */
+public enum EndpointClass {
+    READ("read", 50, 100),
+    WRITE("write", 20, 40),
+    EXPORT("export", 1, 2),
+    IMPORT("import", 1, 2),
+    STREAM("stream", 1, 5);
+
+    private final String key;
+    private final double defaultPermitsPerSecond;
+    private final int defaultBurst;
+
+    EndpointClass(String key, double defaultPermitsPerSecond, int defaultBurst) {
+        this.key = key;
+        this.defaultPermitsPerSecond = defaultPermitsPerSecond;
+        this.defaultBurst = defaultBurst;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getDefaultPermitsPerSecond() {
+        return defaultPermitsPerSecond;
+    }
+
+    public int getDefaultBurst() {
+        return defaultBurst;
+    }
+
+    /**
+     * Classify a request by HTTP method and path.
+     */
+    public static EndpointClass of(String method, String path) {
+        if (path.startsWith("/reports/export")) {
+            return EXPORT;
+        }
+        if (path.startsWith("/tasks/import")) {
+            return IMPORT;
+        }
+        if (path.startsWith("/tasks/events")) {
+            return STREAM;
+        }
+        if (path.equals("/status/batch") || path.equals("/reminders/batch")) {
+            // POST only to carry the id list
+            return READ;
+        }
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method) ? READ : WRITE;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.taskreminder.ratelimit;
+
+/**
+ * Outcome of an admission check.
+ */
+public class RateLimitDecision {
+
+    public enum Outcome {
+        ALLOWED,
+        RATE_LIMITED,
+        CONCURRENCY_LIMITED
+    }
+
+    private static final RateLimitDecision ALLOWED = new RateLimitDecision(Outcome.ALLOWED, 0);
+
+    private final Outcome outcome;
+    private final long retryAfterSeconds;
+
+    private RateLimitDecision(Outcome outcome, long retryAfterSeconds) {
+        this.outcome = outcome;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static RateLimitDecision allowed() {
+        return ALLOWED;
+    }
+
+    public static RateLimitDecision rejected(Outcome outcome, long retryAfterSeconds) {
+        return new RateLimitDecision(outcome, retryAfterSeconds);
+    }
+
+    public boolean isAllowed() {
+        return outcome == Outcome.ALLOWED;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
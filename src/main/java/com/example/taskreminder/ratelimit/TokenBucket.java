@@ -0,0 +1,56 @@
+package com.example.taskreminder.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * Implemented in its "virtual scheduling" form (GCRA): the only state is the theoretical
+ * arrival time of the next permit, updated with a single CAS. A bucket with rate r and
+ * capacity b admits the same traffic as a classic token bucket refilled at r up to b tokens.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos; // time to earn one permit
+    private final long burstNanos; // how far ahead of "now" the arrival time may run
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int capacity, long nowNanos) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and capacity must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * (capacity - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Try to take one permit at the given time.
+     */
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            if (base - nowNanos > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until a permit becomes available, 0 if one is available now.
+     */
+    public long nanosUntilAvailable(long nowNanos) {
+        long wait = theoreticalArrival.get() - burstNanos - nowNanos;
+        return Math.max(0L, wait);
+    }
+
+    /**
+     * True when the bucket is full again, i.e. it carries no state worth keeping.
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.taskreminder.readmodel;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskChanges;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.example.taskreminder.repository.WriteVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Task repository that answers queries on live tasks from an in-memory {@link TaskReadModel}
+ * and sends writes to the wrapped repository (one database or a sharded store). Each write
+ * is applied to the model as soon as the database has it, before the call returns, so a
+ * client reads its own writes. The database is read only to load the model at startup and
+ * for what the model does not hold: archived tasks, reminder markers and the change feed.
+ */
+public class ReadModelTaskRepository extends TaskRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadModelTaskRepository.class);
+
+    private final TaskRepository store;
+    private final TaskReadModel model = new TaskReadModel();
+
+    public ReadModelTaskRepository(TaskRepository store) {
+        super(new WriteVersions());
+        this.store = store;
+    }
+
+    /**
+     * Load every live task. The wrapped repository must already be initialised.
+     */
+    @Override
+    @PostConstruct
+    public void init() {
+        long started = System.currentTimeMillis();
+        model.load(store.findAll());
+        logger.info("Read model loaded {} tasks in {} ms", model.size(), System.currentTimeMillis() - started);
+    }
+
+    public TaskReadModel getModel() {
+        return model;
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task saved = store.save(task);
+        model.upsert(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        List<Task> saved = store.saveAll(tasks);
+        model.upsert(saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<Task> findArchivedById(Long id) {
+        return store.findArchivedById(id);
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        TaskRecord record = model.snapshot().get(id);
+        return record != null ? Optional.of(record.toTask()) : Optional.empty();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return toTasks(model.snapshot().newestFirst(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return toTasks(model.snapshot().newestFirst(status), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByEmail(String email, TaskStatus status, Long dueFrom, Long dueTo,
+                                  Long afterDue, Long afterId, int limit) {
+        TaskRecord[] records = model.snapshot().forEmail(email);
+        // Seek to the first row past the keyset cursor and the lower due bound
+        int from = 0;
+        if (dueFrom != null) {
+            from = insertionPoint(records, probe(dueFrom, Long.MIN_VALUE));
+        }
+        if (afterDue != null && afterId != null && afterId < Long.MAX_VALUE) {
+            from = Math.max(from, insertionPoint(records, probe(afterDue, afterId + 1)));
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (int i = from; i < records.length && tasks.size() < limit; i++) {
+            TaskRecord record = records[i];
+            if (dueTo != null && record.dueTimestamp >= dueTo) {
+                break;
+            }
+            if (status == null || status == record.status) {
+                tasks.add(record.toTask());
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> findAllIncludingArchived() {
+        return store.findAllIncludingArchived();
+    }
+
+    @Override
+    public List<Task> findByStatusIncludingArchived(TaskStatus status) {
+        return store.findByStatusIncludingArchived(status);
+    }
+
+    @Override
+    public boolean update(Task task, List<OutboxMessage> notifications) {
+        boolean updated = store.update(task, notifications);
+        if (updated) {
+            model.update(task);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = store.deleteById(id);
+        if (deleted) {
+            model.remove(List.of(id));
+        }
+        return deleted;
+    }
+
+    @Override
+    public Map<Long, TaskStatus> findStatusesByIds(Collection<Long> ids) {
+        TaskSnapshot snapshot = model.snapshot();
+        Map<Long, TaskStatus> statuses = new HashMap<>();
+        for (Long id : ids) {
+            TaskRecord record = snapshot.get(id);
+            if (record != null) {
+                statuses.put(id, record.status);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Matching tasks ordered by id, read from the narrowest index the filter allows.
+     */
+    @Override
+    public List<Task> findByFilter(TaskFilter filter) {
+        TaskSnapshot snapshot = model.snapshot();
+        List<TaskRecord> matches = new ArrayList<>();
+        if (filter.getIds() != null) {
+            for (Long id : new HashSet<>(filter.getIds())) {
+                TaskRecord record = snapshot.get(id);
+                if (record != null && matches(record, filter)) {
+                    matches.add(record);
+                }
+            }
+        } else if (filter.getEmail() != null) {
+            for (TaskRecord record : snapshot.forEmail(filter.getEmail())) {
+                if (matches(record, filter)) {
+                    matches.add(record);
+                }
+            }
+        } else if (filter.getDueFrom() != null || filter.getDueTo() != null) {
+            Iterator<TaskRecord> records = filter.getDueFrom() != null
+                ? snapshot.byDue().iteratorFrom(probe(filter.getDueFrom(), Long.MIN_VALUE))
+                : snapshot.byDue().iterator();
+            while (records.hasNext()) {
+                TaskRecord record = records.next();
+                if (filter.getDueTo() != null && record.dueTimestamp >= filter.getDueTo()) {
+                    break;
+                }
+                if (matches(record, filter)) {
+                    matches.add(record);
+                }
+            }
+        } else {
+            Iterable<TaskRecord> records = filter.getStatus() != null
+                ? snapshot.newestFirst(filter.getStatus())
+                : snapshot.newestFirst();
+            records.forEach(matches::add);
+        }
+        matches.sort(Comparator.comparingLong(record -> record.id));
+        List<Task> tasks = new ArrayList<>(matches.size());
+        for (TaskRecord record : matches) {
+            tasks.add(record.toTask());
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> completeByFilter(TaskFilter filter, long completedAt,
+                                       Function<Task, List<OutboxMessage>> notifications) {
+        List<Task> completed = store.completeByFilter(filter, completedAt, notifications);
+        model.upsert(completed);
+        return completed;
+    }
+
+    @Override
+    public List<Task> completeAll(List<Task> tasks, Function<Task, List<OutboxMessage>> notifications) {
+        List<Task> completed = store.completeAll(tasks, notifications);
+        model.upsert(completed);
+        return completed;
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        return model.snapshot().newestFirst(status).size();
+    }
+
+    @Override
+    public long count() {
+        return model.snapshot().size();
+    }
+
+    @Override
+    public long countArchived(TaskStatus status) {
+        return store.countArchived(status);
+    }
+
+    /**
+     * Archive in the database, then drop exactly the moved tasks from the model.
+     */
+    @Override
+    public List<Long> archiveCompleted(long completedBefore, long archivedAt, int limit) {
+        List<Long> moved = store.archiveCompleted(completedBefore, archivedAt, limit);
+        if (!moved.isEmpty()) {
+            model.remove(moved);
+        }
+        return moved;
+    }
+
+    @Override
+    public List<Task> findMissedReminders(long dueFrom, long afterId, long dueTo, long remindBy, int limit) {
+        return store.findMissedReminders(dueFrom, afterId, dueTo, remindBy, limit);
+    }
+
+    @Override
+    public void markReminderSent(Long id, long remindAt, List<OutboxMessage> notifications) {
+        store.markReminderSent(id, remindAt, notifications);
+    }
+
+    @Override
+    public TaskChanges findChangesSince(long since, long afterId, int limit) {
+        return store.findChangesSince(since, afterId, limit);
+    }
+
+    @Override
+    public TaskChanges findChangesBetween(long since, long afterId, long upper, long upperId, int limit) {
+        return store.findChangesBetween(since, afterId, upper, upperId, limit);
+    }
+
+    @Override
+    public List<NotificationOutboxRepository> getOutboxRepositories() {
+        return store.getOutboxRepositories();
+    }
+
+    @Override
+    public long getTableVersion() {
+        return store.getTableVersion();
+    }
+
+    @Override
+    public Optional<Long> getKnownRowVersion(Long id) {
+        TaskRecord record = model.snapshot().get(id);
+        return record != null ? Optional.of(record.version) : Optional.empty();
+    }
+
+    private static boolean matches(TaskRecord record, TaskFilter filter) {
+        return (filter.getEmail() == null || filter.getEmail().equals(record.email))
+            && (filter.getDueFrom() == null || record.dueTimestamp >= filter.getDueFrom())
+            && (filter.getDueTo() == null || record.dueTimestamp < filter.getDueTo())
+            && (filter.getStatus() == null || filter.getStatus() == record.status);
+    }
+
+    /**
+     * A key that sorts, by (due_timestamp, id), right where the given pair would.
+     */
+    private static TaskRecord probe(long due, long id) {
+        return TaskRecord.of(new Task(id, null, null, due, null, null, 0L, Task.ABSENT));
+    }
+
+    private static int insertionPoint(TaskRecord[] records, TaskRecord probe) {
+        int at = Arrays.binarySearch(records, probe, TaskRecord.BY_DUE);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    private static List<Task> toTasks(SortedSegments<TaskRecord> records, int limit) {
+        List<Task> tasks = new ArrayList<>(Math.min(limit, records.size()));
+        for (TaskRecord record : records) {
+            if (tasks.size() == limit) {
+                break;
+            }
+            tasks.add(record.toTask());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.taskreminder.readmodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable sorted list stored as a run of small sorted arrays. Adding or removing an element
+ * copies only the segment it falls in (and the array of segment references), so a snapshot
+ * can be updated in time proportional to the segment size while readers keep iterating the
+ * previous one. Elements must be distinct under the comparator.
+ */
+final class SortedSegments<T> implements Iterable<T> {
+
+    static final int SEGMENT_SIZE = 256;
+
+    private static final Object[][] NO_SEGMENTS = new Object[0][];
+
+    private final Comparator<? super T> order;
+    private final Object[][] segments;
+    private final int size;
+
+    private SortedSegments(Comparator<? super T> order, Object[][] segments, int size) {
+        this.order = order;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    static <T> SortedSegments<T> empty(Comparator<? super T> order) {
+        return new SortedSegments<>(order, NO_SEGMENTS, 0);
+    }
+
+    /**
+     * Build from unsorted elements in one pass, with full segments.
+     */
+    static <T> SortedSegments<T> of(Comparator<? super T> order, List<T> elements) {
+        Object[] sorted = elements.toArray();
+        sortArray(sorted, order);
+        Object[][] segments = new Object[(sorted.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = Arrays.copyOfRange(sorted, i * SEGMENT_SIZE, Math.min(sorted.length, (i + 1) * SEGMENT_SIZE));
+        }
+        return new SortedSegments<>(order, segments, sorted.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    SortedSegments<T> with(T element) {
+        if (segments.length == 0) {
+            return new SortedSegments<>(order, new Object[][] {{element}}, 1);
+        }
+        int s = segmentFor(element);
+        Object[] segment = segments[s];
+        int at = search(segment, element);
+        if (at >= 0) {
+            throw new IllegalArgumentException("Element already present: " + element);
+        }
+        at = -at - 1;
+        Object[] grown = new Object[segment.length + 1];
+        System.arraycopy(segment, 0, grown, 0, at);
+        grown[at] = element;
+        System.arraycopy(segment, at, grown, at + 1, segment.length - at);
+
+        Object[][] copy;
+        if (grown.length > 2 * SEGMENT_SIZE) {
+            // Split a full segment in two
+            copy = new Object[segments.length + 1][];
+            System.arraycopy(segments, 0, copy, 0, s);
+            copy[s] = Arrays.copyOfRange(grown, 0, grown.length / 2);
+            copy[s + 1] = Arrays.copyOfRange(grown, grown.length / 2, grown.length);
+            System.arraycopy(segments, s + 1, copy, s + 2, segments.length - s - 1);
+        } else {
+            copy = segments.clone();
+            copy[s] = grown;
+        }
+        return new SortedSegments<>(order, copy, size + 1);
+    }
+
+    /**
+     * This list without the element equal to the given one, or this list if there is none.
+     */
+    SortedSegments<T> without(T element) {
+        if (segments.length == 0) {
+            return this;
+        }
+        int s = segmentFor(element);
+        Object[] segment = segments[s];
+        int at = search(segment, element);
+        if (at < 0) {
+            return this;
+        }
+        Object[] shrunk = new Object[segment.length - 1];
+        System.arraycopy(segment, 0, shrunk, 0, at);
+        System.arraycopy(segment, at + 1, shrunk, at, segment.length - at - 1);
+
+        Object[][] copy;
+        int neighbour = s + 1 < segments.length ? s + 1 : s - 1;
+        if (shrunk.length == 0) {
+            copy = new Object[segments.length - 1][];
+            System.arraycopy(segments, 0, copy, 0, s);
+            System.arraycopy(segments, s + 1, copy, s, segments.length - s - 1);
+        } else if (shrunk.length < SEGMENT_SIZE / 4 && neighbour >= 0
+                && shrunk.length + segments[neighbour].length <= SEGMENT_SIZE) {
+            // Fold a nearly empty segment into its neighbour so deletes do not leave slivers
+            int first = Math.min(s, neighbour);
+            Object[] left = first == s ? shrunk : segments[neighbour];
+            Object[] right = first == s ? segments[neighbour] : shrunk;
+            Object[] merged = new Object[left.length + right.length];
+            System.arraycopy(left, 0, merged, 0, left.length);
+            System.arraycopy(right, 0, merged, left.length, right.length);
+            copy = new Object[segments.length - 1][];
+            System.arraycopy(segments, 0, copy, 0, first);
+            copy[first] = merged;
+            System.arraycopy(segments, first + 2, copy, first + 1, segments.length - first - 2);
+        } else {
+            copy = segments.clone();
+            copy[s] = shrunk;
+        }
+        return new SortedSegments<>(order, copy, size - 1);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Cursor(0, 0);
+    }
+
+    /**
+     * Iterate from the first element not before the given one.
+     */
+    Iterator<T> iteratorFrom(T from) {
+        if (segments.length == 0) {
+            return new Cursor(0, 0);
+        }
+        int s = segmentFor(from);
+        int at = search(segments[s], from);
+        return new Cursor(s, at >= 0 ? at : -at - 1);
+    }
+
+    List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        forEach(list::add);
+        return list;
+    }
+
+    /**
+     * First segment whose last element is not before the given one, or the last segment.
+     */
+    private int segmentFor(T element) {
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(segments[mid][segments[mid].length - 1], element) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int search(Object[] segment, T element) {
+        return Arrays.binarySearch((T[]) segment, element, order);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, T b) {
+        return order.compare((T) a, b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void sortArray(Object[] elements, Comparator<? super T> order) {
+        Arrays.sort((T[]) elements, order);
+    }
+
+    private final class Cursor implements Iterator<T> {
+        private int segment;
+        private int index;
+
+        Cursor(int segment, int index) {
+            this.segment = segment;
+            this.index = index;
+            skipExhausted();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return segment < segments.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T element = (T) segments[segment][index++];
+            skipExhausted();
+            return element;
+        }
+
+        private void skipExhausted() {
+            while (segment < segments.length && index >= segments[segment].length) {
+                segment++;
+                index = 0;
+            }
+        }
+    }
+}
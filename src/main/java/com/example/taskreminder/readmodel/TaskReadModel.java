@@ -0,0 +1,103 @@
+package com.example.taskreminder.readmodel;
+
+import com.example.taskreminder.model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the current {@link TaskSnapshot}. Readers take the published snapshot without locking;
+ * writers build the next one under a lock and publish it with a volatile write, so a reader
+ * sees either the old or the new version of the whole model, never a mix.
+ *
+ * Writes are applied after they commit, from many threads, so they can arrive out of order.
+ * Row versions stop an older write replacing a newer one, and removed ids are remembered
+ * for a while so a late update cannot bring a deleted or archived task back.
+ */
+public class TaskReadModel {
+
+    private static final long REMOVED_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private volatile TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+    private final Object writeLock = new Object();
+    // Removed id -> System.nanoTime() at removal
+    private final Map<Long, Long> removed = new ConcurrentHashMap<>();
+    private long lastPruneNanos = System.nanoTime();
+
+    TaskSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Replace the whole model, e.g. with every live row at startup.
+     */
+    public void load(List<Task> tasks) {
+        List<TaskRecord> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(TaskRecord.of(task));
+        }
+        TaskSnapshot loaded = TaskSnapshot.load(records);
+        synchronized (writeLock) {
+            snapshot = loaded;
+        }
+    }
+
+    /**
+     * Add or replace tasks as they now are in the database, with their new versions.
+     */
+    public void upsert(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            List<TaskRecord> records = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                if (!removed.containsKey(task.getId())) {
+                    records.add(TaskRecord.of(task));
+                }
+            }
+            snapshot = snapshot.apply(records, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Replace a task after an update, keeping fields an update never changes. A task the
+     * model has not seen yet is added only if it carries its creation time.
+     */
+    public void update(Task task) {
+        synchronized (writeLock) {
+            TaskRecord previous = snapshot.get(task.getId());
+            if (removed.containsKey(task.getId()) || (previous == null && task.createdAt() == Task.ABSENT)) {
+                return;
+            }
+            TaskRecord record = previous != null ? TaskRecord.updated(task, previous) : TaskRecord.of(task);
+            snapshot = snapshot.apply(List.of(record), Collections.emptyList());
+        }
+    }
+
+    public void remove(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            long now = System.nanoTime();
+            for (Long id : ids) {
+                removed.put(id, now);
+            }
+            if (now - lastPruneNanos > TimeUnit.SECONDS.toNanos(1)) {
+                removed.values().removeIf(at -> now - at > REMOVED_RETENTION_NANOS);
+                lastPruneNanos = now;
+            }
+            snapshot = snapshot.apply(Collections.emptyList(), ids);
+        }
+    }
+}
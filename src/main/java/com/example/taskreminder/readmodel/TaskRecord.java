@@ -0,0 +1,79 @@
+package com.example.taskreminder.readmodel;
+
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+
+import java.util.Comparator;
+
+/**
+ * Immutable in-memory copy of a live task row, with the same primitive fields as {@link Task}
+ * ({@link Task#ABSENT} for a null {@code completed_at}). Readers get a
+ * fresh {@link Task} from {@link #toTask()}, so records can be shared between snapshots.
+ */
+public final class TaskRecord {
+
+    /** {@code ORDER BY created_at DESC}, ties broken by id. */
+    static final Comparator<TaskRecord> NEWEST_FIRST = (a, b) -> a.createdAt != b.createdAt
+        ? Long.compare(b.createdAt, a.createdAt)
+        : Long.compare(b.id, a.id);
+    /** {@code ORDER BY due_timestamp, id}. */
+    static final Comparator<TaskRecord> BY_DUE = (a, b) -> a.dueTimestamp != b.dueTimestamp
+        ? Long.compare(a.dueTimestamp, b.dueTimestamp)
+        : Long.compare(a.id, b.id);
+
+    final long id;
+    final String title;
+    final String description;
+    final long dueTimestamp;
+    final String email;
+    final TaskStatus status;
+    final long createdAt;
+    final long completedAt;
+    final long version;
+    final String channels;
+    final String webhookUrl;
+    final String locale;
+    // Never modified; readers get a copy
+    final long[] reminderOffsets;
+
+    private TaskRecord(Task task, long createdAt) {
+        this.id = task.id();
+        this.title = task.getTitle();
+        this.description = task.getDescription();
+        this.dueTimestamp = task.dueTimestamp();
+        this.email = task.getEmail();
+        this.status = task.getStatus();
+        this.createdAt = createdAt;
+        this.completedAt = task.completedAt();
+        this.version = task.version() != Task.ABSENT ? task.version() : 0L;
+        this.channels = task.getChannels();
+        this.webhookUrl = task.getWebhookUrl();
+        this.locale = task.getLocale();
+        this.reminderOffsets = task.getReminderOffsets() != null ? task.getReminderOffsets().clone() : null;
+    }
+
+    /**
+     * Record of a task as read from or just written to the database.
+     */
+    static TaskRecord of(Task task) {
+        return new TaskRecord(task, task.createdAt() != Task.ABSENT ? task.createdAt() : 0L);
+    }
+
+    /**
+     * Record of an updated task. Updates never change created_at, which a task sent by a
+     * client may not carry, so it is kept from the previous record.
+     */
+    static TaskRecord updated(Task task, TaskRecord previous) {
+        return new TaskRecord(task, previous.createdAt);
+    }
+
+    Task toTask() {
+        Task task = new Task(id, title, description, dueTimestamp, email, status, createdAt, completedAt);
+        task.setVersion(version);
+        task.setChannels(channels);
+        task.setWebhookUrl(webhookUrl);
+        task.setLocale(locale);
+        task.setReminderOffsets(reminderOffsets != null ? reminderOffsets.clone() : null);
+        return task;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.taskreminder.readmodel;
+
+import com.example.taskreminder.model.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One immutable version of the read model: every live task, indexed by id, by recipient,
+ * newest first (overall and per status) and by due time. {@link #apply} returns the next
+ * version and copies only the index segments the change touches; everything else is shared.
+ */
+final class TaskSnapshot {
+
+    // Hash indexes are split so an update copies 1/256th of the map, not all of it
+    private static final int HASH_SEGMENTS = 256;
+    private static final TaskRecord[] NO_RECORDS = new TaskRecord[0];
+    private static final int REBUILD_THRESHOLD = 1024;
+
+    static final TaskSnapshot EMPTY = load(Collections.emptyList());
+
+    private final Map<Long, TaskRecord>[] byId;
+    // Per recipient, sorted by (due_timestamp, id)
+    private final Map<String, TaskRecord[]>[] byEmail;
+    private final SortedSegments<TaskRecord> newestFirst;
+    private final SortedSegments<TaskRecord> byDue;
+    private final Map<TaskStatus, SortedSegments<TaskRecord>> byStatus;
+
+    private TaskSnapshot(Map<Long, TaskRecord>[] byId, Map<String, TaskRecord[]>[] byEmail,
+                         SortedSegments<TaskRecord> newestFirst, SortedSegments<TaskRecord> byDue,
+                         Map<TaskStatus, SortedSegments<TaskRecord>> byStatus) {
+        this.byId = byId;
+        this.byEmail = byEmail;
+        this.newestFirst = newestFirst;
+        this.byDue = byDue;
+        this.byStatus = byStatus;
+    }
+
+    /**
+     * Snapshot of the given records, built in bulk.
+     */
+    @SuppressWarnings("unchecked")
+    static TaskSnapshot load(List<TaskRecord> records) {
+        Map<Long, TaskRecord>[] byId = new Map[HASH_SEGMENTS];
+        Map<String, TaskRecord[]>[] byEmail = new Map[HASH_SEGMENTS];
+        Map<String, List<TaskRecord>> emailLists = new HashMap<>();
+        Map<TaskStatus, List<TaskRecord>> statusLists = new EnumMap<>(TaskStatus.class);
+        for (int i = 0; i < HASH_SEGMENTS; i++) {
+            byId[i] = new HashMap<>();
+            byEmail[i] = new HashMap<>();
+        }
+        for (TaskRecord record : records) {
+            byId[idSegment(record.id)].put(record.id, record);
+            if (record.email != null) {
+                emailLists.computeIfAbsent(record.email, e -> new ArrayList<>()).add(record);
+            }
+            statusLists.computeIfAbsent(record.status, s -> new ArrayList<>()).add(record);
+        }
+        emailLists.forEach((email, list) -> {
+            TaskRecord[] sorted = list.toArray(NO_RECORDS);
+            Arrays.sort(sorted, TaskRecord.BY_DUE);
+            byEmail[emailSegment(email)].put(email, sorted);
+        });
+        Map<TaskStatus, SortedSegments<TaskRecord>> byStatus = new EnumMap<>(TaskStatus.class);
+        statusLists.forEach((status, list) -> byStatus.put(status, SortedSegments.of(TaskRecord.NEWEST_FIRST, list)));
+        return new TaskSnapshot(byId, byEmail, SortedSegments.of(TaskRecord.NEWEST_FIRST, records),
+            SortedSegments.of(TaskRecord.BY_DUE, records), byStatus);
+    }
+
+    TaskRecord get(long id) {
+        return byId[idSegment(id)].get(id);
+    }
+
+    int size() {
+        return newestFirst.size();
+    }
+
+    SortedSegments<TaskRecord> newestFirst() {
+        return newestFirst;
+    }
+
+    SortedSegments<TaskRecord> byDue() {
+        return byDue;
+    }
+
+    SortedSegments<TaskRecord> newestFirst(TaskStatus status) {
+        SortedSegments<TaskRecord> records = byStatus.get(status);
+        return records != null ? records : SortedSegments.empty(TaskRecord.NEWEST_FIRST);
+    }
+
+    /**
+     * One recipient's tasks ordered by (due_timestamp, id). The array must not be modified.
+     */
+    TaskRecord[] forEmail(String email) {
+        TaskRecord[] records = byEmail[emailSegment(email)].get(email);
+        return records != null ? records : NO_RECORDS;
+    }
+
+    /**
+     * Next version with the given records added or replaced and the given ids removed. A
+     * record older than the one it would replace (by version) is ignored, so writes applied
+     * out of order cannot roll a task back.
+     */
+    TaskSnapshot apply(Collection<TaskRecord> upserts, Collection<Long> removals) {
+        if (upserts.size() + removals.size() > REBUILD_THRESHOLD && upserts.size() + removals.size() > size() / 8) {
+            // Large batches (imports, bulk completion) are cheaper to index from scratch
+            Map<Long, TaskRecord> all = new HashMap<>(size() + upserts.size());
+            for (Map<Long, TaskRecord> segment : byId) {
+                all.putAll(segment);
+            }
+            removals.forEach(all::remove);
+            for (TaskRecord record : upserts) {
+                all.merge(record.id, record, (old, next) -> old.version > next.version ? old : next);
+            }
+            return load(new ArrayList<>(all.values()));
+        }
+        return new Builder(this).apply(upserts, removals).build();
+    }
+
+    private static int idSegment(long id) {
+        return (int) ((id ^ (id >>> 32)) & (HASH_SEGMENTS - 1));
+    }
+
+    private static int emailSegment(String email) {
+        int h = email.hashCode();
+        return (h ^ (h >>> 16)) & (HASH_SEGMENTS - 1);
+    }
+
+    /**
+     * Copy-on-write editor for one apply: each touched hash segment is copied once.
+     */
+    private static final class Builder {
+        private final Map<Long, TaskRecord>[] byId;
+        private final Map<String, TaskRecord[]>[] byEmail;
+        private final boolean[] idCopied = new boolean[HASH_SEGMENTS];
+        private final boolean[] emailCopied = new boolean[HASH_SEGMENTS];
+        private SortedSegments<TaskRecord> newestFirst;
+        private SortedSegments<TaskRecord> byDue;
+        private final Map<TaskStatus, SortedSegments<TaskRecord>> byStatus;
+
+        Builder(TaskSnapshot base) {
+            this.byId = base.byId.clone();
+            this.byEmail = base.byEmail.clone();
+            this.newestFirst = base.newestFirst;
+            this.byDue = base.byDue;
+            this.byStatus = new EnumMap<>(TaskStatus.class);
+            this.byStatus.putAll(base.byStatus);
+        }
+
+        Builder apply(Collection<TaskRecord> upserts, Collection<Long> removals) {
+            for (Long id : removals) {
+                TaskRecord old = byId[idSegment(id)].get(id);
+                if (old != null) {
+                    remove(old);
+                }
+            }
+            for (TaskRecord record : upserts) {
+                TaskRecord old = byId[idSegment(record.id)].get(record.id);
+                if (old != null) {
+                    if (old.version > record.version) {
+                        continue;
+                    }
+                    remove(old);
+                }
+                add(record);
+            }
+            return this;
+        }
+
+        TaskSnapshot build() {
+            return new TaskSnapshot(byId, byEmail, newestFirst, byDue, byStatus);
+        }
+
+        private void add(TaskRecord record) {
+            idSegmentForWrite(record.id).put(record.id, record);
+            if (record.email != null) {
+                Map<String, TaskRecord[]> emails = emailSegmentForWrite(record.email);
+                TaskRecord[] current = emails.getOrDefault(record.email, NO_RECORDS);
+                int at = -Arrays.binarySearch(current, record, TaskRecord.BY_DUE) - 1;
+                TaskRecord[] grown = new TaskRecord[current.length + 1];
+                System.arraycopy(current, 0, grown, 0, at);
+                grown[at] = record;
+                System.arraycopy(current, at, grown, at + 1, current.length - at);
+                emails.put(record.email, grown);
+            }
+            newestFirst = newestFirst.with(record);
+            byDue = byDue.with(record);
+            byStatus.put(record.status,
+                byStatus.getOrDefault(record.status, SortedSegments.empty(TaskRecord.NEWEST_FIRST)).with(record));
+        }
+
+        private void remove(TaskRecord record) {
+            idSegmentForWrite(record.id).remove(record.id);
+            if (record.email != null) {
+                Map<String, TaskRecord[]> emails = emailSegmentForWrite(record.email);
+                TaskRecord[] current = emails.getOrDefault(record.email, NO_RECORDS);
+                int at = Arrays.binarySearch(current, record, TaskRecord.BY_DUE);
+                if (at >= 0) {
+                    if (current.length == 1) {
+                        emails.remove(record.email);
+                    } else {
+                        TaskRecord[] shrunk = new TaskRecord[current.length - 1];
+                        System.arraycopy(current, 0, shrunk, 0, at);
+                        System.arraycopy(current, at + 1, shrunk, at, current.length - at - 1);
+                        emails.put(record.email, shrunk);
+                    }
+                }
+            }
+            newestFirst = newestFirst.without(record);
+            byDue = byDue.without(record);
+            SortedSegments<TaskRecord> status = byStatus.get(record.status);
+            if (status != null) {
+                status = status.without(record);
+                if (status.size() == 0) {
+                    byStatus.remove(record.status);
+                } else {
+                    byStatus.put(record.status, status);
+                }
+            }
+        }
+
+        private Map<Long, TaskRecord> idSegmentForWrite(long id) {
+            int s = idSegment(id);
+            if (!idCopied[s]) {
+                byId[s] = new HashMap<>(byId[s]);
+                idCopied[s] = true;
+            }
+            return byId[s];
+        }
+
+        private Map<String, TaskRecord[]> emailSegmentForWrite(String email) {
+            int s = emailSegment(email);
+            if (!emailCopied[s]) {
+                byEmail[s] = new HashMap<>(byEmail[s]);
+                emailCopied[s] = true;
+            }
+            return byEmail[s];
+        }
+    }
+}
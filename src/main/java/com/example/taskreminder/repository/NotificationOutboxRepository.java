@@ -0,0 +1,144 @@
+package com.example.taskreminder.repository;
+
+import com.example.taskreminder.model.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for the notification outbox. Messages are enqueued by {@link TaskRepository}
+ * inside its write transactions and drained in id order by the relay. A message stays
+ * pending until it is marked sent, so delivery is at least once.
+ */
+@Repository
+public class NotificationOutboxRepository {
+
+    private static final String COLUMNS =
+        "dedup_key, kind, channel, target, task_id, email, title, description, due_timestamp, timezone, " +
+        "created_at, next_attempt_at, locale, completed_at";
+
+    // Inserts unless a message with the same dedup key was ever enqueued
+    private static final String ENQUEUE_SQL =
+        "MERGE INTO notification_outbox o " +
+        "USING (VALUES (CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), " +
+        "CAST(? AS VARCHAR(500)), CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), " +
+        "CAST(? AS VARCHAR(1000)), CAST(? AS BIGINT), CAST(? AS VARCHAR(64)), " +
+        "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS VARCHAR(35)), CAST(? AS BIGINT))) AS m(" + COLUMNS + ") " +
+        "ON o.dedup_key = m.dedup_key " +
+        "WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (m.dedup_key, m.kind, m.channel, m.target, " +
+        "m.task_id, m.email, m.title, m.description, m.due_timestamp, m.timezone, m.created_at, m.next_attempt_at, m.locale, " +
+        "m.completed_at)";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<OutboxMessage> messageRowMapper = (rs, rowNum) -> {
+        OutboxMessage message = new OutboxMessage();
+        message.setId(rs.getLong("id"));
+        message.setDedupKey(rs.getString("dedup_key"));
+        message.setKind(OutboxMessage.Kind.valueOf(rs.getString("kind")));
+        message.setChannel(rs.getString("channel"));
+        message.setTarget(rs.getString("target"));
+        message.setTaskId(rs.getLong("task_id"));
+        message.setEmail(rs.getString("email"));
+        message.setTitle(rs.getString("title"));
+        message.setDescription(rs.getString("description"));
+        message.setDueTimestamp(rs.getObject("due_timestamp", Long.class));
+        message.setTimezone(rs.getString("timezone"));
+        message.setLocale(rs.getString("locale"));
+        message.setCompletedAt(rs.getObject("completed_at", Long.class));
+        message.setCreatedAt(rs.getLong("created_at"));
+        message.setAttempts(rs.getInt("attempts"));
+        return message;
+    };
+
+    @Autowired
+    public NotificationOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Enqueue a message, due now. Joins the caller's transaction if there is one.
+     * Returns false if a message with the same dedup key already exists.
+     */
+    public boolean enqueue(OutboxMessage message) {
+        return jdbcTemplate.update(ENQUEUE_SQL, enqueueArgs(message)) > 0;
+    }
+
+    /**
+     * Enqueue messages as one batch, skipping dedup keys that already exist. Joins the caller's
+     * transaction if there is one.
+     */
+    public void enqueueAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            args.add(enqueueArgs(message));
+        }
+        jdbcTemplate.batchUpdate(ENQUEUE_SQL, args);
+    }
+
+    private static Object[] enqueueArgs(OutboxMessage message) {
+        return new Object[]{message.getDedupKey(), message.getKind().name(), message.getChannel(), message.getTarget(),
+            message.getTaskId(), message.getEmail(), message.getTitle(), message.getDescription(),
+            message.getDueTimestamp(), message.getTimezone(), message.getCreatedAt(), message.getCreatedAt(),
+            message.getLocale(), message.getCompletedAt()};
+    }
+
+    /**
+     * Up to {@code limit} undelivered messages whose next attempt is due, oldest first.
+     */
+    public List<OutboxMessage> findDue(long now, int limit) {
+        return jdbcTemplate.query(
+            "SELECT * FROM notification_outbox WHERE sent_at IS NULL AND next_attempt_at <= ? ORDER BY id LIMIT ?",
+            messageRowMapper, now, limit);
+    }
+
+    /**
+     * Mark delivered messages as sent, as one batch.
+     */
+    public void markSent(List<Long> ids, long sentAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[]{sentAt, id});
+        }
+        jdbcTemplate.batchUpdate("UPDATE notification_outbox SET sent_at = ?, attempts = attempts + 1 WHERE id = ?", args);
+    }
+
+    /**
+     * Record a failed attempt and when to retry.
+     */
+    public void markFailed(Long id, long nextAttemptAt, String error) {
+        String truncated = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        jdbcTemplate.update("UPDATE notification_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? " +
+                            "WHERE id = ?", nextAttemptAt, truncated, id);
+    }
+
+    /**
+     * Number of messages not yet delivered.
+     */
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE sent_at IS NULL", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Delete up to {@code limit} delivered messages sent before the cutoff. Their dedup keys go with
+     * them, so the retention must outlast any retry of the write that enqueued them.
+     */
+    public int deleteSentBefore(long cutoff, int limit) {
+        return jdbcTemplate.update(
+            "DELETE FROM notification_outbox WHERE id IN " +
+            "(SELECT id FROM notification_outbox WHERE sent_at < ? ORDER BY id LIMIT ?)", cutoff, limit);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.taskreminder.repository;
+
+import com.example.taskreminder.jfr.RepositoryQueryEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.util.Collection;
+
+/**
+ * JdbcTemplate that emits a {@link RepositoryQueryEvent} for every SQL statement it runs.
+ * Wraps the narrowest overridable entry points, so every query and update overload that
+ * takes SQL text is covered; failed statements are recorded with -1 rows. Statements built
+ * by callbacks record their own events.
+ * When no recording has the event enabled the overhead is a few no-op calls.
+ */
+class RecordingJdbcTemplate extends JdbcTemplate {
+
+    RecordingJdbcTemplate(JdbcTemplate template) {
+        super(template.getDataSource());
+        setExceptionTranslator(template.getExceptionTranslator());
+        setFetchSize(template.getFetchSize());
+        setMaxRows(template.getMaxRows());
+        setQueryTimeout(template.getQueryTimeout());
+    }
+
+    @Override
+    public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse)
+            throws DataAccessException {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        long rows = -1;
+        try {
+            T result = super.query(psc, pss, rse);
+            rows = rowsOf(result);
+            return result;
+        } finally {
+            event.finish(sqlOf(psc), rows);
+        }
+    }
+
+    @Override
+    public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        long rows = -1;
+        try {
+            T result = super.query(sql, rse);
+            rows = rowsOf(result);
+            return result;
+        } finally {
+            event.finish(sql, rows);
+        }
+    }
+
+    @Override
+    protected int update(PreparedStatementCreator psc, PreparedStatementSetter pss) throws DataAccessException {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        int rows = -1;
+        try {
+            rows = super.update(psc, pss);
+            return rows;
+        } finally {
+            event.finish(sqlOf(psc), rows);
+        }
+    }
+
+    @Override
+    public int update(String sql) throws DataAccessException {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        int rows = -1;
+        try {
+            rows = super.update(sql);
+            return rows;
+        } finally {
+            event.finish(sql, rows);
+        }
+    }
+
+    private static String sqlOf(PreparedStatementCreator psc) {
+        return psc instanceof SqlProvider ? ((SqlProvider) psc).getSql() : null;
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        return result != null ? 1 : -1;
+    }
+}
@@ -1,89 +1,327 @@
 package com.example.taskreminder.repository;
 
+import com.example.taskreminder.jfr.RepositoryQueryEvent;
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.ReminderOffsets;
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskChanges;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Repository for Task persistence using JdbcTemplate.
  * Handles all database operations for tasks.
+ *
+ * Every write stamps the row with a new version from a table-wide sequence so clients
+ * can validate caches (ETags) and fetch deltas without re-reading the whole table.
  */
 @Repository
 public class TaskRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskRepository.class);
 
+    // Keeps IN lists (and their parsed statements) to a bounded size
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    // Columns shared by the live and archive tables, for UNION reads. Every task query selects
+    // them in this order so rows are mapped by position
+    private static final String TASK_COLUMNS =
+        "id, title, description, due_timestamp, email, status, created_at, completed_at, version, channels, webhook_url, " +
+        "reminder_offsets, locale";
+    // Status codes for SQL literals
+    private static final short PENDING_CODE = TaskStatus.PENDING.code();
+    private static final short COMPLETED_CODE = TaskStatus.COMPLETED.code();
+
     private final JdbcTemplate jdbcTemplate;
+    private final NotificationOutboxRepository outboxRepository;
+    // Writes that enqueue notifications commit the change and its outbox rows together
+    private final TransactionTemplate transactionTemplate;
+
+    private final WriteVersions versions;
+    // Last known version per row, used to answer conditional reads without the database
+    private final Map<Long, Long> rowVersions = new ConcurrentHashMap<>();
 
     @Autowired
-    public TaskRepository(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public TaskRepository(JdbcTemplate jdbcTemplate,
+                          NotificationOutboxRepository outboxRepository,
+                          PlatformTransactionManager transactionManager) {
+        this(jdbcTemplate, outboxRepository, transactionManager, new WriteVersions());
+    }
+
+    /**
+     * Repository that allocates row versions from the given sequence, shared with other
+     * repositories (shards) of the same task store.
+     */
+    public TaskRepository(JdbcTemplate jdbcTemplate,
+                          NotificationOutboxRepository outboxRepository,
+                          PlatformTransactionManager transactionManager,
+                          WriteVersions versions) {
+        // Emits a Flight Recorder event per statement
+        this.jdbcTemplate = new RecordingJdbcTemplate(jdbcTemplate);
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.versions = versions;
+    }
+
+    /**
+     * For repositories that route to or wrap other repositories instead of using a database
+     * of their own; they override every operation that reads or writes one.
+     */
+    protected TaskRepository(WriteVersions versions) {
+        this.jdbcTemplate = null;
+        this.outboxRepository = null;
+        this.transactionTemplate = null;
+        this.versions = versions;
+    }
+
+    @PostConstruct
+    public void init() {
+        Long max = jdbcTemplate.queryForObject(
+            "SELECT GREATEST((SELECT COALESCE(MAX(version), 0) FROM tasks), " +
+            "(SELECT COALESCE(MAX(version), 0) FROM task_tombstones), " +
+            "(SELECT COALESCE(MAX(version), 0) FROM tasks_archive))", Long.class);
+        versions.advanceTo(max != null ? max : 0L);
+    }
+
+    /**
+     * Highest task ID this database has used, live, archived or deleted; 0 when it has none.
+     */
+    public long maxId() {
+        Long max = jdbcTemplate.queryForObject(
+            "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM tasks), " +
+            "(SELECT COALESCE(MAX(task_id), 0) FROM task_tombstones), " +
+            "(SELECT COALESCE(MAX(id), 0) FROM tasks_archive))", Long.class);
+        return max != null ? max : 0L;
     }
 
     /**
-     * RowMapper for Task objects.
+     * RowMapper for Task objects, reading the columns of {@link #TASK_COLUMNS} by position.
      */
     private final RowMapper<Task> taskRowMapper = (rs, rowNum) -> {
-        Task task = new Task();
-        task.setId(rs.getLong("id"));
-        task.setTitle(rs.getString("title"));
-        task.setDescription(rs.getString("description"));
-        task.setDueTimestamp(rs.getLong("due_timestamp"));
-        task.setEmail(rs.getString("email"));
-        task.setStatus(rs.getString("status"));
-        task.setCreatedAt(rs.getLong("created_at"));
-        Long completedAt = rs.getLong("completed_at");
-        if (!rs.wasNull()) {
-            task.setCompletedAt(completedAt);
+        long completedAt = rs.getLong(8);
+        if (rs.wasNull()) {
+            completedAt = Task.ABSENT;
         }
+        Task task = new Task(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getString(5),
+            TaskStatus.fromCode(rs.getShort(6)), rs.getLong(7), completedAt);
+        task.setVersion(rs.getLong(9));
+        task.setChannels(rs.getString(10));
+        task.setWebhookUrl(rs.getString(11));
+        task.setReminderOffsets(ReminderOffsets.unpack(rs.getBytes(12)));
+        task.setLocale(rs.getString(13));
+        return task;
+    };
+
+    // The missed-reminder scan also needs to know which reminder was handed off last,
+    // selected after the task columns
+    private final RowMapper<Task> missedReminderRowMapper = (rs, rowNum) -> {
+        Task task = taskRowMapper.mapRow(rs, rowNum);
+        long sentAt = rs.getLong(14);
+        task.setReminderSentAt(rs.wasNull() ? null : sentAt);
         return task;
     };
 
     /**
-     * Save a new task and return the generated ID.
+     * Save a new task and return it with the ID generated by the database; an ID the task
+     * already carries is ignored.
      */
     public Task save(Task task) {
-        String sql = "INSERT INTO tasks (title, description, due_timestamp, email, status, created_at, completed_at) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        return insert(task, false);
+    }
+
+    /**
+     * Insert a task under the ID it already carries. Only for stores that assign IDs themselves,
+     * like the sharded store; IDs from clients go through {@link #save(Task)}.
+     */
+    public Task insertWithId(Task task) {
+        return insert(task, true);
+    }
+
+    private Task insert(Task task, boolean assigned) {
+        String sql = insertSql(assigned);
         
         KeyHolder keyHolder = new GeneratedKeyHolder();
-        
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, task.getTitle());
-            ps.setString(2, task.getDescription());
-            ps.setLong(3, task.getDueTimestamp());
-            ps.setString(4, task.getEmail());
-            ps.setString(5, task.getStatus());
-            ps.setLong(6, task.getCreatedAt());
-            ps.setObject(7, task.getCompletedAt());
-            return ps;
-        }, keyHolder);
-
-        Long id = keyHolder.getKey().longValue();
+        long version = versions.begin();
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        int inserted = -1;
+        try {
+            inserted = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = assigned
+                    ? connection.prepareStatement(sql)
+                    : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                setInsertParameters(ps, task, version, assigned);
+                return ps;
+            }, keyHolder);
+        } finally {
+            event.finish(sql, inserted);
+            versions.end(version);
+        }
+
+        Long id = assigned ? task.getId() : Long.valueOf(keyHolder.getKey().longValue());
         task.setId(id);
+        task.setVersion(version);
+        rowVersions.put(id, version);
         logger.info("Saved task with ID: {}", id);
         return task;
     }
 
+    /**
+     * Insert many tasks as one JDBC batch in a single transaction, setting their generated IDs;
+     * IDs the tasks already carry are ignored.
+     * All rows share one version, like the other multi-row writes.
+     */
+    public List<Task> saveAll(List<Task> tasks) {
+        return insertAll(tasks, false);
+    }
+
+    /**
+     * Batch counterpart of {@link #insertWithId(Task)}: every task must carry its ID.
+     */
+    public List<Task> insertAllWithIds(List<Task> tasks) {
+        return insertAll(tasks, true);
+    }
+
+    private List<Task> insertAll(List<Task> tasks, boolean assigned) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        String sql = insertSql(assigned);
+
+        long version = versions.begin();
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        int[] inserted = {-1};
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try (PreparedStatement ps = assigned
+                        ? connection.prepareStatement(sql)
+                        : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Task task : tasks) {
+                        setInsertParameters(ps, task, version, assigned);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    if (!assigned) {
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (Task task : tasks) {
+                                if (!keys.next()) {
+                                    throw new SQLException("Batch insert returned fewer keys than rows");
+                                }
+                                task.setId(keys.getLong(1));
+                            }
+                        }
+                    }
+                    connection.commit();
+                    inserted[0] = tasks.size();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                return null;
+            });
+        } finally {
+            event.finish(sql + " (batch)", inserted[0]);
+            versions.end(version);
+        }
+
+        for (Task task : tasks) {
+            task.setVersion(version);
+            rowVersions.put(task.getId(), version);
+        }
+        logger.debug("Batch inserted {} tasks", tasks.size());
+        return tasks;
+    }
+
+    private static String insertSql(boolean withId) {
+        return "INSERT INTO tasks (title, description, due_timestamp, email, status, created_at, completed_at, version, " +
+               "channels, webhook_url, reminder_offsets, first_reminder_at, locale" +
+               (withId ? ", id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                       : ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    private static void setInsertParameters(PreparedStatement ps, Task task, long version, boolean withId)
+            throws SQLException {
+        ps.setString(1, task.getTitle());
+        ps.setString(2, task.getDescription());
+        setTimestamp(ps, 3, task.dueTimestamp());
+        ps.setString(4, task.getEmail());
+        ps.setShort(5, task.getStatus().code());
+        setTimestamp(ps, 6, task.createdAt());
+        setTimestamp(ps, 7, task.completedAt());
+        ps.setLong(8, version);
+        ps.setString(9, task.getChannels());
+        ps.setString(10, task.getWebhookUrl());
+        ps.setBytes(11, ReminderOffsets.pack(task.getReminderOffsets()));
+        ps.setLong(12, ReminderOffsets.firstReminderAt(task));
+        ps.setString(13, task.getLocale());
+        if (withId) {
+            if (task.id() == Task.ABSENT) {
+                throw new IllegalArgumentException("Task has no ID to insert under");
+            }
+            ps.setLong(14, task.id());
+        }
+    }
+
+    // An absent value is bound as NULL, so a missing required one fails its NOT NULL constraint
+    private static void setTimestamp(PreparedStatement ps, int index, long value) throws SQLException {
+        if (value != Task.ABSENT) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    /**
+     * Find an archived task by ID.
+     */
+    public Optional<Task> findArchivedById(Long id) {
+        List<Task> tasks = jdbcTemplate.query("SELECT " + TASK_COLUMNS + " FROM tasks_archive WHERE id = ?", taskRowMapper, id);
+        return tasks.stream().findFirst();
+    }
+
     /**
      * Find task by ID.
      */
     public Optional<Task> findById(Long id) {
-        String sql = "SELECT * FROM tasks WHERE id = ?";
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE id = ?";
         try {
             Task task = jdbcTemplate.queryForObject(sql, taskRowMapper, id);
+            if (task != null) {
+                rowVersions.put(id, task.getVersion());
+            }
             return Optional.ofNullable(task);
         } catch (Exception e) {
             logger.debug("Task not found with ID: {}", id);
@@ -95,54 +333,312 @@ public class TaskRepository {
      * Find all tasks.
      */
     public List<Task> findAll() {
-        String sql = "SELECT * FROM tasks ORDER BY created_at DESC";
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks ORDER BY created_at DESC";
         return jdbcTemplate.query(sql, taskRowMapper);
     }
 
     /**
      * Find tasks by status.
      */
-    public List<Task> findByStatus(String status) {
-        String sql = "SELECT * FROM tasks WHERE status = ? ORDER BY created_at DESC";
-        return jdbcTemplate.query(sql, taskRowMapper, status);
+    public List<Task> findByStatus(TaskStatus status) {
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE status = ? ORDER BY created_at DESC";
+        return jdbcTemplate.query(sql, taskRowMapper, status.code());
+    }
+
+    /**
+     * Find one recipient's tasks ordered by (due_timestamp, id), optionally by status and due range
+     * [dueFrom, dueTo). Pages by keyset: pass the last row's due timestamp and id to continue after it.
+     */
+    public List<Task> findByEmail(String email, TaskStatus status, Long dueFrom, Long dueTo,
+                                  Long afterDue, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + TASK_COLUMNS + " FROM tasks WHERE email = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(email);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            params.add(status.code());
+        }
+        if (dueFrom != null) {
+            sql.append(" AND due_timestamp >= ?");
+            params.add(dueFrom);
+        }
+        if (dueTo != null) {
+            sql.append(" AND due_timestamp < ?");
+            params.add(dueTo);
+        }
+        if (afterDue != null && afterId != null) {
+            sql.append(" AND (due_timestamp > ? OR (due_timestamp = ? AND id > ?))");
+            params.add(afterDue);
+            params.add(afterDue);
+            params.add(afterId);
+        }
+        sql.append(" ORDER BY due_timestamp, id LIMIT ?");
+        params.add(limit);
+        return jdbcTemplate.query(sql.toString(), taskRowMapper, params.toArray());
+    }
+
+    /**
+     * Find all tasks, live and archived.
+     */
+    public List<Task> findAllIncludingArchived() {
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks UNION ALL " +
+                     "SELECT " + TASK_COLUMNS + " FROM tasks_archive ORDER BY created_at DESC";
+        return jdbcTemplate.query(sql, taskRowMapper);
+    }
+
+    /**
+     * Find tasks by status, live and archived.
+     */
+    public List<Task> findByStatusIncludingArchived(TaskStatus status) {
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE status = ? UNION ALL " +
+                     "SELECT " + TASK_COLUMNS + " FROM tasks_archive WHERE status = ? ORDER BY created_at DESC";
+        return jdbcTemplate.query(sql, taskRowMapper, status.code(), status.code());
     }
 
     /**
      * Update an existing task.
      */
     public boolean update(Task task) {
-        String sql = "UPDATE tasks SET title = ?, description = ?, due_timestamp = ?, " +
-                     "email = ?, status = ?, completed_at = ? WHERE id = ?";
+        return update(task, Collections.emptyList());
+    }
+
+    /**
+     * Update an existing task and, if it exists, enqueue its notifications in the same transaction.
+     * The write's version becomes visible to change tracking only after the commit.
+     */
+    public boolean update(Task task, List<OutboxMessage> notifications) {
+        // Moving the due time re-arms the reminder, so the sent marker is cleared
+        String sql = "UPDATE tasks SET reminder_sent_at = CASE WHEN due_timestamp = ? THEN reminder_sent_at END, " +
+                     "title = ?, description = ?, due_timestamp = ?, " +
+                     "email = ?, status = ?, completed_at = ?, version = ?, channels = ?, webhook_url = ?, " +
+                     "reminder_offsets = ?, first_reminder_at = ?, locale = ? WHERE id = ?";
         
-        int rowsAffected = jdbcTemplate.update(sql,
-                task.getTitle(),
-                task.getDescription(),
-                task.getDueTimestamp(),
-                task.getEmail(),
-                task.getStatus(),
-                task.getCompletedAt(),
-                task.getId());
+        long version = versions.begin();
+        int rowsAffected;
+        try {
+            rowsAffected = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update(sql,
+                        task.getDueTimestamp(),
+                        task.getTitle(),
+                        task.getDescription(),
+                        task.getDueTimestamp(),
+                        task.getEmail(),
+                        task.getStatus().code(),
+                        task.getCompletedAt(),
+                        version,
+                        task.getChannels(),
+                        task.getWebhookUrl(),
+                        ReminderOffsets.pack(task.getReminderOffsets()),
+                        ReminderOffsets.firstReminderAt(task),
+                        task.getLocale(),
+                        task.getId());
+                if (rows > 0) {
+                    outboxRepository.enqueueAll(notifications);
+                }
+                return rows;
+            });
+        } finally {
+            versions.end(version);
+        }
+        if (rowsAffected > 0) {
+            task.setVersion(version);
+            rowVersions.put(task.getId(), version);
+        }
         
         logger.info("Updated task with ID: {}, rows affected: {}", task.getId(), rowsAffected);
         return rowsAffected > 0;
     }
 
+    /**
+     * Store a task the caller has just marked completed, with its completion notifications.
+     * Written like any other update here; a write-behind store may acknowledge it before it commits.
+     */
+    public boolean complete(Task task, List<OutboxMessage> notifications) {
+        return update(task, notifications);
+    }
+
+    /**
+     * Mark tasks completed at their own completion times as one JDBC batch in a single
+     * transaction, touching only the status columns. Tasks that no longer exist or are already
+     * completed are skipped. All changed rows share the write's version, and their
+     * notifications are enqueued in the same transaction. Returns the tasks that changed.
+     */
+    public List<Task> completeAll(List<Task> tasks, Function<Task, List<OutboxMessage>> notifications) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        long version = versions.begin();
+        List<Task> completed;
+        try {
+            completed = transactionTemplate.execute(status -> {
+                List<Object[]> args = new ArrayList<>(tasks.size());
+                for (Task task : tasks) {
+                    args.add(new Object[]{task.completedAt(), version, task.id()});
+                }
+                int[] rows = jdbcTemplate.batchUpdate("UPDATE tasks SET status = " + COMPLETED_CODE +
+                    ", completed_at = ?, version = ? WHERE id = ? AND status <> " + COMPLETED_CODE, args);
+                List<Task> changed = new ArrayList<>();
+                List<OutboxMessage> messages = new ArrayList<>();
+                for (int i = 0; i < rows.length; i++) {
+                    if (rows[i] > 0) {
+                        Task task = tasks.get(i);
+                        changed.add(task);
+                        messages.addAll(notifications.apply(task));
+                    }
+                }
+                outboxRepository.enqueueAll(messages);
+                return changed;
+            });
+        } finally {
+            versions.end(version);
+        }
+        for (Task task : completed) {
+            task.setVersion(version);
+            rowVersions.put(task.getId(), version);
+        }
+        logger.debug("Batch completed {} of {} tasks", completed.size(), tasks.size());
+        return completed;
+    }
+
     /**
      * Delete task by ID.
      */
     public boolean deleteById(Long id) {
         String sql = "DELETE FROM tasks WHERE id = ?";
-        int rowsAffected = jdbcTemplate.update(sql, id);
+        long version = versions.begin();
+        int rowsAffected;
+        try {
+            // The tombstone commits with the delete, so the change feed never misses it
+            rowsAffected = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update(sql, id);
+                if (rows > 0) {
+                    jdbcTemplate.update("MERGE INTO task_tombstones (task_id, version) KEY (task_id) VALUES (?, ?)", id, version);
+                }
+                return rows;
+            });
+        } finally {
+            versions.end(version);
+        }
+        rowVersions.remove(id);
         logger.info("Deleted task with ID: {}, rows affected: {}", id, rowsAffected);
         return rowsAffected > 0;
     }
 
+    /**
+     * Find the status of each of the given tasks. Ids are resolved with chunked
+     * {@code IN} queries; ids that do not exist are absent from the result.
+     */
+    public Map<Long, TaskStatus> findStatusesByIds(Collection<Long> ids) {
+        Map<Long, TaskStatus> statuses = new HashMap<>();
+        List<Long> distinct = ids.stream().distinct().collect(Collectors.toList());
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, status FROM tasks WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    statuses.put(rs.getLong(1), TaskStatus.fromCode(rs.getShort(2)));
+                },
+                chunk.toArray());
+        }
+        return statuses;
+    }
+
+    /**
+     * Find tasks matching a filter. Id lists are resolved in chunks.
+     */
+    public List<Task> findByFilter(TaskFilter filter) {
+        List<Task> tasks = new ArrayList<>();
+        forEachFilterChunk(filter, (where, params) -> tasks.addAll(
+            jdbcTemplate.query("SELECT " + TASK_COLUMNS + " FROM tasks WHERE " + where + " ORDER BY id",
+                taskRowMapper, params)));
+        return tasks;
+    }
+
+    /**
+     * Mark every not-yet-completed task matching a filter as completed with one set-based
+     * UPDATE (one per id chunk). All rows share the write's version, which is used to read
+     * back exactly the rows this call changed, and to enqueue the completion notifications
+     * built for them in the same transaction.
+     */
+    public List<Task> completeByFilter(TaskFilter filter, long completedAt,
+                                       Function<Task, List<OutboxMessage>> notifications) {
+        long version = versions.begin();
+        List<Task> completed;
+        try {
+            completed = transactionTemplate.execute(status -> {
+                forEachFilterChunk(filter, (where, params) -> {
+                    Object[] args = new Object[params.length + 2];
+                    args[0] = completedAt;
+                    args[1] = version;
+                    System.arraycopy(params, 0, args, 2, params.length);
+                    jdbcTemplate.update("UPDATE tasks SET status = " + COMPLETED_CODE + ", completed_at = ?, version = ? " +
+                                        "WHERE status <> " + COMPLETED_CODE + " AND " + where, args);
+                });
+                List<Task> changed = jdbcTemplate.query(
+                    "SELECT " + TASK_COLUMNS + " FROM tasks WHERE version = ? ORDER BY id", taskRowMapper, version);
+                List<OutboxMessage> messages = new ArrayList<>();
+                for (Task task : changed) {
+                    messages.addAll(notifications.apply(task));
+                }
+                outboxRepository.enqueueAll(messages);
+                return changed;
+            });
+        } finally {
+            versions.end(version);
+        }
+        for (Task task : completed) {
+            rowVersions.put(task.getId(), version);
+        }
+        logger.info("Bulk completed {} tasks matching {}", completed.size(), filter);
+        return completed;
+    }
+
+    /**
+     * Run one statement per id chunk of the filter (or a single one when it has no id list),
+     * passing the WHERE clause and its parameters.
+     */
+    private void forEachFilterChunk(TaskFilter filter, BiConsumer<String, Object[]> statement) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (filter.getEmail() != null) {
+            conditions.add("email = ?");
+            params.add(filter.getEmail());
+        }
+        if (filter.getDueFrom() != null) {
+            conditions.add("due_timestamp >= ?");
+            params.add(filter.getDueFrom());
+        }
+        if (filter.getDueTo() != null) {
+            conditions.add("due_timestamp < ?");
+            params.add(filter.getDueTo());
+        }
+        if (filter.getStatus() != null) {
+            conditions.add("status = ?");
+            params.add(filter.getStatus().code());
+        }
+
+        List<Long> ids = filter.getIds();
+        if (ids == null) {
+            statement.accept(conditions.isEmpty() ? "1 = 1" : String.join(" AND ", conditions), params.toArray());
+            return;
+        }
+        List<Long> distinct = ids.stream().distinct().collect(Collectors.toList());
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size()));
+            List<String> chunkConditions = new ArrayList<>(conditions);
+            chunkConditions.add("id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")");
+            List<Object> chunkParams = new ArrayList<>(params);
+            chunkParams.addAll(chunk);
+            statement.accept(String.join(" AND ", chunkConditions), chunkParams.toArray());
+        }
+    }
+
     /**
      * Count tasks by status.
      */
-    public long countByStatus(String status) {
+    public long countByStatus(TaskStatus status) {
         String sql = "SELECT COUNT(*) FROM tasks WHERE status = ?";
-        Long count = jdbcTemplate.queryForObject(sql, Long.class, status);
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, status.code());
         return count != null ? count : 0L;
     }
 
@@ -154,5 +650,200 @@ public class TaskRepository {
         Long count = jdbcTemplate.queryForObject(sql, Long.class);
         return count != null ? count : 0L;
     }
-}
 
+    /**
+     * Count archived tasks, optionally only those with the given status.
+     */
+    public long countArchived(TaskStatus status) {
+        Long count = status != null
+            ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks_archive WHERE status = ?", Long.class,
+                status.code())
+            : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks_archive", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Move up to {@code limit} tasks completed before the cutoff into the archive table, in one
+     * short transaction. The chosen rows are locked first so a concurrent update either finishes
+     * before the move or finds the row gone; rows keep their id and version. Returns the ids moved.
+     */
+    public List<Long> archiveCompleted(long completedBefore, long archivedAt, int limit) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        List<Long> moved = null;
+        try {
+            moved = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    List<Long> ids = new ArrayList<>();
+                    try (PreparedStatement select = connection.prepareStatement(
+                            "SELECT id FROM tasks WHERE status = " + COMPLETED_CODE + " AND completed_at < ? " +
+                            "ORDER BY id LIMIT ? FOR UPDATE")) {
+                        select.setLong(1, completedBefore);
+                        select.setInt(2, Math.min(limit, IN_CLAUSE_CHUNK_SIZE));
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                ids.add(rs.getLong(1));
+                            }
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        connection.commit();
+                        return ids;
+                    }
+
+                    String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                    try (PreparedStatement insert = connection.prepareStatement(
+                            "INSERT INTO tasks_archive (" + TASK_COLUMNS + ", reminder_sent_at, archived_at) " +
+                            "SELECT " + TASK_COLUMNS + ", reminder_sent_at, ? FROM tasks WHERE id IN (" + in + ")");
+                         PreparedStatement delete = connection.prepareStatement(
+                            "DELETE FROM tasks WHERE id IN (" + in + ")")) {
+                        insert.setLong(1, archivedAt);
+                        for (int i = 0; i < ids.size(); i++) {
+                            insert.setLong(i + 2, ids.get(i));
+                            delete.setLong(i + 1, ids.get(i));
+                        }
+                        int inserted = insert.executeUpdate();
+                        int deleted = delete.executeUpdate();
+                        if (inserted != ids.size() || deleted != ids.size()) {
+                            throw new SQLException("Archive moved " + inserted + "/" + deleted + " of " + ids.size() + " rows");
+                        }
+                    }
+                    connection.commit();
+                    return ids;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            });
+        } finally {
+            event.finish("archive completed tasks (SELECT FOR UPDATE, INSERT INTO tasks_archive, DELETE)",
+                moved != null ? moved.size() : -1);
+        }
+
+        if (moved.isEmpty()) {
+            return moved;
+        }
+        for (Long id : moved) {
+            rowVersions.remove(id);
+        }
+        // Listings change even though no row got a new version
+        versions.touch();
+        return moved;
+    }
+
+    /**
+     * Find pending tasks due in the given range whose first reminder fires at or before
+     * {@code remindBy} and whose last reminder has not been handed off, oldest due first.
+     * Pages by (due_timestamp, id): pass the last row's values to fetch the next page. The
+     * tasks carry {@link Task#getReminderSentAt()} so the caller can tell which reminder is missed.
+     */
+    public List<Task> findMissedReminders(long dueFrom, long afterId, long dueTo, long remindBy, int limit) {
+        String sql = "SELECT " + TASK_COLUMNS + ", reminder_sent_at FROM tasks " +
+                     "WHERE status = " + PENDING_CODE + " AND first_reminder_at <= ? " +
+                     "AND (reminder_sent_at IS NULL OR reminder_sent_at < due_timestamp) " +
+                     "AND (due_timestamp > ? OR (due_timestamp = ? AND id > ?)) AND due_timestamp <= ? " +
+                     "ORDER BY due_timestamp, id LIMIT ?";
+        return jdbcTemplate.query(sql, missedReminderRowMapper, remindBy, dueFrom, dueFrom, afterId, dueTo, limit);
+    }
+
+    /**
+     * Record that the task's reminder scheduled for {@code remindAt} has been handed off,
+     * enqueueing its notifications in the same transaction. A reminder not marked here is
+     * picked up again by catch-up after a restart.
+     */
+    public void markReminderSent(Long id, long remindAt, List<OutboxMessage> notifications) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Reminders of one task can be handed off out of order; the marker only moves forward
+            jdbcTemplate.update("UPDATE tasks SET reminder_sent_at = ? WHERE id = ? " +
+                                "AND (reminder_sent_at IS NULL OR reminder_sent_at < ?)", remindAt, id, remindAt);
+            outboxRepository.enqueueAll(notifications);
+        });
+    }
+
+    /**
+     * Find tasks and deletions after the cursor (since, afterId), in (version, id) order.
+     * {@code afterId} is {@link TaskChanges#VERSION_DONE} to start after all of {@code since}.
+     * Only versions whose writes have completed are returned, so a client that
+     * resumes from the returned cursor never skips a concurrently committing row.
+     */
+    public TaskChanges findChangesSince(long since, long afterId, int limit) {
+        return findChangesBetween(since, afterId, versions.stable(), TaskChanges.VERSION_DONE, limit);
+    }
+
+    /**
+     * Find changes with a (version, id) in ((since, afterId), (upper, upperId)], where every
+     * write up to upper has completed. Returns up to {@code limit} changed tasks and up to
+     * {@code limit} deletions, paged by (version, id), so one bulk write that stamped many
+     * rows with the same version is split across pages like any other.
+     */
+    public TaskChanges findChangesBetween(long since, long afterId, long upper, long upperId, int limit) {
+        List<Task> tasks = jdbcTemplate.query(
+            "SELECT " + TASK_COLUMNS + " FROM tasks WHERE (version > ? OR (version = ? AND id > ?)) " +
+            "AND (version < ? OR (version = ? AND id <= ?)) ORDER BY version, id LIMIT ?",
+            taskRowMapper, since, since, afterId, upper, upper, upperId, limit);
+        List<Map<String, Object>> tombstones = jdbcTemplate.queryForList(
+            "SELECT task_id, version FROM task_tombstones WHERE (version > ? OR (version = ? AND task_id > ?)) " +
+            "AND (version < ? OR (version = ? AND task_id <= ?)) ORDER BY version, task_id LIMIT ?",
+            since, since, afterId, upper, upper, upperId, limit);
+
+        // When either side was truncated, only return changes up to the lower of the two cut-offs
+        long cursorVersion = upper;
+        long cursorId = upperId;
+        boolean hasMore = false;
+        if (tasks.size() == limit) {
+            Task last = tasks.get(tasks.size() - 1);
+            cursorVersion = last.version();
+            cursorId = last.id();
+            hasMore = true;
+        }
+        if (tombstones.size() == limit) {
+            Map<String, Object> last = tombstones.get(tombstones.size() - 1);
+            long version = ((Number) last.get("version")).longValue();
+            long taskId = ((Number) last.get("task_id")).longValue();
+            if (!hasMore || version < cursorVersion || version == cursorVersion && taskId < cursorId) {
+                cursorVersion = version;
+                cursorId = taskId;
+            }
+            hasMore = true;
+        }
+        final long endVersion = cursorVersion;
+        final long endId = cursorId;
+        List<Task> changed = tasks.stream()
+            .filter(t -> t.version() < endVersion || t.version() == endVersion && t.id() <= endId)
+            .collect(Collectors.toList());
+        List<Long> deleted = new ArrayList<>();
+        for (Map<String, Object> row : tombstones) {
+            long version = ((Number) row.get("version")).longValue();
+            long taskId = ((Number) row.get("task_id")).longValue();
+            if (version < endVersion || version == endVersion && taskId <= endId) {
+                deleted.add(taskId);
+            }
+        }
+        return new TaskChanges(endVersion, endId, changed, deleted, hasMore);
+    }
+
+    /**
+     * Outboxes this repository enqueues notifications into, for the relay to drain.
+     */
+    public List<NotificationOutboxRepository> getOutboxRepositories() {
+        return List.of(outboxRepository);
+    }
+
+    /**
+     * Table-level version, changes after every completed write.
+     */
+    public long getTableVersion() {
+        return versions.getTableVersion();
+    }
+
+    /**
+     * Last known version of a row, if this instance has seen it.
+     */
+    public Optional<Long> getKnownRowVersion(Long id) {
+        return Optional.ofNullable(rowVersions.get(id));
+    }
+}
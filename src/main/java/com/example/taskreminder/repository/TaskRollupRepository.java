@@ -0,0 +1,157 @@
+package com.example.taskreminder.repository;
+
+import com.example.taskreminder.model.AnalyticsBucket;
+import com.example.taskreminder.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for the pre-aggregated analytics buckets in task_rollups.
+ * Rows are keyed by (granularity, email, bucket start); the empty email holds the totals
+ * for all emails. Buckets are only ever incremented, never recomputed on read.
+ */
+@Repository
+public class TaskRollupRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskRollupRepository.class);
+
+    // Adds the deltas to an existing bucket or creates it
+    private static final String MERGE_SQL =
+        "MERGE INTO task_rollups r " +
+        "USING (VALUES (CAST(? AS CHAR(1)), CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), " +
+        "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+        "AS d(granularity, bucket_start, email, created, completed, completed_on_time, total_completion_millis) " +
+        "ON r.granularity = d.granularity AND r.email = d.email AND r.bucket_start = d.bucket_start " +
+        "WHEN MATCHED THEN UPDATE SET created = r.created + d.created, completed = r.completed + d.completed, " +
+        "completed_on_time = r.completed_on_time + d.completed_on_time, " +
+        "total_completion_millis = r.total_completion_millis + d.total_completion_millis " +
+        "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, email, created, completed, completed_on_time, " +
+        "total_completion_millis) VALUES (d.granularity, d.bucket_start, d.email, d.created, d.completed, " +
+        "d.completed_on_time, d.total_completion_millis)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<AnalyticsBucket> bucketRowMapper = (rs, rowNum) -> new AnalyticsBucket(
+        rs.getLong("bucket_start"), rs.getLong("created"), rs.getLong("completed"),
+        rs.getLong("completed_on_time"), rs.getLong("total_completion_millis"));
+
+    @Autowired
+    public TaskRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A pending increment for one bucket row.
+     */
+    public static class Delta {
+        private final char granularity;
+        private final String email;
+        private final AnalyticsBucket bucket;
+
+        public Delta(char granularity, String email, AnalyticsBucket bucket) {
+            this.granularity = granularity;
+            this.email = email;
+            this.bucket = bucket;
+        }
+
+        public char getGranularity() {
+            return granularity;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public AnalyticsBucket getBucket() {
+            return bucket;
+        }
+    }
+
+    /**
+     * Apply increments as one JDBC batch.
+     */
+    public void merge(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            AnalyticsBucket b = delta.bucket;
+            args.add(new Object[]{String.valueOf(delta.granularity), b.getBucketStart(), delta.email,
+                b.getCreated(), b.getCompleted(), b.getCompletedOnTime(), b.getTotalCompletionMillis()});
+        }
+        jdbcTemplate.batchUpdate(MERGE_SQL, args);
+        logger.debug("Merged {} rollup deltas", deltas.size());
+    }
+
+    /**
+     * Buckets in [from, to) for one email ('' for all), in time order. Empty buckets are absent.
+     */
+    public List<AnalyticsBucket> findBuckets(char granularity, String email, long from, long to) {
+        return jdbcTemplate.query(
+            "SELECT * FROM task_rollups WHERE granularity = ? AND email = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "ORDER BY bucket_start",
+            bucketRowMapper, String.valueOf(granularity), email, from, to);
+    }
+
+    /**
+     * Per-email totals over [from, to), busiest emails first.
+     */
+    public Map<String, AnalyticsBucket> findEmailTotals(char granularity, long from, long to, int limit) {
+        Map<String, AnalyticsBucket> totals = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT email, SUM(created) AS created, SUM(completed) AS completed, " +
+            "SUM(completed_on_time) AS completed_on_time, SUM(total_completion_millis) AS total_completion_millis " +
+            "FROM task_rollups WHERE granularity = ? AND email <> '' AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY email ORDER BY SUM(created) + SUM(completed) DESC, email LIMIT ?",
+            (RowCallbackHandler) rs -> totals.put(rs.getString("email"), new AnalyticsBucket(from,
+                rs.getLong("created"), rs.getLong("completed"), rs.getLong("completed_on_time"),
+                rs.getLong("total_completion_millis"))),
+            String.valueOf(granularity), from, to, limit);
+        return totals;
+    }
+
+    public boolean isEmpty() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM task_rollups LIMIT 1)", Long.class);
+        return count == null || count == 0L;
+    }
+
+    /**
+     * One-off scan of live and archived tasks, grouped into buckets, for seeding an empty rollup table.
+     * Passes (bucket start, email, created, completed, completed on time, completion millis) to the sink.
+     */
+    public void scanTasks(long bucketMillis, TaskBucketSink sink) {
+        String source = "(SELECT email, created_at, completed_at, due_timestamp, status FROM tasks " +
+                        "UNION ALL SELECT email, created_at, completed_at, due_timestamp, status FROM tasks_archive) t";
+        jdbcTemplate.query(
+            "SELECT (created_at / ?) * ? AS bucket_start, email, COUNT(*) AS created FROM " + source +
+            " GROUP BY bucket_start, email",
+            (RowCallbackHandler) rs -> sink.accept(rs.getLong("bucket_start"), rs.getString("email"),
+                rs.getLong("created"), 0L, 0L, 0L),
+            bucketMillis, bucketMillis);
+        jdbcTemplate.query(
+            "SELECT (completed_at / ?) * ? AS bucket_start, email, COUNT(*) AS completed, " +
+            "SUM(CASE WHEN completed_at <= due_timestamp THEN 1 ELSE 0 END) AS on_time, " +
+            "SUM(completed_at - created_at) AS completion_millis FROM " + source +
+            " WHERE status = " + TaskStatus.COMPLETED.code() + " AND completed_at IS NOT NULL GROUP BY bucket_start, email",
+            (RowCallbackHandler) rs -> sink.accept(rs.getLong("bucket_start"), rs.getString("email"),
+                0L, rs.getLong("completed"), rs.getLong("on_time"), rs.getLong("completion_millis")),
+            bucketMillis, bucketMillis);
+    }
+
+    @FunctionalInterface
+    public interface TaskBucketSink {
+        void accept(long bucketStart, String email, long created, long completed, long completedOnTime,
+                    long completionMillis);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.taskreminder.repository;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates the row versions stamped by task writes and tracks which of them are still in flight.
+ * One instance per {@link TaskRepository} by default; shards of one task store share an instance
+ * so versions stay unique and ordered across all of them.
+ */
+public class WriteVersions {
+
+    // A version is "in flight" until its write has completed
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // Bumped after every completed write, used as the table-level ETag
+    private final AtomicLong tableVersion = new AtomicLong();
+
+    /**
+     * Move the sequence past versions already stored, e.g. found in a database at startup.
+     */
+    public void advanceTo(long version) {
+        sequence.accumulateAndGet(version, Math::max);
+        tableVersion.accumulateAndGet(version, Math::max);
+    }
+
+    public long begin() {
+        long version = sequence.incrementAndGet();
+        inFlight.add(version);
+        return version;
+    }
+
+    public void end(long version) {
+        inFlight.remove(version);
+        tableVersion.incrementAndGet();
+    }
+
+    /**
+     * Record a change to listings that did not allocate a version, such as archiving.
+     */
+    public void touch() {
+        tableVersion.incrementAndGet();
+    }
+
+    public long getTableVersion() {
+        return tableVersion.get();
+    }
+
+    /**
+     * Highest version below which every write has completed.
+     */
+    public long stable() {
+        long allocated = sequence.get();
+        Long oldestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+        if (oldestInFlight == null) {
+            return allocated;
+        }
+        return oldestInFlight - 1;
+    }
+}
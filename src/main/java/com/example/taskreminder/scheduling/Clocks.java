@@ -0,0 +1,22 @@
+package com.example.taskreminder.scheduling;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Helpers for reading time from an injected {@link Clock}.
+ */
+public final class Clocks {
+
+    private Clocks() {
+    }
+
+    /**
+     * Nanoseconds since the epoch, at the clock's precision.
+     * Used where rate limiters need sub-millisecond resolution from a replaceable clock.
+     */
+    public static long epochNanos(Clock clock) {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.event.TaskEvent;
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.event.TaskEventType;
+import com.example.taskreminder.model.AnalyticsBucket;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.repository.TaskRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for task throughput analytics backed by incrementally maintained rollups.
+ *
+ * Task events are folded into in-memory deltas per (hour/day bucket, email) and merged into
+ * task_rollups every few seconds, so publishers never wait on the database. Reads flush
+ * pending deltas first and then only touch the buckets in the requested range.
+ * Deleting or archiving a task does not change the buckets it was counted in.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    public static final char HOUR = 'H';
+    public static final char DAY = 'D';
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final String ALL_EMAILS = "";
+    private static final int MAX_BUCKETS = 2000;
+    private static final int MAX_EMAILS = 100;
+
+    private final TaskRollupRepository rollupRepository;
+    private final TaskEventBus eventBus;
+    private final long flushSeconds;
+    private final Map<Key, AnalyticsBucket> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    private Runnable unsubscribe;
+
+    @Autowired
+    public AnalyticsService(TaskRollupRepository rollupRepository,
+                            TaskEventBus eventBus,
+                            @Value("${taskreminder.analytics.flush-seconds:5}") long flushSeconds) {
+        this.rollupRepository = rollupRepository;
+        this.eventBus = eventBus;
+        this.flushSeconds = Math.max(1L, flushSeconds);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Seed from existing tasks once, before live events start adding to the buckets
+        if (rollupRepository.isEmpty()) {
+            for (char granularity : new char[]{HOUR, DAY}) {
+                rollupRepository.scanTasks(bucketMillis(granularity), (bucketStart, email, created, completed, onTime, millis) -> {
+                    add(new Key(granularity, bucketStart, ALL_EMAILS), created, completed, onTime, millis);
+                    if (email != null) {
+                        add(new Key(granularity, bucketStart, email), created, completed, onTime, millis);
+                    }
+                });
+            }
+            flush();
+        }
+        unsubscribe = eventBus.subscribe(this::onEvent);
+        flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+        logger.info("AnalyticsService initialized (flush every {} s)", flushSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+        }
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Buckets of the given granularity ("hour" or "day") in [from, to), for one email or for all,
+     * with totals over the range and optionally a per-email breakdown.
+     *
+     * @throws IllegalArgumentException for an unknown granularity or a range that is empty or too long
+     */
+    public Map<String, Object> getAnalytics(String granularityName, Long from, Long to, String email, boolean byEmail) {
+        char granularity = parseGranularity(granularityName);
+        long size = bucketMillis(granularity);
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 30 * size;
+        if (start >= end) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if ((end - start) / size > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range covers more than " + MAX_BUCKETS + " " + granularityName + " buckets");
+        }
+        // Align the start down to a bucket boundary so the first bucket is complete
+        start = Math.floorDiv(start, size) * size;
+
+        flush();
+        List<AnalyticsBucket> buckets = rollupRepository.findBuckets(granularity,
+            email != null ? email : ALL_EMAILS, start, end);
+        AnalyticsBucket totals = new AnalyticsBucket(start);
+        buckets.forEach(totals::add);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("granularity", granularity == HOUR ? "hour" : "day");
+        result.put("from", start);
+        result.put("to", end);
+        if (email != null) {
+            result.put("email", email);
+        }
+        result.put("totals", totals);
+        result.put("buckets", buckets);
+        if (byEmail) {
+            result.put("emails", rollupRepository.findEmailTotals(granularity, start, end, MAX_EMAILS));
+        }
+        return result;
+    }
+
+    /**
+     * Write pending deltas to the rollup table.
+     */
+    public synchronized void flush() {
+        List<TaskRollupRepository.Delta> deltas = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            AnalyticsBucket bucket = pending.remove(key);
+            if (bucket != null) {
+                deltas.add(new TaskRollupRepository.Delta(key.granularity, key.email, bucket));
+            }
+        }
+        try {
+            rollupRepository.merge(deltas);
+        } catch (RuntimeException e) {
+            // Put the deltas back so they are retried with the next flush
+            for (TaskRollupRepository.Delta delta : deltas) {
+                requeue(delta);
+            }
+            throw e;
+        }
+    }
+
+    private void onEvent(TaskEvent event) {
+        Task task = event.getTask();
+        if (task == null) {
+            return;
+        }
+        if (event.getType() == TaskEventType.CREATED) {
+            long createdAt = task.createdAt() != Task.ABSENT ? task.createdAt() : event.getTimestamp();
+            record(createdAt, task.getEmail(), 1L, 0L, 0L, 0L);
+            // Imported tasks can arrive already completed
+            if (task.isCompleted()) {
+                recordCompletion(task, event.getTimestamp());
+            }
+        } else if (event.getType() == TaskEventType.COMPLETED) {
+            recordCompletion(task, event.getTimestamp());
+        }
+    }
+
+    private void recordCompletion(Task task, long eventTimestamp) {
+        long completedAt = task.completedAt() != Task.ABSENT ? task.completedAt() : eventTimestamp;
+        long onTime = task.dueTimestamp() != Task.ABSENT && completedAt <= task.dueTimestamp() ? 1L : 0L;
+        long millis = task.createdAt() != Task.ABSENT ? Math.max(0L, completedAt - task.createdAt()) : 0L;
+        record(completedAt, task.getEmail(), 0L, 1L, onTime, millis);
+    }
+
+    private void record(long time, String email, long created, long completed, long onTime, long millis) {
+        for (char granularity : new char[]{HOUR, DAY}) {
+            long size = bucketMillis(granularity);
+            long bucketStart = Math.floorDiv(time, size) * size;
+            add(new Key(granularity, bucketStart, ALL_EMAILS), created, completed, onTime, millis);
+            if (email != null) {
+                add(new Key(granularity, bucketStart, email), created, completed, onTime, millis);
+            }
+        }
+    }
+
+    private void add(Key key, long created, long completed, long onTime, long millis) {
+        pending.compute(key, (k, bucket) -> {
+            AnalyticsBucket b = bucket != null ? bucket : new AnalyticsBucket(k.bucketStart);
+            b.add(created, completed, onTime, millis);
+            return b;
+        });
+    }
+
+    private void requeue(TaskRollupRepository.Delta delta) {
+        AnalyticsBucket bucket = delta.getBucket();
+        add(new Key(delta.getGranularity(), bucket.getBucketStart(), delta.getEmail()), bucket.getCreated(),
+            bucket.getCompleted(), bucket.getCompletedOnTime(), bucket.getTotalCompletionMillis());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Failed to flush analytics rollups", e);
+        }
+    }
+
+    private static char parseGranularity(String name) {
+        if (name == null || "day".equalsIgnoreCase(name)) {
+            return DAY;
+        }
+        if ("hour".equalsIgnoreCase(name)) {
+            return HOUR;
+        }
+        throw new IllegalArgumentException("granularity must be hour or day");
+    }
+
+    private static long bucketMillis(char granularity) {
+        return granularity == HOUR ? HOUR_MILLIS : DAY_MILLIS;
+    }
+
+    private static final class Key {
+        private final char granularity;
+        private final long bucketStart;
+        private final String email;
+
+        Key(char granularity, long bucketStart, String email) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.email = email;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return granularity == other.granularity && bucketStart == other.bucketStart && email.equals(other.email);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, email);
+        }
+    }
+}
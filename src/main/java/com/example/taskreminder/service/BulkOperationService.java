@@ -0,0 +1,136 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.model.BulkJob;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for bulk reminder scheduling and bulk completion.
+ * Each operation runs as a job on a worker thread; callers wait a short while for the result
+ * and otherwise poll the job for progress.
+ */
+@Service
+public class BulkOperationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOperationService.class);
+
+    private static final long FINISHED_JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final TaskService taskService;
+    private final ScheduleService scheduleService;
+    private final long syncWaitMillis;
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService workers;
+
+    @Autowired
+    public BulkOperationService(TaskService taskService,
+                                ScheduleService scheduleService,
+                                @Value("${taskreminder.bulk.sync-wait-millis:2000}") long syncWaitMillis) {
+        this.taskService = taskService;
+        this.scheduleService = scheduleService;
+        this.syncWaitMillis = syncWaitMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        workers = Executors.newFixedThreadPool(2);
+        logger.info("BulkOperationService initialized (sync wait: {} ms)", syncWaitMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedule reminders for every task matching the filter (PENDING tasks unless the filter sets a status).
+     */
+    public BulkJob scheduleReminders(TaskFilter filter, String timezone) {
+        TaskFilter effective = filter.getStatus() != null ? filter : filter.withStatus(TaskStatus.PENDING);
+        return run("schedule", job -> {
+            List<Task> tasks = taskService.findTasks(effective);
+            job.start("scheduling", tasks.size());
+            int scheduled = scheduleService.scheduleReminders(tasks, timezone, job::advance);
+            return Map.of("matched", tasks.size(), "scheduled", scheduled);
+        });
+    }
+
+    /**
+     * Complete every task matching the filter and cancel their reminders.
+     */
+    public BulkJob completeTasks(TaskFilter filter) {
+        return run("complete", job -> {
+            job.start("updating", -1);
+            List<Task> completed = taskService.completeTasks(filter);
+            List<Long> ids = completed.stream().map(Task::getId).collect(Collectors.toList());
+            job.start("cancelling reminders", ids.size());
+            int cancelled = scheduleService.cancelReminders(ids, job::advance);
+            return Map.of("completed", completed.size(), "remindersCancelled", cancelled);
+        });
+    }
+
+    public Optional<BulkJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Start a job and wait up to the configured sync wait for it. The returned job is
+     * still RUNNING when it did not finish in time.
+     */
+    private BulkJob run(String type, Function<BulkJob, Map<String, Object>> work) {
+        evictFinishedJobs();
+        BulkJob job = new BulkJob(UUID.randomUUID().toString(), type, System.currentTimeMillis());
+        jobs.put(job.getId(), job);
+
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                Map<String, Object> result = work.apply(job);
+                job.complete(result, System.currentTimeMillis());
+                logger.info("Bulk {} job {} completed: {}", type, job.getId(), result);
+            } catch (Exception e) {
+                logger.error("Bulk {} job {} failed", type, job.getId(), e);
+                job.fail(e.getMessage(), System.currentTimeMillis());
+            }
+        }, workers);
+
+        try {
+            future.get(syncWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.info("Bulk {} job {} still running, continuing in the background", type, job.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failures are recorded on the job itself
+        }
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - FINISHED_JOB_RETENTION_MILLIS;
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt() < cutoff);
+    }
+}
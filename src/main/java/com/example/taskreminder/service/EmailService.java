@@ -1,5 +1,7 @@
 package com.example.taskreminder.service;
 
+import com.example.taskreminder.jfr.EmailSendEvent;
+import com.example.taskreminder.template.RenderedEmail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,8 +9,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.util.Locale;
+
 /**
  * Service for sending email notifications.
  * Uses JavaMailSender when configured, otherwise provides mock implementation.
@@ -19,12 +26,15 @@ public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     private final JavaMailSender mailSender;
+    private final EmailTemplateService templateService;
     private final boolean mailConfigured;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender, 
+    public EmailService(JavaMailSender mailSender,
+                       EmailTemplateService templateService,
                        @Value("${spring.mail.host:}") String mailHost) {
         this.mailSender = mailSender;
+        this.templateService = templateService;
         // Check if mail is configured by checking if host is set
         this.mailConfigured = mailHost != null && !mailHost.isEmpty();
         if (!mailConfigured) {
@@ -33,84 +43,112 @@ public class EmailService {
     }
 
     /**
-     * Send reminder email for a task.
+     * Send reminder email for a task. Returns false if the mail server rejected it.
+     */
+    public boolean sendReminderEmail(String to, String taskTitle, String taskDescription, Long dueTimestamp) {
+        return sendReminderEmail(to, taskTitle, taskDescription, dueTimestamp, null, null);
+    }
+
+    /**
+     * Send reminder email for a task, formatting the due date in the task's timezone and locale.
+     * Returns false if the mail server rejected it.
      */
-    public void sendReminderEmail(String to, String taskTitle, String taskDescription, Long dueTimestamp) {
+    public boolean sendReminderEmail(String to, String taskTitle, String taskDescription, Long dueTimestamp,
+                                  String timezone, Locale locale) {
         String subject = "Task Reminder: " + taskTitle;
-        String body = String.format(
-            "This is a reminder for your task:\n\n" +
-            "Title: %s\n" +
-            "Description: %s\n" +
-            "Due Date: %s\n\n" +
-            "Please complete this task before the due date.",
-            taskTitle,
-            taskDescription != null ? taskDescription : "No description",
-            formatTimestamp(dueTimestamp)
-        );
+        String dueDate = templateService.formatTimestamp(dueTimestamp, timezone, locale);
+        RenderedEmail body = templateService.render("reminder", locale, name -> {
+            switch (name) {
+                case "title": return taskTitle;
+                case "description": return taskDescription != null ? taskDescription : "No description";
+                case "dueDate": return dueDate;
+                default: return null;
+            }
+        });
 
-        sendEmail(to, subject, body);
+        return sendEmail("reminder", to, subject, body);
     }
 
     /**
-     * Send completion notification email.
+     * Send completion notification email. Returns false if the mail server rejected it.
      */
-    public void sendCompletionEmail(String to, String taskTitle) {
+    public boolean sendCompletionEmail(String to, String taskTitle) {
+        return sendCompletionEmail(to, taskTitle, System.currentTimeMillis(), null, null);
+    }
+
+    /**
+     * Send completion notification email, formatting the completion time in the given timezone
+     * and locale. Returns false if the mail server rejected it.
+     */
+    public boolean sendCompletionEmail(String to, String taskTitle, Long completedAtTimestamp,
+                                       String timezone, Locale locale) {
         String subject = "Task Completed: " + taskTitle;
-        String body = String.format(
-            "Congratulations! You have completed the following task:\n\n" +
-            "Title: %s\n" +
-            "Completed at: %s",
-            taskTitle,
-            formatTimestamp(System.currentTimeMillis())
-        );
+        String completedAt = templateService.formatTimestamp(completedAtTimestamp, timezone, locale);
+        RenderedEmail body = templateService.render("completion", locale, name -> {
+            switch (name) {
+                case "title": return taskTitle;
+                case "completedAt": return completedAt;
+                default: return null;
+            }
+        });
 
-        sendEmail(to, subject, body);
+        return sendEmail("completion", to, subject, body);
     }
 
     /**
-     * Send email using JavaMailSender or mock.
+     * Send email using JavaMailSender or mock. Each send is recorded as a Flight Recorder event
+     * tagged with the template kind. Returns false only when a configured mail server failed,
+     * so callers that retry (the outbox relay) can tell delivery failures apart.
      */
-    private void sendEmail(String to, String subject, String body) {
+    private boolean sendEmail(String kind, String to, String subject, RenderedEmail email) {
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
         if (to == null || to.isEmpty()) {
             logger.warn("No email address provided, skipping email send");
-            return;
+            event.finish(kind, to, email.hasHtml(), EmailSendEvent.SKIPPED);
+            return true;
         }
 
+        String outcome = EmailSendEvent.FAILED;
         try {
             if (mailConfigured) {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(to);
-                message.setSubject(subject);
-                message.setText(body);
-                mailSender.send(message);
+                if (email.hasHtml()) {
+                    MimeMessage message = mailSender.createMimeMessage();
+                    MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                    helper.setTo(to);
+                    helper.setSubject(subject);
+                    helper.setText(email.getText(), email.getHtml());
+                    mailSender.send(message);
+                } else {
+                    SimpleMailMessage message = new SimpleMailMessage();
+                    message.setTo(to);
+                    message.setSubject(subject);
+                    message.setText(email.getText());
+                    mailSender.send(message);
+                }
                 logger.info("Email sent successfully to: {}", to);
+                outcome = EmailSendEvent.SENT;
             } else {
                 // Mock email sender for local testing
                 logger.info("=== MOCK EMAIL (Mail not configured) ===");
                 logger.info("To: {}", to);
                 logger.info("Subject: {}", subject);
-                logger.info("Body:\n{}", body);
+                logger.info("Body:\n{}", email.getText());
                 logger.info("========================================");
+                outcome = EmailSendEvent.MOCK;
             }
-        } catch (MailException e) {
+            return true;
+        } catch (MailException | MessagingException e) {
             logger.error("Failed to send email to: {}", to, e);
             // Fallback to mock if real mail fails
             logger.info("=== MOCK EMAIL (Fallback) ===");
             logger.info("To: {}", to);
             logger.info("Subject: {}", subject);
-            logger.info("Body:\n{}", body);
+            logger.info("Body:\n{}", email.getText());
             logger.info("========================================");
+            return false;
+        } finally {
+            event.finish(kind, to, email.hasHtml(), outcome);
         }
     }
-
-    /**
-     * Format timestamp to readable string.
-     */
-    private String formatTimestamp(Long timestamp) {
-        if (timestamp == null) {
-            return "Not set";
-        }
-        return new java.util.Date(timestamp).toString();
-    }
 }
-
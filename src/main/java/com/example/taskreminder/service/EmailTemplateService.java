@@ -0,0 +1,149 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.template.EmailTemplate;
+import com.example.taskreminder.template.RenderedEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Service that compiles email templates once at startup and renders them per send.
+ * Templates live in classpath:mail-templates as name[_locale].txt and name[_locale].html.
+ */
+@Service
+public class EmailTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateService.class);
+
+    private static final String TEMPLATE_LOCATION = "classpath*:mail-templates/*.*";
+    private static final int MAX_POOLED_CAPACITY = 16 * 1024;
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+    private final Map<String, DateTimeFormatter> formatters = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String datePattern;
+    private final Locale defaultLocale;
+
+    public EmailTemplateService(@Value("${taskreminder.mail.date-pattern:EEE, d MMM yyyy HH:mm z}") String datePattern,
+                                @Value("${taskreminder.mail.default-locale:en}") String defaultLocale) {
+        this.datePattern = datePattern;
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            boolean html = filename.endsWith(".html");
+            if (!html && !filename.endsWith(".txt")) {
+                continue;
+            }
+            String key = filename.substring(0, filename.lastIndexOf('.'));
+            String source;
+            try (InputStream in = resource.getInputStream()) {
+                source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            }
+            templates.put(templateKey(key, html), EmailTemplate.compile(filename, source, html));
+        }
+        logger.info("Compiled {} email templates", templates.size());
+    }
+
+    /**
+     * Render the text and (if present) HTML variant of a template.
+     */
+    public RenderedEmail render(String name, Locale locale, Function<String, String> values) {
+        Locale effective = locale != null ? locale : defaultLocale;
+        String key = resolveKey(name, effective);
+        if (key == null) {
+            throw new IllegalArgumentException("No text template found for: " + name);
+        }
+        // HTML is only used when it exists for the same locale as the text part
+        EmailTemplate text = templates.get(templateKey(key, false));
+        EmailTemplate html = templates.get(templateKey(key, true));
+        return new RenderedEmail(renderOne(text, values), html != null ? renderOne(html, values) : null);
+    }
+
+    /**
+     * Format epoch millis in the given zone using a cached formatter.
+     */
+    public String formatTimestamp(Long timestamp, String timezone, Locale locale) {
+        if (timestamp == null) {
+            return "Not set";
+        }
+        ZoneId zone = resolveZone(timezone);
+        Locale effective = locale != null ? locale : defaultLocale;
+        DateTimeFormatter formatter = formatters.computeIfAbsent(zone.getId() + '|' + effective.toLanguageTag(),
+            k -> DateTimeFormatter.ofPattern(datePattern, effective).withZone(zone));
+        return formatter.format(Instant.ofEpochMilli(timestamp));
+    }
+
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    private String renderOne(EmailTemplate template, Function<String, String> values) {
+        StringBuilder sb = buffers.get();
+        sb.setLength(0);
+        template.renderTo(sb, values);
+        String result = sb.toString();
+        if (sb.capacity() > MAX_POOLED_CAPACITY) {
+            // Do not let one huge email pin a large buffer to the thread
+            buffers.remove();
+        }
+        return result;
+    }
+
+    private String resolveKey(String name, Locale locale) {
+        if (!locale.getCountry().isEmpty()) {
+            String key = name + "_" + locale.getLanguage() + "_" + locale.getCountry();
+            if (templates.containsKey(templateKey(key, false))) {
+                return key;
+            }
+        }
+        if (!locale.getLanguage().isEmpty()) {
+            String key = name + "_" + locale.getLanguage();
+            if (templates.containsKey(templateKey(key, false))) {
+                return key;
+            }
+        }
+        return templates.containsKey(templateKey(name, false)) ? name : null;
+    }
+
+    private ZoneId resolveZone(String timezone) {
+        if (timezone == null || timezone.isEmpty()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (Exception e) {
+            logger.warn("Unknown timezone {}, using system default", timezone);
+            return ZoneId.systemDefault();
+        }
+    }
+
+    private static String templateKey(String name, boolean html) {
+        return html ? name + ".html" : name + ".txt";
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.event.TaskEvent;
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.event.TaskEventType;
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.notification.EmailNotificationChannel;
+import com.example.taskreminder.notification.NotificationChannel;
+import com.example.taskreminder.notification.NotificationChannels;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relay that drains the notification outbox in batches, on one background thread. Each batch is
+ * split by channel and handed to the {@link NotificationChannel}s together, so slow channels
+ * overlap. Messages are marked sent only after their channel delivered them, so a crash in
+ * between sends them again (at least once). Failed sends are retried with exponential backoff.
+ * Polls on a fixed delay and is also woken by completion and reminder events, which are
+ * published after the outbox rows have committed. With a sharded task store, each shard's outbox
+ * is drained in turn (the task repository names the outboxes it writes to).
+ *
+ * <p>Emails are sent under the {@link ReminderSendShaper}'s global and per-domain ceilings. On-time
+ * reminders already took their permit when the shaper released them; completions and retries
+ * take one here, so a backlog left by a mail outage drains at the shaped rate instead of at once.
+ */
+@Service
+public class NotificationRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRelay.class);
+
+    private static final int CLEANUP_CHUNK_SIZE = 1000;
+
+    private final List<NotificationOutboxRepository> outboxRepositories;
+    private final NotificationChannels channels;
+    private final ReminderSendShaper sendShaper;
+    private final TaskEventBus eventBus;
+    private final Clock clock;
+    private final long pollMillis;
+    private final int batchSize;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+    private final long retentionMillis;
+    private final long deliveryTimeoutMillis;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter throttledCounter;
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+    private Runnable unsubscribe;
+
+    @Autowired
+    public NotificationRelay(TaskRepository taskRepository,
+                             NotificationChannels channels,
+                             ReminderSendShaper sendShaper,
+                             TaskEventBus eventBus,
+                             MeterRegistry meterRegistry,
+                             Clock clock,
+                             @Value("${taskreminder.outbox.poll-millis:500}") long pollMillis,
+                             @Value("${taskreminder.outbox.batch-size:100}") int batchSize,
+                             @Value("${taskreminder.outbox.retry-base-seconds:5}") long retryBaseSeconds,
+                             @Value("${taskreminder.outbox.retry-max-seconds:3600}") long retryMaxSeconds,
+                             @Value("${taskreminder.outbox.retention-hours:168}") long retentionHours,
+                             @Value("${taskreminder.outbox.delivery-timeout-seconds:30}") long deliveryTimeoutSeconds) {
+        this.outboxRepositories = taskRepository.getOutboxRepositories();
+        this.channels = channels;
+        this.sendShaper = sendShaper;
+        this.eventBus = eventBus;
+        this.clock = clock;
+        this.pollMillis = Math.max(10L, pollMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.retryBaseMillis = TimeUnit.SECONDS.toMillis(Math.max(1L, retryBaseSeconds));
+        this.retryMaxMillis = Math.max(retryBaseMillis, TimeUnit.SECONDS.toMillis(retryMaxSeconds));
+        this.retentionMillis = TimeUnit.HOURS.toMillis(Math.max(1L, retentionHours));
+        this.deliveryTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1L, deliveryTimeoutSeconds));
+        this.deliveredCounter = Counter.builder("taskreminder.outbox.delivered")
+            .description("Outbox notifications delivered by their channel")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("taskreminder.outbox.failures")
+            .description("Outbox delivery attempts that failed and were rescheduled")
+            .register(meterRegistry);
+        this.throttledCounter = Counter.builder("taskreminder.outbox.throttled")
+            .description("Outbox emails that waited for a send permit")
+            .register(meterRegistry);
+        Gauge.builder("taskreminder.outbox.pending", this,
+                relay -> relay.outboxRepositories.stream().mapToLong(NotificationOutboxRepository::countPending).sum())
+            .description("Outbox notifications not yet delivered")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runScheduled, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::cleanUp, 1, 1, TimeUnit.HOURS);
+        unsubscribe = eventBus.subscribe(this::onEvent);
+        logger.info("NotificationRelay initialized (poll every {} ms, batches of {})", pollMillis, batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Deliver every message that is due, batch by batch. Returns the number delivered.
+     */
+    public synchronized int drain() {
+        int delivered = 0;
+        for (NotificationOutboxRepository outboxRepository : outboxRepositories) {
+            delivered += drain(outboxRepository);
+        }
+        if (delivered > 0) {
+            logger.debug("Relayed {} outbox notifications", delivered);
+        }
+        return delivered;
+    }
+
+    private int drain(NotificationOutboxRepository outboxRepository) {
+        int delivered = 0;
+        while (true) {
+            List<OutboxMessage> batch = outboxRepository.findDue(clock.millis(), batchSize);
+            Map<String, List<OutboxMessage>> byChannel = new LinkedHashMap<>();
+            for (OutboxMessage message : batch) {
+                byChannel.computeIfAbsent(message.getChannel(), name -> new ArrayList<>()).add(message);
+            }
+
+            // Start every other channel's deliveries before pacing out the emails
+            Map<String, CompletableFuture<Set<Long>>> pending = new LinkedHashMap<>();
+            for (Map.Entry<String, List<OutboxMessage>> entry : byChannel.entrySet()) {
+                if (!EmailNotificationChannel.NAME.equals(entry.getKey())) {
+                    pending.put(entry.getKey(), deliver(entry.getKey(), entry.getValue()));
+                }
+            }
+            List<OutboxMessage> emails = byChannel.get(EmailNotificationChannel.NAME);
+            if (emails != null) {
+                pending.put(EmailNotificationChannel.NAME, deliverPaced(emails));
+            }
+
+            List<Long> sent = new ArrayList<>(batch.size());
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deliveryTimeoutMillis);
+            for (Map.Entry<String, List<OutboxMessage>> entry : byChannel.entrySet()) {
+                Set<Long> ids = await(entry.getKey(), pending.get(entry.getKey()), deadline);
+                for (OutboxMessage message : entry.getValue()) {
+                    if (ids.contains(message.getId())) {
+                        sent.add(message.getId());
+                    } else {
+                        long delay = backoff(message.getAttempts());
+                        outboxRepository.markFailed(message.getId(), clock.millis() + delay,
+                            "Delivery through " + entry.getKey() + " failed");
+                        failedCounter.increment();
+                        logger.warn("Delivery of {} failed (attempt {}), retrying in {} ms",
+                            message.getDedupKey(), message.getAttempts() + 1, delay);
+                    }
+                }
+            }
+            outboxRepository.markSent(sent, clock.millis());
+            delivered += sent.size();
+            deliveredCounter.increment(sent.size());
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    private CompletableFuture<Set<Long>> deliver(String channelName, List<OutboxMessage> messages) {
+        NotificationChannel channel = channels.get(channelName);
+        if (channel == null) {
+            logger.error("No notification channel named {} for {} outbox messages", channelName, messages.size());
+            return CompletableFuture.completedFuture(Collections.emptySet());
+        }
+        try {
+            return channel.deliver(messages);
+        } catch (RuntimeException e) {
+            logger.error("Error delivering through {}", channelName, e);
+            return CompletableFuture.completedFuture(Collections.emptySet());
+        }
+    }
+
+    /**
+     * Send emails one at a time, each after taking a send permit unless it is a reminder's first
+     * attempt (the shaper released it). Stops when interrupted; the rest are retried.
+     */
+    private CompletableFuture<Set<Long>> deliverPaced(List<OutboxMessage> messages) {
+        String channelName = EmailNotificationChannel.NAME;
+        Set<Long> delivered = new HashSet<>();
+        for (OutboxMessage message : messages) {
+            boolean released = message.getKind() == OutboxMessage.Kind.REMINDER && message.getAttempts() == 0;
+            if (!released && !awaitPermit(message.getTarget())) {
+                break;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deliveryTimeoutMillis);
+            delivered.addAll(await(channelName, deliver(channelName, List.of(message)), deadline));
+        }
+        return CompletableFuture.completedFuture(delivered);
+    }
+
+    private boolean awaitPermit(String email) {
+        long waitMillis = sendShaper.tryAcquire(email);
+        if (waitMillis > 0) {
+            throttledCounter.increment();
+        }
+        while (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            waitMillis = sendShaper.tryAcquire(email);
+        }
+        return true;
+    }
+
+    private Set<Long> await(String channelName, CompletableFuture<Set<Long>> delivery, long deadline) {
+        try {
+            return delivery.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Messages still in flight are retried; receivers see them at least once
+            logger.warn("Delivery through {} did not finish within {} ms", channelName, deliveryTimeoutMillis);
+        } catch (ExecutionException e) {
+            logger.error("Error delivering through {}", channelName, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Collections.emptySet();
+    }
+
+    private long backoff(int attempts) {
+        long delay = retryBaseMillis << Math.min(attempts, 20);
+        return delay > 0 ? Math.min(delay, retryMaxMillis) : retryMaxMillis;
+    }
+
+    private void onEvent(TaskEvent event) {
+        if (event.getType() != TaskEventType.COMPLETED && event.getType() != TaskEventType.REMINDER_FIRED) {
+            return;
+        }
+        // Coalesce bursts (e.g. bulk completion) into one extra drain
+        if (executor != null && drainQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    drainQueued.set(false);
+                    runScheduled();
+                });
+            } catch (RejectedExecutionException e) {
+                drainQueued.set(false);
+            }
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            drain();
+        } catch (Exception e) {
+            // Keep the schedule alive; undelivered messages stay in the outbox for the next run
+            logger.error("Outbox relay failed", e);
+        }
+    }
+
+    private void cleanUp() {
+        try {
+            long cutoff = clock.millis() - retentionMillis;
+            for (NotificationOutboxRepository outboxRepository : outboxRepositories) {
+                int deleted;
+                do {
+                    deleted = outboxRepository.deleteSentBefore(cutoff, CLEANUP_CHUNK_SIZE);
+                } while (deleted == CLEANUP_CHUNK_SIZE);
+            }
+        } catch (Exception e) {
+            logger.error("Outbox cleanup failed", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.ratelimit.EndpointClass;
+import com.example.taskreminder.ratelimit.RateLimitDecision;
+import com.example.taskreminder.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for per-client admission control on the REST layer.
+ * Each (client, endpoint class) pair gets its own token bucket; expensive endpoint
+ * classes additionally share a global concurrency limit. Idle buckets are evicted every
+ * minute, and once {@code max-buckets} are held, clients without a bucket share one overflow
+ * bucket per endpoint class, so the map stays bounded however many clients appear.
+ */
+@Service
+public class RateLimitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
+
+    private static final String PREFIX = "taskreminder.ratelimit.";
+    private static final String OVERFLOW_CLIENT = "overflow";
+
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final Map<EndpointClass, Double> permitsPerSecond = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Integer> burst = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Semaphore> concurrencyLimits = new EnumMap<>(EndpointClass.class);
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> decisionCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService cleaner;
+
+    @Autowired
+    public RateLimitService(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        this.maxBuckets = Math.max(1, environment.getProperty(PREFIX + "max-buckets", Integer.class, 100_000));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String key = PREFIX + endpointClass.getKey();
+            permitsPerSecond.put(endpointClass, environment.getProperty(key + ".permits-per-second",
+                Double.class, endpointClass.getDefaultPermitsPerSecond()));
+            burst.put(endpointClass, environment.getProperty(key + ".burst",
+                Integer.class, endpointClass.getDefaultBurst()));
+            Integer maxConcurrent = environment.getProperty(key + ".max-concurrent", Integer.class);
+            if (maxConcurrent != null && maxConcurrent > 0) {
+                concurrencyLimits.put(endpointClass, new Semaphore(maxConcurrent));
+            }
+        }
+        meterRegistry.gaugeMapSize("taskreminder.ratelimit.buckets", Tags.empty(), buckets);
+    }
+
+    @PostConstruct
+    public void init() {
+        cleaner = Executors.newSingleThreadScheduledExecutor();
+        cleaner.scheduleAtFixedRate(this::evictIdleBuckets, 1, 1, TimeUnit.MINUTES);
+        logger.info("RateLimitService initialized (enabled: {})", enabled);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+    }
+
+    /**
+     * Admit or reject a request. An allowed request for a concurrency-limited
+     * endpoint class must be paired with a call to {@link #release(EndpointClass)}.
+     */
+    public RateLimitDecision tryAcquire(String clientKey, EndpointClass endpointClass) {
+        if (!enabled) {
+            return RateLimitDecision.allowed();
+        }
+
+        long now = System.nanoTime();
+        String key = clientKey + '|' + endpointClass.getKey();
+        if (buckets.size() >= maxBuckets && !buckets.containsKey(key)) {
+            key = OVERFLOW_CLIENT + '|' + endpointClass.getKey();
+        }
+        TokenBucket bucket = buckets.computeIfAbsent(key,
+            k -> new TokenBucket(permitsPerSecond.get(endpointClass), burst.get(endpointClass), now));
+        if (!bucket.tryAcquire(now)) {
+            long retryAfter = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable(now) + 999_999_999L));
+            return record(endpointClass, RateLimitDecision.rejected(RateLimitDecision.Outcome.RATE_LIMITED, retryAfter));
+        }
+
+        Semaphore semaphore = concurrencyLimits.get(endpointClass);
+        if (semaphore != null && !semaphore.tryAcquire()) {
+            return record(endpointClass, RateLimitDecision.rejected(RateLimitDecision.Outcome.CONCURRENCY_LIMITED, 1));
+        }
+        return record(endpointClass, RateLimitDecision.allowed());
+    }
+
+    /**
+     * Release a concurrency slot taken by an allowed request.
+     */
+    public void release(EndpointClass endpointClass) {
+        if (!enabled) {
+            return;
+        }
+        Semaphore semaphore = concurrencyLimits.get(endpointClass);
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
+    private RateLimitDecision record(EndpointClass endpointClass, RateLimitDecision decision) {
+        String key = endpointClass.getKey() + '|' + decision.getOutcome();
+        decisionCounters.computeIfAbsent(key, k -> Counter.builder("taskreminder.ratelimit.decisions")
+                .description("Admission decisions made by the REST rate limiter")
+                .tag("endpointClass", endpointClass.getKey())
+                .tag("outcome", decision.getOutcome().name().toLowerCase())
+                .register(meterRegistry))
+            .increment();
+        return decision;
+    }
+
+    private void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+}
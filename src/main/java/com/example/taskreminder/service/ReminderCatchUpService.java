@@ -0,0 +1,206 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.ratelimit.TokenBucket;
+import com.example.taskreminder.scheduling.Clocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that delivers reminders whose due time has already passed, e.g. after downtime.
+ * Missed reminders go through their own lane, oldest first, on a dedicated thread so a large
+ * backlog never holds up the scheduler. Each send takes a permit from the
+ * {@link ReminderSendShaper}'s global and per-domain buckets, so catch-up and on-time reminders
+ * together stay under the shaper's ceilings. {@code max-sends-per-second} caps the lane's share of
+ * the global rate, leaving the rest to on-time reminders.
+ */
+@Service
+public class ReminderCatchUpService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderCatchUpService.class);
+
+    private final boolean enabled;
+    private final double maxSendsPerSecond;
+    private final long lookbackMillis;
+
+    // Keyed by send callback: ScheduleService owns per-task deduplication
+    private final Map<Runnable, Entry> pending = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Entry> queue = new PriorityBlockingQueue<>(64,
+        Comparator.comparingLong((Entry e) -> e.dueTimestamp).thenComparingLong(e -> e.taskId));
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicLong backlogStartNanos = new AtomicLong();
+    private final TokenBucket sendBucket;
+    private final ReminderSendShaper sendShaper;
+    private final ScheduledExecutorService lane;
+    private final Clock clock;
+
+    private final Counter sentCounter;
+    private final Timer drainTimer;
+
+    @Autowired
+    public ReminderCatchUpService(MeterRegistry meterRegistry,
+                                  @Qualifier("catchUpExecutor") ScheduledExecutorService lane,
+                                  ReminderSendShaper sendShaper,
+                                  Clock clock,
+                                  @Value("${taskreminder.catchup.enabled:true}") boolean enabled,
+                                  @Value("${taskreminder.catchup.max-sends-per-second:10}") double maxSendsPerSecond,
+                                  @Value("${taskreminder.catchup.lookback-minutes:1440}") long lookbackMinutes) {
+        this.lane = lane;
+        this.sendShaper = sendShaper;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxSendsPerSecond = maxSendsPerSecond;
+        this.lookbackMillis = TimeUnit.MINUTES.toMillis(lookbackMinutes);
+        this.sendBucket = new TokenBucket(maxSendsPerSecond, 1, Clocks.epochNanos(clock));
+
+        Gauge.builder("taskreminder.catchup.backlog", pending, Map::size)
+            .description("Missed reminders waiting in the catch-up lane")
+            .register(meterRegistry);
+        Gauge.builder("taskreminder.catchup.estimated.drain.seconds", this, s -> s.pending.size() / s.maxSendsPerSecond)
+            .description("Estimated time to drain the catch-up backlog at the configured rate")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("taskreminder.catchup.sent")
+            .description("Missed reminders delivered by the catch-up lane")
+            .register(meterRegistry);
+        this.drainTimer = Timer.builder("taskreminder.catchup.drain")
+            .description("Time from a catch-up backlog forming until it is fully drained")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        logger.info("ReminderCatchUpService initialized (enabled: {}, max {} sends/sec, lookback {} ms)",
+            enabled, maxSendsPerSecond, lookbackMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getLookbackMillis() {
+        return lookbackMillis;
+    }
+
+    /**
+     * Queue a reminder whose due time has passed. The send callback runs on the catch-up lane.
+     * Returns false when the lane is disabled or the reminder is outside the lookback window.
+     */
+    public boolean submit(Long taskId, long dueTimestamp, String email, Runnable send) {
+        if (!enabled) {
+            return false;
+        }
+        if (dueTimestamp < clock.millis() - lookbackMillis) {
+            logger.warn("Task {} is overdue beyond the catch-up window, not sending reminder", taskId);
+            return false;
+        }
+        Entry entry = new Entry(taskId, dueTimestamp, email, send);
+        Entry previous = pending.put(send, entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        backlogStartNanos.compareAndSet(0L, Clocks.epochNanos(clock));
+        queue.add(entry);
+        scheduleDrain(0L);
+        return true;
+    }
+
+    /**
+     * Drop a queued catch-up reminder, e.g. when the task is completed. Only the entry
+     * submitted with this send callback is removed.
+     */
+    public void cancel(Runnable send) {
+        Entry entry = pending.remove(send);
+        if (entry != null) {
+            queue.remove(entry);
+            logger.info("Cancelled catch-up reminder for task ID: {}", entry.taskId);
+        }
+    }
+
+    public int getBacklogSize() {
+        return pending.size();
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            lane.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        Entry entry;
+        while ((entry = queue.peek()) != null) {
+            if (pending.get(entry.send) != entry) {
+                // Cancelled or replaced while queued
+                queue.remove(entry);
+                continue;
+            }
+            long now = Clocks.epochNanos(clock);
+            long laneWait = sendBucket.nanosUntilAvailable(now);
+            if (laneWait > 0) {
+                scheduleDrain(laneWait);
+                return;
+            }
+            long shaperWait = sendShaper.tryAcquire(entry.email);
+            if (shaperWait > 0) {
+                scheduleDrain(TimeUnit.MILLISECONDS.toNanos(shaperWait));
+                return;
+            }
+            // Only this thread takes lane permits, so the one just checked is still there
+            sendBucket.tryAcquire(now);
+            queue.remove(entry);
+            if (!pending.remove(entry.send, entry)) {
+                continue;
+            }
+            try {
+                logger.info("Catch-up reminder for task ID: {} ({} ms late)",
+                    entry.taskId, clock.millis() - entry.dueTimestamp);
+                entry.send.run();
+                sentCounter.increment();
+            } catch (Exception e) {
+                logger.error("Error sending catch-up reminder for task ID: {}", entry.taskId, e);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            long started = backlogStartNanos.getAndSet(0L);
+            if (started != 0L) {
+                long elapsed = Clocks.epochNanos(clock) - started;
+                drainTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                logger.info("Catch-up backlog drained in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Long taskId;
+        private final long dueTimestamp;
+        private final String email;
+        private final Runnable send;
+
+        Entry(Long taskId, long dueTimestamp, String email, Runnable send) {
+            this.taskId = taskId;
+            this.dueTimestamp = dueTimestamp;
+            this.email = email;
+            this.send = send;
+        }
+    }
+}
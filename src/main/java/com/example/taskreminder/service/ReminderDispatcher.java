@@ -0,0 +1,47 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.event.TaskEventType;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.notification.NotificationChannels;
+import com.example.taskreminder.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+
+/**
+ * Service that delivers a due reminder: records that it was sent and enqueues a notification
+ * for each of the task's channels in the notification outbox in one transaction, then publishes
+ * the reminder-fired event. The outbox relay does the sending, so SMTP and webhook latency never
+ * holds up the scheduler threads.
+ * Shared by the on-time and catch-up paths.
+ */
+@Service
+public class ReminderDispatcher {
+
+    private final TaskRepository taskRepository;
+    private final TaskEventBus eventBus;
+    private final NotificationChannels notificationChannels;
+    private final Clock clock;
+
+    @Autowired
+    public ReminderDispatcher(TaskRepository taskRepository, TaskEventBus eventBus,
+                              NotificationChannels notificationChannels, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.eventBus = eventBus;
+        this.notificationChannels = notificationChannels;
+        this.clock = clock;
+    }
+
+    /**
+     * Deliver the task's reminder scheduled for {@code remindAt}. If this throws, nothing was
+     * recorded and catch-up delivers the reminder after a restart.
+     */
+    public void dispatch(Task task, String timezone, long remindAt) {
+        long now = clock.millis();
+        taskRepository.markReminderSent(task.getId(), remindAt,
+            notificationChannels.reminderNotifications(task, timezone, remindAt, now));
+        eventBus.publish(TaskEventType.REMINDER_FIRED, task);
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.ratelimit.TokenBucket;
+import com.example.taskreminder.scheduling.Clocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service that shapes on-time reminder sends between the scheduler and the email relay.
+ *
+ * Reminders are handed over up to {@code max-lead-seconds} before they are due and released
+ * closest-due first under a global and a per-recipient-domain sends/sec ceiling. A reminder is
+ * only sent early when the queue ahead of it could not otherwise be drained by its due time,
+ * so top-of-the-hour spikes are spread over the preceding lead window instead of hitting the
+ * relay in the same millisecond. Sends that bypass the queue (missed reminders in the catch-up
+ * lane, completions and retries in the outbox relay) take permits from the same buckets through
+ * {@link #tryAcquire}.
+ */
+@Service
+public class ReminderSendShaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderSendShaper.class);
+
+    // Bounds the work done per drain pass when skipping over domain-throttled entries
+    private static final int MAX_DEFERRED_PER_PASS = 64;
+    private static final long MAX_WAIT_MILLIS = 1000L;
+
+    private final boolean enabled;
+    private final double globalSendsPerSecond;
+    private final double perDomainSendsPerSecond;
+    private final long maxLeadMillis;
+
+    // Keyed by send callback: ScheduleService owns per-task deduplication
+    private final Map<Runnable, Entry> pending = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Entry> queue = new PriorityBlockingQueue<>(64,
+        Comparator.comparingLong((Entry e) -> e.dueTimestamp).thenComparingLong(e -> e.taskId));
+    private final Map<String, TokenBucket> domainBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket globalBucket;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService shaper;
+    private final Executor senders;
+    private final Clock clock;
+
+    private final Counter earlySends;
+    private final Counter domainDeferrals;
+    private final DistributionSummary sendOffset;
+
+    @Autowired
+    public ReminderSendShaper(MeterRegistry meterRegistry,
+                              @Qualifier("sendShaperExecutor") ScheduledExecutorService shaper,
+                              @Qualifier("reminderSendExecutor") Executor senders,
+                              Clock clock,
+                              @Value("${taskreminder.shaping.enabled:true}") boolean enabled,
+                              @Value("${taskreminder.shaping.global-sends-per-second:20}") double globalSendsPerSecond,
+                              @Value("${taskreminder.shaping.per-domain-sends-per-second:5}") double perDomainSendsPerSecond,
+                              @Value("${taskreminder.shaping.max-lead-seconds:60}") long maxLeadSeconds) {
+        this.shaper = shaper;
+        this.senders = senders;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.globalSendsPerSecond = globalSendsPerSecond;
+        this.perDomainSendsPerSecond = perDomainSendsPerSecond;
+        this.maxLeadMillis = TimeUnit.SECONDS.toMillis(maxLeadSeconds);
+        this.globalBucket = new TokenBucket(globalSendsPerSecond, 1, Clocks.epochNanos(clock));
+
+        Gauge.builder("taskreminder.shaping.queue", pending, Map::size)
+            .description("Reminders waiting in the send shaper")
+            .register(meterRegistry);
+        this.earlySends = Counter.builder("taskreminder.shaping.early.sends")
+            .description("Reminders released before their due time to flatten a spike")
+            .register(meterRegistry);
+        this.domainDeferrals = Counter.builder("taskreminder.shaping.domain.deferrals")
+            .description("Times a reminder was held back by its recipient domain's send ceiling")
+            .register(meterRegistry);
+        this.sendOffset = DistributionSummary.builder("taskreminder.shaping.send.offset")
+            .description("Milliseconds between a reminder's due time and its release (negative = early)")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        logger.info("ReminderSendShaper initialized (enabled: {}, global {} sends/sec, per-domain {} sends/sec, max lead {} ms)",
+            enabled, globalSendsPerSecond, perDomainSendsPerSecond, maxLeadMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * How long before its due time a reminder should be handed to {@link #submit}.
+     */
+    public long getMaxLeadMillis() {
+        return enabled ? maxLeadMillis : 0L;
+    }
+
+    /**
+     * Queue a reminder for shaped release. The send callback runs on a sender thread.
+     */
+    public void submit(Long taskId, long dueTimestamp, String email, Runnable send) {
+        Entry entry = new Entry(taskId, dueTimestamp, domainOf(email), send);
+        Entry previous = pending.put(send, entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(entry);
+        scheduleDrain(0L);
+    }
+
+    /**
+     * Take a send permit for an email that does not go through the shaper's queue, such as a
+     * missed reminder or a retried email, from the same global and per-domain buckets. Returns zero when the permit was taken, otherwise the milliseconds until one may
+     * be available; nothing is taken then. Always zero when shaping is disabled.
+     */
+    public long tryAcquire(String email) {
+        if (!enabled) {
+            return 0L;
+        }
+        long nowNanos = Clocks.epochNanos(clock);
+        TokenBucket domainBucket = domainBuckets.computeIfAbsent(domainOf(email),
+            d -> new TokenBucket(perDomainSendsPerSecond, 1, nowNanos));
+        long waitNanos = domainBucket.nanosUntilAvailable(nowNanos);
+        if (waitNanos <= 0) {
+            if (globalBucket.tryAcquire(nowNanos)) {
+                domainBucket.tryAcquire(nowNanos);
+                return 0L;
+            }
+            waitNanos = globalBucket.nanosUntilAvailable(nowNanos);
+        }
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * Drop a queued reminder, e.g. when the task is completed or rescheduled. Only the entry
+     * submitted with this send callback is removed.
+     */
+    public void cancel(Runnable send) {
+        Entry entry = pending.remove(send);
+        if (entry != null) {
+            queue.remove(entry);
+        }
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            shaper.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<Entry> deferred = new ArrayList<>();
+        long waitMillis = -1L;
+        try {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                if (pending.get(entry.send) != entry) {
+                    // Cancelled or replaced while queued
+                    continue;
+                }
+                long nowNanos = Clocks.epochNanos(clock);
+                long nowMillis = TimeUnit.NANOSECONDS.toMillis(nowNanos);
+                long slack = slackMillis(entry, nowMillis);
+                if (slack > 0) {
+                    // Head is not due and the queue can still be drained in time: wait
+                    queue.add(entry);
+                    waitMillis = Math.min(slack, MAX_WAIT_MILLIS);
+                    break;
+                }
+
+                TokenBucket domainBucket = domainBuckets.computeIfAbsent(entry.domain,
+                    d -> new TokenBucket(perDomainSendsPerSecond, 1, nowNanos));
+                if (domainBucket.nanosUntilAvailable(nowNanos) > 0) {
+                    // Let entries for other domains go first. Another sender may take a domain permit between
+                    // the check and the take below; the send then goes regardless, one over the ceiling
+                    domainDeferrals.increment();
+                    deferred.add(entry);
+                    if (deferred.size() >= MAX_DEFERRED_PER_PASS) {
+                        break;
+                    }
+                    continue;
+                }
+                if (!globalBucket.tryAcquire(nowNanos)) {
+                    queue.add(entry);
+                    waitMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(globalBucket.nanosUntilAvailable(nowNanos)));
+                    break;
+                }
+                domainBucket.tryAcquire(nowNanos);
+
+                if (!pending.remove(entry.send, entry)) {
+                    continue;
+                }
+                long offset = nowMillis - entry.dueTimestamp;
+                sendOffset.record(offset);
+                if (offset < 0) {
+                    earlySends.increment();
+                }
+                senders.execute(entry.send);
+            }
+        } catch (Exception e) {
+            logger.error("Error draining reminder send shaper", e);
+            waitMillis = MAX_WAIT_MILLIS;
+        } finally {
+            if (!deferred.isEmpty()) {
+                long nowNanos = Clocks.epochNanos(clock);
+                long domainWait = Long.MAX_VALUE;
+                for (Entry entry : deferred) {
+                    domainWait = Math.min(domainWait, domainBuckets.get(entry.domain).nanosUntilAvailable(nowNanos));
+                }
+                queue.addAll(deferred);
+                long domainWaitMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(domainWait));
+                waitMillis = waitMillis < 0 ? domainWaitMillis : Math.min(waitMillis, domainWaitMillis);
+            }
+            if (waitMillis >= 0) {
+                scheduleDrain(waitMillis);
+            }
+        }
+    }
+
+    /**
+     * Milliseconds the head entry can still wait: zero or less means release it now.
+     * It must go once due, or earlier when the whole queue needs longer than the time left.
+     */
+    private long slackMillis(Entry head, long nowMillis) {
+        long untilDue = head.dueTimestamp - nowMillis;
+        if (untilDue <= 0) {
+            return 0L;
+        }
+        // The head has already been taken off the queue, hence the + 1
+        long drainMillis = (long) ((queue.size() + 1) * 1000L / globalSendsPerSecond);
+        return untilDue - drainMillis;
+    }
+
+    private static String domainOf(String email) {
+        if (email == null) {
+            return "";
+        }
+        int at = email.lastIndexOf('@');
+        return at >= 0 ? email.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static class Entry {
+        private final Long taskId;
+        private final long dueTimestamp;
+        private final String domain;
+        private final Runnable send;
+
+        Entry(Long taskId, long dueTimestamp, String domain, Runnable send) {
+            this.taskId = taskId;
+            this.dueTimestamp = dueTimestamp;
+            this.domain = domain;
+            this.send = send;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.taskreminder.service;
 
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
 import com.example.taskreminder.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -27,21 +34,38 @@ public class ReportService {
     private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
 
     private final TaskRepository taskRepository;
+    private final ObjectMapper cborMapper;
 
     @Autowired
-    public ReportService(TaskRepository taskRepository) {
+    public ReportService(TaskRepository taskRepository, Jackson2ObjectMapperBuilder objectMapperBuilder) {
         this.taskRepository = taskRepository;
+        // Same modules and features as the JSON mapper and the CBOR endpoints, so exports match them
+        this.cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
     }
 
     /**
      * Get overview statistics.
      */
     public Map<String, Object> getOverview() {
+        return getOverview(false);
+    }
+
+    /**
+     * Get overview statistics, optionally counting archived tasks as well.
+     */
+    public Map<String, Object> getOverview(boolean includeArchived) {
         Map<String, Object> overview = new HashMap<>();
         
         long totalTasks = taskRepository.count();
-        long pendingTasks = taskRepository.countByStatus("PENDING");
-        long completedTasks = taskRepository.countByStatus("COMPLETED");
+        long pendingTasks = taskRepository.countByStatus(TaskStatus.PENDING);
+        long completedTasks = taskRepository.countByStatus(TaskStatus.COMPLETED);
+        if (includeArchived) {
+            long archivedTasks = taskRepository.countArchived(null);
+            totalTasks += archivedTasks;
+            pendingTasks += taskRepository.countArchived(TaskStatus.PENDING);
+            completedTasks += taskRepository.countArchived(TaskStatus.COMPLETED);
+            overview.put("archivedTasks", archivedTasks);
+        }
         
         overview.put("totalTasks", totalTasks);
         overview.put("pendingTasks", pendingTasks);
@@ -57,12 +81,14 @@ public class ReportService {
      * Uses core Java only (no external CSV libraries).
      */
     public String exportToCsv(String status) throws IOException {
-        List<Task> tasks;
-        if (status != null && !status.isEmpty()) {
-            tasks = taskRepository.findByStatus(status.toUpperCase());
-        } else {
-            tasks = taskRepository.findAll();
-        }
+        return exportToCsv(status, false);
+    }
+
+    /**
+     * Export tasks to CSV file, optionally including archived tasks.
+     */
+    public String exportToCsv(String status, boolean includeArchived) throws IOException {
+        List<Task> tasks = findForExport(status, includeArchived);
 
         // Create filename with timestamp
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
@@ -91,7 +117,7 @@ public class ReportService {
                     ? dateFormatter.format(new Date(task.getDueTimestamp())) 
                     : "")).append(",");
                 writer.append(escapeCsvField(task.getEmail() != null ? task.getEmail() : "")).append(",");
-                writer.append(escapeCsvField(task.getStatus())).append(",");
+                writer.append(escapeCsvField(task.getStatus().name())).append(",");
                 writer.append(escapeCsvField(task.getCreatedAt() != null 
                     ? dateFormatter.format(new Date(task.getCreatedAt())) 
                     : "")).append(",");
@@ -107,6 +133,56 @@ public class ReportService {
         return filePath.toString();
     }
 
+    /**
+     * Export tasks to a CBOR file as an array of task objects.
+     * Intended for service-to-service consumers; field values keep their native types.
+     */
+    public String exportToCbor(String status) throws IOException {
+        return exportToCbor(status, false);
+    }
+
+    /**
+     * Export tasks to a CBOR file, optionally including archived tasks.
+     */
+    public String exportToCbor(String status, boolean includeArchived) throws IOException {
+        List<Task> tasks = findForExport(status, includeArchived);
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
+        String filename = "tasks_export_" + dateFormat.format(new Date()) + ".cbor";
+
+        Path exportDir = Paths.get("exports");
+        if (!Files.exists(exportDir)) {
+            Files.createDirectories(exportDir);
+        }
+
+        Path filePath = exportDir.resolve(filename);
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(filePath));
+             JsonGenerator generator = cborMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (Task task : tasks) {
+                cborMapper.writeValue(generator, task);
+            }
+            generator.writeEndArray();
+        }
+
+        logger.info("Exported {} tasks to CBOR: {}", tasks.size(), filePath);
+        return filePath.toString();
+    }
+
+    private List<Task> findForExport(String status, boolean includeArchived) {
+        if (status != null && !status.isEmpty()) {
+            TaskStatus named = TaskStatus.named(status);
+            if (named == null) {
+                return List.of();
+            }
+            return includeArchived
+                ? taskRepository.findByStatusIncludingArchived(named)
+                : taskRepository.findByStatus(named);
+        }
+        return includeArchived ? taskRepository.findAllIncludingArchived() : taskRepository.findAll();
+    }
+
     /**
      * Escape CSV field values (handle commas, quotes, newlines).
      */
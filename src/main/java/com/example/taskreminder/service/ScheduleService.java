@@ -1,41 +1,75 @@
 package com.example.taskreminder.service;
 
+import com.example.taskreminder.jfr.ReminderEvent;
+import com.example.taskreminder.model.ReminderOffsets;
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 
 /**
  * Service for scheduling task reminders using ScheduledExecutorService.
+ *
+ * A task has one reminder per {@link ReminderOffsets reminder offset}, each a live
+ * {@link ReminderRecord} under a key packing the task id and the offset's index into one long.
+ * A task's keys are adjacent in the sorted map, so all its reminders are reached through one
+ * range view. Scheduling, cancelling and firing race only through compare-and-set on a record's
+ * state, so each reminder is sent at most once and never after a cancel has won.
  */
 @Service
 public class ScheduleService {
 
     private static final Logger logger = LoggerFactory.getLogger(ScheduleService.class);
 
-    private ScheduledExecutorService scheduler;
-    private final Map<Long, ScheduledFuture<?>> scheduledReminders = new ConcurrentHashMap<>();
-    private final Map<Long, ReminderInfo> reminderInfoMap = new ConcurrentHashMap<>();
+    private static final int RECOVERY_PAGE_SIZE = 1000;
+    private static final int PROGRESS_INTERVAL = 1000;
+    // Low bits of a reminder key hold the offset's index: 2^SLOT_BITS = ReminderOffsets.MAX_OFFSETS
+    private static final int SLOT_BITS = 4;
 
-    @Autowired
-    private EmailService emailService;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    // (task id << SLOT_BITS | offset index) -> reminder
+    private final ConcurrentNavigableMap<Long, ReminderRecord> reminders = new ConcurrentSkipListMap<>();
+
+    private final ReminderDispatcher reminderDispatcher;
+    private final ReminderCatchUpService catchUpService;
+    private final ReminderSendShaper sendShaper;
+    private final TaskRepository taskRepository;
 
-    @PostConstruct
-    public void init() {
-        scheduler = Executors.newScheduledThreadPool(5);
+    @Autowired
+    public ScheduleService(ReminderDispatcher reminderDispatcher,
+                           ReminderCatchUpService catchUpService,
+                           ReminderSendShaper sendShaper,
+                           TaskRepository taskRepository,
+                           @Qualifier("reminderScheduler") ScheduledExecutorService scheduler,
+                           Clock clock) {
+        this.reminderDispatcher = reminderDispatcher;
+        this.catchUpService = catchUpService;
+        this.sendShaper = sendShaper;
+        this.taskRepository = taskRepository;
+        this.scheduler = scheduler;
+        this.clock = clock;
         logger.info("ScheduleService initialized");
     }
 
@@ -56,142 +90,386 @@ public class ScheduleService {
     }
 
     /**
-     * Schedule a reminder for a task.
+     * Schedule the reminders of a task, replacing any it had.
      */
     public void scheduleReminder(Task task) {
-        if (task == null || task.getDueTimestamp() == null) {
+        if (task == null || task.dueTimestamp() == Task.ABSENT) {
             logger.warn("Cannot schedule reminder: task or dueTimestamp is null");
             return;
         }
-
-        Long taskId = task.getId();
-        long dueTime = task.getDueTimestamp();
-        long currentTime = System.currentTimeMillis();
-        long delay = dueTime - currentTime;
-
-        // Cancel existing reminder if any
-        cancelReminder(taskId);
-
-        if (delay <= 0) {
-            logger.warn("Task {} due date is in the past, not scheduling reminder", taskId);
-            return;
-        }
-
-        ScheduledFuture<?> future = scheduler.schedule(() -> {
-            try {
-                logger.info("Reminder triggered for task ID: {}", taskId);
-                emailService.sendReminderEmail(
-                    task.getEmail(),
-                    task.getTitle(),
-                    task.getDescription(),
-                    task.getDueTimestamp()
-                );
-                scheduledReminders.remove(taskId);
-                reminderInfoMap.remove(taskId);
-            } catch (Exception e) {
-                logger.error("Error sending reminder for task ID: {}", taskId, e);
-            }
-        }, delay, TimeUnit.MILLISECONDS);
-
-        scheduledReminders.put(taskId, future);
-        reminderInfoMap.put(taskId, new ReminderInfo(taskId, dueTime, null));
-        
-        logger.info("Scheduled reminder for task ID: {} in {} milliseconds", taskId, delay);
+        schedule(task, null);
     }
 
     /**
-     * Schedule a reminder with timezone/offset support.
+     * Schedule the reminders of a task with timezone support, replacing any it had.
      */
     public void scheduleReminder(Task task, String timezone) {
-        if (task == null || task.getDueTimestamp() == null) {
+        if (task == null || task.dueTimestamp() == Task.ABSENT) {
             logger.warn("Cannot schedule reminder: task or dueTimestamp is null");
             return;
         }
 
+        String zone = null;
         try {
-            ZoneId zoneId = timezone != null && !timezone.isEmpty() 
-                ? ZoneId.of(timezone) 
+            ZoneId zoneId = timezone != null && !timezone.isEmpty()
+                ? ZoneId.of(timezone)
                 : ZoneId.systemDefault();
-            
+
             // Convert due timestamp to the specified timezone for logging
             ZonedDateTime zonedDateTime = ZonedDateTime.ofInstant(
-                Instant.ofEpochMilli(task.getDueTimestamp()),
+                Instant.ofEpochMilli(task.dueTimestamp()),
                 zoneId
             );
-            
-            logger.info("Scheduling reminder for task {} with timezone: {}", task.getId(), zoneId);
-            
-            // Schedule the reminder (still uses epoch millis internally)
-            scheduleReminder(task);
-            
-            // Update reminder info with timezone
-            ReminderInfo info = reminderInfoMap.get(task.getId());
-            if (info != null) {
-                info.setTimezone(zoneId.toString());
-            }
+
+            logger.info("Scheduling reminder for task {} with timezone: {} (due {})", task.getId(), zoneId, zonedDateTime);
+            zone = zoneId.toString();
         } catch (Exception e) {
-            logger.error("Error scheduling reminder with timezone: {}", timezone, e);
             // Fallback to default scheduling
-            scheduleReminder(task);
+            logger.error("Error scheduling reminder with timezone: {}", timezone, e);
         }
+        schedule(task, zone);
     }
 
     /**
-     * Cancel a scheduled reminder.
+     * Schedule reminders for many tasks in one pass, resolving the timezone once.
+     * Progress is reported every {@code PROGRESS_INTERVAL} tasks. Returns the number scheduled.
+     *
+     * @throws java.time.DateTimeException if the timezone is invalid
      */
-    public void cancelReminder(Long taskId) {
-        ScheduledFuture<?> future = scheduledReminders.remove(taskId);
-        if (future != null) {
-            future.cancel(false);
+    public int scheduleReminders(Collection<Task> tasks, String timezone, IntConsumer progress) {
+        String zone = timezone != null && !timezone.isEmpty() ? ZoneId.of(timezone).toString() : null;
+        int scheduled = 0;
+        int sinceReport = 0;
+        for (Task task : tasks) {
+            if (task.dueTimestamp() != Task.ABSENT && schedule(task, zone)) {
+                scheduled++;
+            }
+            if (++sinceReport == PROGRESS_INTERVAL) {
+                progress.accept(sinceReport);
+                sinceReport = 0;
+            }
+        }
+        progress.accept(sinceReport);
+        logger.info("Bulk scheduled {} of {} reminders (timezone: {})", scheduled, tasks.size(), zone);
+        return scheduled;
+    }
+
+    /**
+     * Cancel the reminders of many tasks in one pass. Returns the number of reminders actually cancelled.
+     */
+    public int cancelReminders(Collection<Long> taskIds, IntConsumer progress) {
+        int cancelled = 0;
+        int sinceReport = 0;
+        for (Long taskId : taskIds) {
+            cancelled += cancelAll(taskId);
+            if (++sinceReport == PROGRESS_INTERVAL) {
+                progress.accept(sinceReport);
+                sinceReport = 0;
+            }
+        }
+        progress.accept(sinceReport);
+        logger.info("Bulk cancelled {} reminders", cancelled);
+        return cancelled;
+    }
+
+    /**
+     * Queue every reminder that came due while the application was down, within the
+     * catch-up lookback window: per task, the last one due that was not handed off.
+     * Called on startup.
+     */
+    public int recoverMissedReminders() {
+        if (!catchUpService.isEnabled()) {
+            return 0;
+        }
+        long now = clock.millis();
+        long lookbackFrom = now - catchUpService.getLookbackMillis();
+        // A reminder fires at or before its task's due time, and at most the longest offset before it
+        long fromDue = lookbackFrom;
+        long toDue = now + ReminderOffsets.MAX_OFFSET_MILLIS;
+        long afterId = Long.MIN_VALUE;
+        int queued = 0;
+        while (true) {
+            List<Task> missed = taskRepository.findMissedReminders(fromDue, afterId, toDue, now, RECOVERY_PAGE_SIZE);
+            for (Task task : missed) {
+                long[] offsets = ReminderOffsets.of(task);
+                int slot = ReminderOffsets.lastReminderBy(task.dueTimestamp(), offsets, now);
+                if (slot < 0) {
+                    continue;
+                }
+                long remindAt = task.dueTimestamp() - offsets[slot];
+                long sentAt = task.reminderSentAt();
+                if (remindAt > lookbackFrom && (sentAt == Task.ABSENT || sentAt < remindAt)
+                        && schedule(task, slot, remindAt, null, now)) {
+                    queued++;
+                }
+            }
+            if (missed.size() < RECOVERY_PAGE_SIZE) {
+                break;
+            }
+            Task last = missed.get(missed.size() - 1);
+            fromDue = last.dueTimestamp();
+            afterId = last.id();
+        }
+        logger.info("Queued {} missed reminders for catch-up", queued);
+        return queued;
+    }
+
+    /**
+     * Schedule every reminder of the task that is still ahead. Reminders already past are
+     * covered by the next one; only when all are past does the last go out late, through the
+     * catch-up lane. The task's other reminders, from earlier offsets, are cancelled.
+     */
+    private boolean schedule(Task task, String timezone) {
+        Long taskId = task.getId();
+        long dueTime = task.dueTimestamp();
+        long[] offsets = ReminderOffsets.of(task);
+        long now = clock.millis();
+        int lastPast = ReminderOffsets.lastReminderBy(dueTime, offsets, now);
+        int first = lastPast < offsets.length - 1 ? lastPast + 1 : lastPast;
+
+        boolean scheduled = false;
+        for (int slot = first; slot < offsets.length; slot++) {
+            scheduled |= schedule(task, slot, dueTime - offsets[slot], timezone, now);
+        }
+        for (Map.Entry<Long, ReminderRecord> entry : remindersOf(taskId).entrySet()) {
+            int slot = (int) (entry.getKey() & ((1 << SLOT_BITS) - 1));
+            if ((slot < first || slot >= offsets.length) && reminders.remove(entry.getKey(), entry.getValue())
+                    && entry.getValue().cancel()) {
+                logger.info("Cancelled reminder for task ID: {}", taskId);
+            }
+        }
+        return scheduled;
+    }
+
+    /**
+     * Schedule the task's reminder for the given offset index, due at {@code remindAt}.
+     */
+    private boolean schedule(Task task, int slot, long remindAt, String timezone, long now) {
+        Long taskId = task.getId();
+        long key = key(taskId, slot);
+        long delay = remindAt - now;
+
+        // Publish the new record first, then retire the one it replaced
+        ReminderRecord record = new ReminderRecord(key, task, remindAt, timezone);
+        ReminderRecord previous = reminders.put(key, record);
+        if (previous != null && previous.cancel()) {
             logger.info("Cancelled reminder for task ID: {}", taskId);
         }
-        reminderInfoMap.remove(taskId);
+
+        if (delay <= 0) {
+            // Missed (e.g. during downtime): deliver through the rate-shaped catch-up lane
+            if (catchUpService.submit(taskId, remindAt, task.getEmail(), record.send)) {
+                logger.info("Task {} reminder time is in the past, queued for catch-up reminder", taskId);
+                ReminderEvent.emit(ReminderEvent.SCHEDULED, taskId, remindAt, timezone);
+                return true;
+            }
+            record.cancel();
+            reminders.remove(key, record);
+            return false;
+        }
+
+        // With shaping, the reminder is handed to the shaper up to its max lead time before it is due
+        Runnable fire = sendShaper.isEnabled()
+            ? () -> {
+                if (record.isScheduled()) {
+                    sendShaper.submit(taskId, remindAt, task.getEmail(), record.send);
+                }
+            }
+            : record.send;
+        long fireDelay = Math.max(0L, delay - sendShaper.getMaxLeadMillis());
+        record.setFuture(scheduler.schedule(fire, fireDelay, TimeUnit.MILLISECONDS));
+        ReminderEvent.emit(ReminderEvent.SCHEDULED, taskId, remindAt, timezone);
+
+        logger.info("Scheduled reminder for task ID: {} in {} milliseconds", taskId, delay);
+        return true;
+    }
+
+    /**
+     * Cancel all scheduled reminders of a task.
+     */
+    public void cancelReminder(Long taskId) {
+        cancelAll(taskId);
+    }
+
+    private int cancelAll(Long taskId) {
+        int cancelled = 0;
+        for (Map.Entry<Long, ReminderRecord> entry : remindersOf(taskId).entrySet()) {
+            if (reminders.remove(entry.getKey(), entry.getValue()) && entry.getValue().cancel()) {
+                cancelled++;
+            }
+        }
+        if (cancelled > 0) {
+            logger.info("Cancelled {} reminders for task ID: {}", cancelled, taskId);
+        }
+        return cancelled;
+    }
+
+    private static long key(long taskId, int slot) {
+        return taskId << SLOT_BITS | slot;
+    }
+
+    /**
+     * Live view of a task's reminders, in firing order.
+     */
+    private ConcurrentNavigableMap<Long, ReminderRecord> remindersOf(long taskId) {
+        return reminders.subMap(key(taskId, 0), true, key(taskId, (1 << SLOT_BITS) - 1), true);
     }
 
     /**
-     * Get reminder information for a task.
+     * Get information on the next reminder of a task.
      */
     public ReminderInfo getReminderInfo(Long taskId) {
-        return reminderInfoMap.get(taskId);
+        Map.Entry<Long, ReminderRecord> next = remindersOf(taskId).firstEntry();
+        return next != null ? next.getValue().info : null;
+    }
+
+    /**
+     * Get information on every scheduled reminder of a task, in firing order.
+     */
+    public List<ReminderInfo> getReminderInfos(Long taskId) {
+        List<ReminderInfo> infos = new ArrayList<>();
+        remindersOf(taskId).values().forEach(record -> infos.add(record.info));
+        return infos;
+    }
+
+    /**
+     * Get information on the next reminder of many tasks. Tasks without a reminder are absent from the result.
+     */
+    public Map<Long, ReminderInfo> getReminderInfos(Collection<Long> taskIds) {
+        Map<Long, ReminderInfo> infos = new HashMap<>();
+        for (Long taskId : taskIds) {
+            ReminderInfo info = getReminderInfo(taskId);
+            if (info != null) {
+                infos.put(taskId, info);
+            }
+        }
+        return infos;
+    }
+
+    /**
+     * Number of reminders currently scheduled or being sent. Counts them one by one.
+     */
+    public int getScheduledReminderCount() {
+        return reminders.size();
+    }
+
+    /**
+     * Lifecycle of a single scheduled reminder.
+     */
+    public enum ReminderState {
+        SCHEDULED,
+        FIRING,
+        SENT,
+        FAILED,
+        CANCELLED
+    }
+
+    /**
+     * The one live reminder for a task and offset. Only SCHEDULED can move to FIRING or
+     * CANCELLED, so whichever of fire and cancel wins the CAS decides the outcome.
+     */
+    private final class ReminderRecord {
+        private final long key;
+        private final Task task;
+        private final ReminderInfo info;
+        private final AtomicReference<ReminderState> state = new AtomicReference<>(ReminderState.SCHEDULED);
+        // Stable identity, used by the shaper and catch-up lane to cancel just this record's entry
+        private final Runnable send = this::send;
+        private volatile ScheduledFuture<?> future;
+
+        ReminderRecord(long key, Task task, long remindAt, String timezone) {
+            this.key = key;
+            this.task = task;
+            this.info = new ReminderInfo(task.getId(), remindAt, timezone, task.dueTimestamp() - remindAt);
+        }
+
+        boolean isScheduled() {
+            return state.get() == ReminderState.SCHEDULED;
+        }
+
+        void setFuture(ScheduledFuture<?> future) {
+            this.future = future;
+            // A cancel that ran before the future was set could not cancel it
+            if (state.get() == ReminderState.CANCELLED) {
+                future.cancel(false);
+            }
+        }
+
+        boolean cancel() {
+            if (!state.compareAndSet(ReminderState.SCHEDULED, ReminderState.CANCELLED)) {
+                return false;
+            }
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            sendShaper.cancel(send);
+            catchUpService.cancel(send);
+            ReminderEvent.emit(ReminderEvent.CANCELLED, info.getTaskId(), info.getScheduledTime(), info.getTimezone());
+            return true;
+        }
+
+        private void send() {
+            if (!state.compareAndSet(ReminderState.SCHEDULED, ReminderState.FIRING)) {
+                // Cancelled or replaced after the send was queued
+                return;
+            }
+            Long taskId = info.getTaskId();
+            ReminderState outcome = ReminderState.FAILED;
+            ReminderEvent event = new ReminderEvent();
+            event.begin();
+            long sendStarted = clock.millis();
+            try {
+                logger.info("Reminder triggered for task ID: {}", taskId);
+                reminderDispatcher.dispatch(task, info.getTimezone(), info.getScheduledTime());
+                outcome = ReminderState.SENT;
+            } catch (Exception e) {
+                logger.error("Error sending reminder for task ID: {}", taskId, e);
+            } finally {
+                state.set(outcome);
+                reminders.remove(key, this);
+                event.fired(taskId, info.getScheduledTime(), info.getTimezone(), outcome.name(), sendStarted);
+            }
+        }
     }
 
     /**
-     * Inner class to store reminder information.
+     * Immutable view of a scheduled reminder.
      */
     public static class ReminderInfo {
-        private Long taskId;
-        private Long scheduledTime;
-        private String timezone;
+        private final Long taskId;
+        private final Long scheduledTime;
+        private final String timezone;
+        private final long offsetMillis;
 
         public ReminderInfo(Long taskId, Long scheduledTime, String timezone) {
+            this(taskId, scheduledTime, timezone, 0L);
+        }
+
+        public ReminderInfo(Long taskId, Long scheduledTime, String timezone, long offsetMillis) {
             this.taskId = taskId;
             this.scheduledTime = scheduledTime;
             this.timezone = timezone;
+            this.offsetMillis = offsetMillis;
         }
 
         public Long getTaskId() {
             return taskId;
         }
 
-        public void setTaskId(Long taskId) {
-            this.taskId = taskId;
-        }
-
         public Long getScheduledTime() {
             return scheduledTime;
         }
 
-        public void setScheduledTime(Long scheduledTime) {
-            this.scheduledTime = scheduledTime;
-        }
-
         public String getTimezone() {
             return timezone;
         }
 
-        public void setTimezone(String timezone) {
-            this.timezone = timezone;
+        /**
+         * How long before the task's due time this reminder fires.
+         */
+        public long getOffsetMillis() {
+            return offsetMillis;
         }
     }
 }
-
@@ -0,0 +1,131 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background archiver that keeps the live tasks table bounded by active work.
+ * Completed tasks older than the configured age are moved to the archive table in small
+ * chunks, each in its own short transaction, with a pause between chunks so writers are
+ * never held up for long.
+ */
+@Service
+public class TaskArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    private final TaskRepository taskRepository;
+    private final boolean enabled;
+    private final long minAgeMillis;
+    private final long intervalMinutes;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final Counter archivedCounter;
+    // Rows in the archive table, counted at startup and after each run rather than per scrape
+    private final AtomicLong archiveSize = new AtomicLong();
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public TaskArchiveService(TaskRepository taskRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${taskreminder.archive.enabled:true}") boolean enabled,
+                              @Value("${taskreminder.archive.min-age-hours:720}") long minAgeHours,
+                              @Value("${taskreminder.archive.interval-minutes:60}") long intervalMinutes,
+                              @Value("${taskreminder.archive.chunk-size:500}") int chunkSize,
+                              @Value("${taskreminder.archive.pause-millis:50}") long pauseMillis) {
+        this.taskRepository = taskRepository;
+        this.enabled = enabled;
+        this.minAgeMillis = TimeUnit.HOURS.toMillis(minAgeHours);
+        this.intervalMinutes = Math.max(1L, intervalMinutes);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMillis = Math.max(0L, pauseMillis);
+        this.archivedCounter = Counter.builder("taskreminder.archive.archived")
+            .description("Completed tasks moved to the archive table")
+            .register(meterRegistry);
+        Gauge.builder("taskreminder.archive.size", archiveSize, AtomicLong::get)
+            .description("Tasks in the archive table")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        archiveSize.set(taskRepository.countArchived(null));
+        if (!enabled) {
+            logger.info("Task archiving disabled");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runScheduled, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        logger.info("Task archiving every {} minutes for tasks completed more than {} hours ago",
+            intervalMinutes, TimeUnit.MILLISECONDS.toHours(minAgeMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Archive every task completed before the configured age, chunk by chunk, until a chunk
+     * finds nothing left (the repository may move fewer than {@code chunkSize} per chunk).
+     * Returns the number of tasks archived.
+     */
+    public synchronized int archiveNow() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        long cutoff = now - minAgeMillis;
+        int total = 0;
+        while (true) {
+            int moved = taskRepository.archiveCompleted(cutoff, now, chunkSize).size();
+            total += moved;
+            archivedCounter.increment(moved);
+            archiveSize.addAndGet(moved);
+            if (moved == 0) {
+                break;
+            }
+            // Leave a gap for writers waiting on the table between chunks
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        if (total > 0) {
+            logger.info("Archived {} tasks completed before {}", total, cutoff);
+            archiveSize.set(taskRepository.countArchived(null));
+        }
+        return total;
+    }
+
+    public long getMinAgeMillis() {
+        return minAgeMillis;
+    }
+
+    private void runScheduled() {
+        try {
+            archiveNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run retries from where this one stopped
+            logger.error("Task archiving failed", e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.event.TaskEvent;
+import com.example.taskreminder.event.TaskEventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that fans task events out to Server-Sent Events clients.
+ * Each client has a bounded buffer; clients that fall behind are disconnected
+ * instead of slowing down publishers or other clients.
+ */
+@Service
+public class TaskEventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventStreamService.class);
+
+    private final TaskEventBus eventBus;
+    private final int bufferSize;
+    private final long heartbeatSeconds;
+
+    private final Map<Long, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientIds = new AtomicLong();
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService heartbeat;
+    private Runnable unsubscribe;
+
+    @Autowired
+    public TaskEventStreamService(TaskEventBus eventBus,
+                                  @Value("${taskreminder.events.client-buffer-size:256}") int bufferSize,
+                                  @Value("${taskreminder.events.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.eventBus = eventBus;
+        this.bufferSize = bufferSize;
+        this.heartbeatSeconds = heartbeatSeconds;
+    }
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Executors.newFixedThreadPool(2);
+        heartbeat = Executors.newSingleThreadScheduledExecutor();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        unsubscribe = eventBus.subscribe(this::onEvent);
+        logger.info("TaskEventStreamService initialized");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+        }
+        clients.values().forEach(client -> client.emitter.complete());
+        clients.clear();
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Register a new streaming client.
+     */
+    public SseEmitter connect() {
+        SseEmitter emitter = new SseEmitter(0L);
+        long id = clientIds.incrementAndGet();
+        Client client = new Client(id, emitter, bufferSize);
+        clients.put(id, client);
+
+        emitter.onCompletion(() -> clients.remove(id));
+        emitter.onTimeout(() -> clients.remove(id));
+        emitter.onError(e -> clients.remove(id));
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data(Map.of("sequence", eventBus.currentSequence())));
+        } catch (IOException e) {
+            clients.remove(id);
+            emitter.completeWithError(e);
+        }
+
+        logger.info("Event stream client {} connected, {} active", id, clients.size());
+        return emitter;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    private void onEvent(TaskEvent event) {
+        for (Client client : clients.values()) {
+            if (!client.queue.offer(event)) {
+                // Slow consumer: drop it rather than buffer without bound
+                logger.warn("Event stream client {} fell behind, disconnecting", client.id);
+                clients.remove(client.id);
+                client.emitter.complete();
+                continue;
+            }
+            if (client.draining.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(client));
+            }
+        }
+    }
+
+    private void drain(Client client) {
+        while (true) {
+            TaskEvent event;
+            while ((event = client.queue.poll()) != null) {
+                try {
+                    client.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSequence()))
+                        .name("task")
+                        .data(event, MediaType.APPLICATION_JSON));
+                } catch (Exception e) {
+                    logger.debug("Event stream client {} disconnected", client.id);
+                    clients.remove(client.id);
+                    client.queue.clear();
+                    client.draining.set(false);
+                    return;
+                }
+            }
+            client.draining.set(false);
+            // Re-check in case an event arrived after the last poll but before the flag was cleared
+            if (client.queue.isEmpty() || !client.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Client client : clients.values()) {
+            try {
+                client.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (Exception e) {
+                clients.remove(client.id);
+            }
+        }
+    }
+
+    private static class Client {
+        private final long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Client(long id, SseEmitter emitter, int bufferSize) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.event.TaskEventType;
+import com.example.taskreminder.importer.ColumnMapping;
+import com.example.taskreminder.importer.CsvRowReader;
+import com.example.taskreminder.importer.ImportOptions;
+import com.example.taskreminder.importer.MalformedRowException;
+import com.example.taskreminder.importer.RowReader;
+import com.example.taskreminder.importer.XlsxRowReader;
+import com.example.taskreminder.model.ImportReport;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Service for importing tasks from spreadsheets. Rows are read one at a time from a
+ * {@link RowReader} and inserted in JDBC batches, so memory use does not depend on the
+ * size of the sheet. Reminders can be scheduled batch by batch as rows are inserted.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_EMAIL_LENGTH = 255;
+    // Spreadsheet day numbers count from 1899-12-30; 25569 is 1970-01-01
+    private static final double EXCEL_EPOCH_DAY = 25569.0;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final DateTimeFormatter DAY_MONTH_YEAR =
+        DateTimeFormatter.ofPattern("d-M-uuuu").withResolverStyle(ResolverStyle.STRICT);
+    // A leading ordinal, as in "3- Completed"
+    private static final Pattern STATUS_ORDINAL = Pattern.compile("^\\d+\\s*[-.)]\\s*");
+    private static final Set<String> COMPLETED_SYNONYMS =
+        new HashSet<>(Arrays.asList("COMPLETE", "DONE", "FINISHED", "CLOSED", "RESOLVED"));
+
+    private final TaskRepository taskRepository;
+    private final TaskEventBus eventBus;
+    private final ScheduleService scheduleService;
+    private final int batchSize;
+
+    @Autowired
+    public TaskImportService(TaskRepository taskRepository,
+                             TaskEventBus eventBus,
+                             ScheduleService scheduleService,
+                             @Value("${taskreminder.import.batch-size:1000}") int batchSize) {
+        this.taskRepository = taskRepository;
+        this.eventBus = eventBus;
+        this.scheduleService = scheduleService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Import a CSV stream (UTF-8).
+     */
+    public ImportReport importCsv(InputStream in, ImportOptions options) throws IOException {
+        options.setFormat("csv");
+        try (RowReader reader = new CsvRowReader(new InputStreamReader(in, StandardCharsets.UTF_8), options.getDelimiter())) {
+            return importTasks(reader, options);
+        }
+    }
+
+    /**
+     * Import one sheet of an XLSX workbook (the first sheet unless the options name one).
+     * The workbook must be a file because the zip directory is at its end.
+     */
+    public ImportReport importXlsx(File file, ImportOptions options) throws IOException {
+        options.setFormat("xlsx");
+        try (XlsxRowReader reader = new XlsxRowReader(file, options.getSheet())) {
+            options.setSheet(reader.getSheetName());
+            return importTasks(reader, options);
+        }
+    }
+
+    /**
+     * Import every row after the header row. Invalid or unreadable rows are reported and
+     * skipped; blank rows are skipped silently.
+     *
+     * @throws IOException if the source cannot be read or parsed
+     * @throws IllegalArgumentException if the header cannot be mapped to task fields
+     */
+    public ImportReport importTasks(RowReader reader, ImportOptions options) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport(options.getFormat());
+        report.setSheet(options.getSheet());
+        ZoneId zone = options.getTimezone() != null ? ZoneId.of(options.getTimezone()) : ZoneId.systemDefault();
+
+        List<String> header = nextNonBlankRow(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("File has no header row");
+        }
+        ColumnMapping mapping = ColumnMapping.fromHeader(header, options.getColumnOverrides());
+        report.setColumns(mapping.getHeaders());
+
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (true) {
+            List<String> row;
+            try {
+                row = reader.nextRow();
+            } catch (MalformedRowException e) {
+                report.rowRead();
+                report.addError(reader.getRowNumber(), e.getMessage());
+                report.skip();
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            if (isBlank(row)) {
+                continue;
+            }
+            report.rowRead();
+            try {
+                batch.add(toTask(row, mapping, options, zone, started));
+            } catch (IllegalArgumentException e) {
+                report.addError(reader.getRowNumber(), e.getMessage());
+                report.skip();
+            }
+            if (batch.size() == batchSize) {
+                flush(batch, options, report, started);
+            }
+        }
+        flush(batch, options, report, started);
+
+        report.setDurationMillis(System.currentTimeMillis() - started);
+        logger.info("Imported {} of {} rows ({} errors, {} reminders scheduled) in {} ms",
+            report.getImported(), report.getRowsRead(), report.getErrorCount(), report.getScheduled(),
+            report.getDurationMillis());
+        return report;
+    }
+
+    private void flush(List<Task> batch, ImportOptions options, ImportReport report, long now) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        taskRepository.saveAll(batch);
+        report.addImported(batch.size());
+        for (Task task : batch) {
+            eventBus.publish(TaskEventType.CREATED, task);
+        }
+
+        if (options.isSchedule()) {
+            List<Task> pending = new ArrayList<>();
+            for (Task task : batch) {
+                if (!task.isCompleted() && task.dueTimestamp() > now) {
+                    pending.add(task);
+                }
+            }
+            if (!pending.isEmpty()) {
+                report.addScheduled(scheduleService.scheduleReminders(pending, options.getTimezone(), count -> { }));
+            }
+        }
+        batch.clear();
+    }
+
+    private Task toTask(List<String> row, ColumnMapping mapping, ImportOptions options, ZoneId zone, long now) {
+        String title = mapping.get(row, ColumnMapping.TITLE);
+        if (title == null) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        String description = mapping.get(row, ColumnMapping.DESCRIPTION);
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        String email = mapping.get(row, ColumnMapping.EMAIL);
+        if (email != null && (email.length() > MAX_EMAIL_LENGTH || email.indexOf('@') < 1)) {
+            throw new IllegalArgumentException("Invalid email: " + email);
+        }
+
+        String dueValue = mapping.get(row, ColumnMapping.DUE);
+        Long due = dueValue != null ? Long.valueOf(parseDue(dueValue, zone)) : options.getDefaultDueTimestamp();
+        if (due == null) {
+            throw new IllegalArgumentException("Due date is required (or pass defaultDueTimestamp)");
+        }
+
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setDueTimestamp(due);
+        task.setEmail(email);
+        task.setCreatedAt(now);
+        if (isCompleted(mapping.get(row, ColumnMapping.STATUS))) {
+            task.setStatus(TaskStatus.COMPLETED);
+            task.setCompletedAt(now);
+        } else {
+            task.setStatus(TaskStatus.PENDING);
+        }
+        return task;
+    }
+
+    /**
+     * Parse a due date given as epoch millis or seconds, a spreadsheet day number, an ISO
+     * date, date-time or instant, or a day-month-year date such as 31-12-2025. Values without
+     * an offset are read in the given zone.
+     */
+    static long parseDue(String value, ZoneId zone) {
+        try {
+            double number = Double.parseDouble(value);
+            if (number >= 1e11) {
+                return (long) number;
+            }
+            if (number >= 1e9) {
+                return (long) (number * 1000);
+            }
+            if (number > 0 && number < 1e6) {
+                // Day number as wall time in the zone, as a spreadsheet shows it
+                long localMillis = Math.round((number - EXCEL_EPOCH_DAY) * MILLIS_PER_DAY);
+                LocalDateTime local = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000L),
+                    (int) Math.floorMod(localMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+                return local.atZone(zone).toInstant().toEpochMilli();
+            }
+        } catch (NumberFormatException e) {
+            // Not numeric, try the ISO forms below
+        }
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // Not an instant
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // No offset
+        }
+        try {
+            return LocalDateTime.parse(value.replace(' ', 'T')).atZone(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // No time
+        }
+        try {
+            return LocalDate.parse(value).atStartOfDay(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // Not an ISO date
+        }
+        try {
+            return LocalDate.parse(value, DAY_MONTH_YEAR).atStartOfDay(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Unrecognised due date: " + value);
+        }
+    }
+
+    /**
+     * Whether a status cell means completed: the whole value, after any leading ordinal, must
+     * be a completed status name or one of its synonyms, so "Incomplete" or "Not done" stay
+     * pending.
+     */
+    static boolean isCompleted(String status) {
+        if (status == null) {
+            return false;
+        }
+        String name = STATUS_ORDINAL.matcher(status.trim()).replaceFirst("");
+        return TaskStatus.named(name) == TaskStatus.COMPLETED
+            || COMPLETED_SYNONYMS.contains(name.toUpperCase(Locale.ROOT));
+    }
+
+    private static List<String> nextNonBlankRow(RowReader reader) throws IOException {
+        List<String> row;
+        while ((row = reader.nextRow()) != null) {
+            if (!isBlank(row)) {
+                return new ArrayList<>(row);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlank(List<String> row) {
+        for (String value : row) {
+            if (value != null && !value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
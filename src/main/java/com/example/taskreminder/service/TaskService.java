@@ -1,13 +1,25 @@
 package com.example.taskreminder.service;
 
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.event.TaskEventType;
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.ReminderOffsets;
 import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskChanges;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.notification.NotificationChannels;
 import com.example.taskreminder.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.IllformedLocaleException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,25 +31,36 @@ public class TaskService {
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
 
     private final TaskRepository taskRepository;
+    private final TaskEventBus eventBus;
+    private final NotificationChannels notificationChannels;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, TaskEventBus eventBus, NotificationChannels notificationChannels) {
         this.taskRepository = taskRepository;
+        this.eventBus = eventBus;
+        this.notificationChannels = notificationChannels;
     }
 
     /**
      * Create a new task.
+     *
+     * @throws IllegalArgumentException if the task's notification channels, reminder offsets or locale are invalid
      */
     public Task createTask(Task task) {
-        if (task.getStatus() == null || task.getStatus().isEmpty()) {
-            task.setStatus("PENDING");
+        notificationChannels.validate(task);
+        task.setLocale(normalizeLocale(task.getLocale()));
+        task.setReminderOffsets(ReminderOffsets.normalize(task.getReminderOffsets()));
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatus.PENDING);
         }
-        if (task.getCreatedAt() == null) {
+        if (task.createdAt() == Task.ABSENT) {
             task.setCreatedAt(System.currentTimeMillis());
         }
         
         logger.info("Creating task: {}", task.getTitle());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        eventBus.publish(TaskEventType.CREATED, saved);
+        return saved;
     }
 
     /**
@@ -48,19 +71,50 @@ public class TaskService {
     }
 
     /**
-     * Get all tasks, optionally filtered by status.
+     * Get task by ID, falling back to the archive when asked. Archived tasks are read-only.
+     */
+    public Optional<Task> getTaskById(Long id, boolean includeArchived) {
+        Optional<Task> task = taskRepository.findById(id);
+        if (task.isEmpty() && includeArchived) {
+            return taskRepository.findArchivedById(id);
+        }
+        return task;
+    }
+
+    /**
+     * Get all tasks, optionally filtered by status (any case). No task has an unknown status.
      */
     public List<Task> getAllTasks(String status) {
         if (status != null && !status.isEmpty()) {
-            return taskRepository.findByStatus(status.toUpperCase());
+            TaskStatus named = TaskStatus.named(status);
+            return named != null ? taskRepository.findByStatus(named) : List.of();
         }
         return taskRepository.findAll();
     }
 
+    /**
+     * Get all tasks, optionally filtered by status and optionally including archived tasks.
+     */
+    public List<Task> getAllTasks(String status, boolean includeArchived) {
+        if (!includeArchived) {
+            return getAllTasks(status);
+        }
+        if (status != null && !status.isEmpty()) {
+            TaskStatus named = TaskStatus.named(status);
+            return named != null ? taskRepository.findByStatusIncludingArchived(named) : List.of();
+        }
+        return taskRepository.findAllIncludingArchived();
+    }
+
     /**
      * Update an existing task.
+     *
+     * @throws IllegalArgumentException if the task's notification channels, reminder offsets or locale are invalid
      */
     public boolean updateTask(Task task) {
+        notificationChannels.validate(task);
+        task.setLocale(normalizeLocale(task.getLocale()));
+        task.setReminderOffsets(ReminderOffsets.normalize(task.getReminderOffsets()));
         Optional<Task> existingTask = taskRepository.findById(task.getId());
         if (existingTask.isEmpty()) {
             logger.warn("Task not found for update: {}", task.getId());
@@ -68,7 +122,13 @@ public class TaskService {
         }
         
         logger.info("Updating task ID: {}", task.getId());
-        return taskRepository.update(task);
+        // An update that completes the task is reported as a completion
+        boolean completes = task.isCompleted() && !existingTask.get().isCompleted();
+        boolean updated = taskRepository.update(task, completes ? completionNotifications(task) : List.of());
+        if (updated) {
+            eventBus.publish(completes ? TaskEventType.COMPLETED : TaskEventType.UPDATED, task);
+        }
+        return updated;
     }
 
     /**
@@ -82,7 +142,11 @@ public class TaskService {
         }
         
         logger.info("Deleting task ID: {}", id);
-        return taskRepository.deleteById(id);
+        boolean deleted = taskRepository.deleteById(id);
+        if (deleted) {
+            eventBus.publish(TaskEventType.DELETED, task.get());
+        }
+        return deleted;
     }
 
     /**
@@ -96,24 +160,114 @@ public class TaskService {
         }
         
         Task task = taskOpt.get();
-        if ("COMPLETED".equals(task.getStatus())) {
+        if (task.isCompleted()) {
             logger.info("Task {} is already completed", id);
             return true;
         }
         
-        task.setStatus("COMPLETED");
+        task.setStatus(TaskStatus.COMPLETED);
         task.setCompletedAt(System.currentTimeMillis());
         
         logger.info("Marking task {} as completed", id);
-        return taskRepository.update(task);
+        // The notification commits with the status change and is sent by the outbox relay
+        boolean updated = taskRepository.complete(task, completionNotifications(task));
+        if (updated) {
+            eventBus.publish(TaskEventType.COMPLETED, task);
+        }
+        return updated;
+    }
+
+    /**
+     * The locale as a canonical BCP 47 tag, e.g. {@code es} or {@code pt-BR}; null stays null.
+     */
+    private static String normalizeLocale(String tag) {
+        if (tag == null || tag.isEmpty()) {
+            return null;
+        }
+        try {
+            Locale locale = new Locale.Builder().setLanguageTag(tag).build();
+            if (locale.getLanguage().isEmpty()) {
+                throw new IllegalArgumentException("locale must name a language: " + tag);
+            }
+            return locale.toLanguageTag();
+        } catch (IllformedLocaleException e) {
+            throw new IllegalArgumentException("Invalid locale: " + tag);
+        }
+    }
+
+    private List<OutboxMessage> completionNotifications(Task task) {
+        return notificationChannels.completionNotifications(task, System.currentTimeMillis());
+    }
+
+    /**
+     * Find tasks matching a bulk-operation filter.
+     */
+    public List<Task> findTasks(TaskFilter filter) {
+        return taskRepository.findByFilter(filter);
+    }
+
+    /**
+     * Mark every not-yet-completed task matching the filter as completed in one set-based update,
+     * enqueueing their completion notifications. Returns the tasks that changed.
+     */
+    public List<Task> completeTasks(TaskFilter filter) {
+        long now = System.currentTimeMillis();
+        List<Task> completed = taskRepository.completeByFilter(filter, now,
+            task -> notificationChannels.completionNotifications(task, now));
+        for (Task task : completed) {
+            eventBus.publish(TaskEventType.COMPLETED, task);
+        }
+        return completed;
     }
 
     /**
      * Get task status.
      */
-    public Optional<String> getTaskStatus(Long id) {
+    public Optional<TaskStatus> getTaskStatus(Long id) {
         Optional<Task> task = taskRepository.findById(id);
         return task.map(Task::getStatus);
     }
-}
 
+    /**
+     * Get the status of many tasks with one query per chunk of ids.
+     */
+    public Map<Long, TaskStatus> getTaskStatuses(Collection<Long> ids) {
+        return taskRepository.findStatusesByIds(ids);
+    }
+
+    /**
+     * Get changes (modified and deleted tasks) after a change-tracking cursor.
+     */
+    public TaskChanges getChangesSince(long since, long afterId, int limit) {
+        return taskRepository.findChangesSince(since, afterId, limit);
+    }
+
+    /**
+     * ETag for task listings, derived from the table version.
+     */
+    public String getListETag(String status) {
+        return getListETag(status, false);
+    }
+
+    /**
+     * ETag for task listings that may include archived tasks. Archiving bumps the table version too.
+     */
+    public String getListETag(String status, boolean includeArchived) {
+        String filter = status != null && !status.isEmpty() ? "-" + status.toUpperCase() : "";
+        return "\"t" + taskRepository.getTableVersion() + filter + (includeArchived ? "-a" : "") + "\"";
+    }
+
+    /**
+     * ETag for a single task, if its current version is known without a database read.
+     */
+    public Optional<String> getKnownTaskETag(Long id) {
+        return taskRepository.getKnownRowVersion(id).map(TaskService::taskETag);
+    }
+
+    /**
+     * ETag for a task representation.
+     */
+    public static String taskETag(Long version) {
+        return "\"r" + version + "\"";
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.event.TaskEvent;
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.model.UserTaskPage;
+import com.example.taskreminder.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service for per-recipient task views.
+ *
+ * Pages are read through the (email, status, due_timestamp) index and the most recently active
+ * recipients' pages are kept in a small LRU cache. Task events invalidate the affected
+ * recipients; a short TTL covers changes that publish no event (archiving).
+ */
+@Service
+public class UserTaskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTaskService.class);
+
+    private static final int MAX_PAGES_PER_USER = 16;
+    private static final int GENERATION_STRIPES = 64;
+
+    private final TaskRepository taskRepository;
+    private final TaskEventBus eventBus;
+    private final int maxUsers;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Recipients in access order; guarded by its own monitor along with cachedTaskOwners
+    private final LinkedHashMap<String, CachedUser> cache;
+    // Owner of every cached task, so an update that changes a task's email invalidates the old owner too
+    private final Map<Long, String> cachedTaskOwners = new HashMap<>();
+    // Bumped on invalidation; a page read before a bump is not cached
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private Runnable unsubscribe;
+
+    @Autowired
+    public UserTaskService(TaskRepository taskRepository,
+                           TaskEventBus eventBus,
+                           MeterRegistry meterRegistry,
+                           @Value("${taskreminder.users.cache-size:256}") int maxUsers,
+                           @Value("${taskreminder.users.cache-ttl-seconds:60}") long ttlSeconds) {
+        this.taskRepository = taskRepository;
+        this.eventBus = eventBus;
+        this.maxUsers = Math.max(0, maxUsers);
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.hits = Counter.builder("taskreminder.users.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("taskreminder.users.cache").tag("result", "miss").register(meterRegistry);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @PostConstruct
+    public void init() {
+        unsubscribe = eventBus.subscribe(this::onEvent);
+        logger.info("UserTaskService initialized (cache: {} recipients, ttl {} ms)", maxUsers, ttlMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+        }
+    }
+
+    /**
+     * Get a page of a recipient's tasks ordered by due time.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public UserTaskPage getTasks(String email, String status, Long dueFrom, Long dueTo, String cursor, int limit) {
+        TaskStatus normalizedStatus = status != null && !status.isEmpty() ? TaskStatus.named(status) : null;
+        if (normalizedStatus == null && status != null && !status.isEmpty()) {
+            // No task has an unknown status
+            return new UserTaskPage(email, List.of(), null, false);
+        }
+        String pageKey = normalizedStatus + "|" + dueFrom + "|" + dueTo + "|" + cursor + "|" + limit;
+        long now = System.currentTimeMillis();
+
+        synchronized (cache) {
+            CachedUser user = cache.get(email);
+            CachedPage cached = user != null ? user.pages.get(pageKey) : null;
+            if (cached != null && now - cached.cachedAt < ttlMillis) {
+                hits.increment();
+                return cached.page;
+            }
+        }
+        misses.increment();
+
+        Long afterDue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = cursor.split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException();
+                }
+                afterDue = Long.parseLong(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        long generation = generations.get(stripe(email));
+        // One extra row tells whether another page follows
+        List<Task> tasks = taskRepository.findByEmail(email, normalizedStatus, dueFrom, dueTo, afterDue, afterId, limit + 1);
+        boolean hasMore = tasks.size() > limit;
+        if (hasMore) {
+            tasks = tasks.subList(0, limit);
+        }
+        Task last = tasks.isEmpty() ? null : tasks.get(tasks.size() - 1);
+        String nextCursor = hasMore ? last.getDueTimestamp() + ":" + last.getId() : null;
+        UserTaskPage page = new UserTaskPage(email, tasks, nextCursor, hasMore);
+
+        if (maxUsers > 0) {
+            synchronized (cache) {
+                // Skip caching if the recipient was invalidated while the query ran
+                if (generations.get(stripe(email)) == generation) {
+                    put(email, pageKey, new CachedPage(page, now));
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Number of recipients currently cached.
+     */
+    public int getCachedUserCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private void put(String email, String pageKey, CachedPage cached) {
+        CachedUser user = cache.computeIfAbsent(email, e -> new CachedUser());
+        user.pages.put(pageKey, cached);
+        for (Task task : cached.page.getTasks()) {
+            user.taskIds.add(task.getId());
+            cachedTaskOwners.put(task.getId(), email);
+        }
+        if (user.pages.size() > MAX_PAGES_PER_USER) {
+            user.pages.remove(user.pages.keySet().iterator().next());
+        }
+        if (cache.size() > maxUsers) {
+            String eldest = cache.keySet().iterator().next();
+            forget(eldest, cache.remove(eldest));
+        }
+    }
+
+    private void onEvent(TaskEvent event) {
+        Task task = event.getTask();
+        String email = task != null ? task.getEmail() : null;
+        synchronized (cache) {
+            String previousOwner = cachedTaskOwners.get(event.getTaskId());
+            if (previousOwner != null && !previousOwner.equals(email)) {
+                invalidate(previousOwner);
+            }
+            if (email != null) {
+                invalidate(email);
+            }
+        }
+    }
+
+    private void invalidate(String email) {
+        generations.incrementAndGet(stripe(email));
+        forget(email, cache.remove(email));
+    }
+
+    private void forget(String email, CachedUser user) {
+        if (user != null) {
+            for (Long taskId : user.taskIds) {
+                cachedTaskOwners.remove(taskId, email);
+            }
+        }
+    }
+
+    private static int stripe(String email) {
+        return (email.hashCode() & 0x7fffffff) % GENERATION_STRIPES;
+    }
+
+    private static final class CachedUser {
+        private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+        // Every task on a page cached for this recipient since it entered the cache
+        private final Set<Long> taskIds = new HashSet<>();
+    }
+
+    private static final class CachedPage {
+        private final UserTaskPage page;
+        private final long cachedAt;
+
+        CachedPage(UserTaskPage page, long cachedAt) {
+            this.page = page;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
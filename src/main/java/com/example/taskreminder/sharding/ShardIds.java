@@ -0,0 +1,75 @@
+package com.example.taskreminder.sharding;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates task ids that are unique across shards without coordination between databases.
+ *
+ * An id packs milliseconds since 2024-01-01 (41 bits), a per-millisecond sequence (6 bits) and
+ * the shard the task was created on (6 bits): 53 bits in total, so ids stay exact in JSON
+ * clients that read numbers as doubles. Ids increase with time on each shard. A shard that
+ * needs more than 64 ids in a millisecond borrows from the next one instead of waiting, so
+ * its ids may run slightly ahead of the clock during bursts.
+ */
+public class ShardIds {
+
+    public static final int MAX_SHARDS = 64;
+
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int SHARD_BITS = 6;
+    private static final int SEQUENCE_BITS = 6;
+    private static final long SHARD_MASK = (1L << SHARD_BITS) - 1;
+
+    private final LongSupplier clock;
+    // Per shard: last (millis << SEQUENCE_BITS | sequence) handed out
+    private final AtomicLongArray last;
+
+    public ShardIds(int shards) {
+        this(shards, System::currentTimeMillis);
+    }
+
+    ShardIds(int shards, LongSupplier clock) {
+        if (shards < 1 || shards > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS + ": " + shards);
+        }
+        this.clock = clock;
+        this.last = new AtomicLongArray(shards);
+    }
+
+    /**
+     * Next id for a task created on the given shard.
+     */
+    public long next(int shard) {
+        long floor = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long stamp;
+        long previous;
+        do {
+            previous = last.get(shard);
+            stamp = Math.max(previous + 1, floor);
+        } while (!last.compareAndSet(shard, previous, stamp));
+        return stamp << SHARD_BITS | shard;
+    }
+
+    /**
+     * Never hand out an id at or below {@code usedId} again, on any shard. Called at startup
+     * with the highest id already stored, since the clock alone does not guarantee that after
+     * a restart (ids may have run ahead of it, or the clock may have stepped back).
+     */
+    public void seed(long usedId) {
+        long stamp = usedId >>> SHARD_BITS;
+        for (int shard = 0; shard < last.length(); shard++) {
+            long previous;
+            do {
+                previous = last.get(shard);
+            } while (previous < stamp && !last.compareAndSet(shard, previous, stamp));
+        }
+    }
+
+    /**
+     * Shard a task was created on, from its id.
+     */
+    public static int shardOf(long id) {
+        return (int) (id & SHARD_MASK);
+    }
+}
@@ -0,0 +1,506 @@
+package com.example.taskreminder.sharding;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskChanges;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.example.taskreminder.repository.WriteVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Task store spread over several databases (shards), each holding its own tasks, archive,
+ * tombstones and notification outbox. A task lives on the shard chosen by a hash of its
+ * recipient email (round robin for tasks without one), so one recipient's reads and bulk
+ * writes touch a single database. Ids come from {@link ShardIds}, which records the creation
+ * shard in the id, so lookups by id go straight to one shard.
+ *
+ * Listings, counts and change tracking query every shard in parallel and merge the results in
+ * the same order a single database would return them. All shards share one {@link WriteVersions},
+ * so ETags and the change feed stay global. Writes spanning shards (bulk completion without an
+ * email, archiving) commit per shard, not atomically across them.
+ */
+public class ShardedTaskRepository extends TaskRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedTaskRepository.class);
+
+    private static final Comparator<Task> NEWEST_FIRST = Comparator.comparingLong(Task::createdAt).reversed();
+    private static final Comparator<Task> BY_DUE_AND_ID =
+        Comparator.comparingLong(Task::dueTimestamp).thenComparingLong(Task::id);
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+
+    private final List<TaskRepository> shards;
+    private final List<NotificationOutboxRepository> outboxRepositories;
+    private final WriteVersions versions;
+    private final ShardIds ids;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final int queryThreads;
+    private ExecutorService queryExecutor;
+
+    /**
+     * One shard per data source; each must already have the schema. The first one is normally
+     * the application's own database.
+     */
+    public ShardedTaskRepository(List<DataSource> dataSources, int queryThreads) {
+        this(dataSources, queryThreads, new WriteVersions());
+    }
+
+    private ShardedTaskRepository(List<DataSource> dataSources, int queryThreads, WriteVersions versions) {
+        super(versions);
+        List<TaskRepository> shards = new ArrayList<>();
+        List<NotificationOutboxRepository> outboxes = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            NotificationOutboxRepository outbox = new NotificationOutboxRepository(jdbcTemplate);
+            shards.add(new TaskRepository(jdbcTemplate, outbox, new DataSourceTransactionManager(dataSource), versions));
+            outboxes.add(outbox);
+        }
+        this.shards = Collections.unmodifiableList(shards);
+        this.outboxRepositories = Collections.unmodifiableList(outboxes);
+        this.versions = versions;
+        this.ids = new ShardIds(shards.size());
+        this.queryThreads = Math.max(1, queryThreads);
+    }
+
+    @Override
+    @PostConstruct
+    public void init() {
+        for (TaskRepository shard : shards) {
+            shard.init();
+            // Ids handed out before a restart are never reused
+            ids.seed(shard.maxId());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        queryExecutor = Executors.newFixedThreadPool(queryThreads, r -> {
+            Thread thread = new Thread(r, "shard-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Task store sharded over {} databases", shards.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (queryExecutor != null) {
+            queryExecutor.shutdownNow();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Each shard's outbox, for the relay to drain.
+     */
+    @Override
+    public List<NotificationOutboxRepository> getOutboxRepositories() {
+        return outboxRepositories;
+    }
+
+    /**
+     * Shard a recipient's tasks live on.
+     */
+    public int shardFor(String email) {
+        int h = email.hashCode();
+        // Spread similar addresses (user1@, user2@, ...) before taking the modulus
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return Math.floorMod(h, shards.size());
+    }
+
+    private int placementShard(Task task) {
+        if (task.getEmail() != null) {
+            return shardFor(task.getEmail());
+        }
+        return Math.floorMod(roundRobin.getAndIncrement(), shards.size());
+    }
+
+    @Override
+    public Task save(Task task) {
+        int shard = placementShard(task);
+        task.setId(ids.next(shard));
+        return shards.get(shard).insertWithId(task);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        Map<Integer, List<Task>> byShard = new HashMap<>();
+        for (Task task : tasks) {
+            int shard = placementShard(task);
+            task.setId(ids.next(shard));
+            byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(task);
+        }
+        onShards(byShard.keySet(), shard -> shards.get(shard).insertAllWithIds(byShard.get(shard)));
+        return tasks;
+    }
+
+    @Override
+    public Optional<Task> findArchivedById(Long id) {
+        return firstPresent(id, shard -> shard.findArchivedById(id));
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return firstPresent(id, shard -> shard.findById(id));
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return merge(onAllShards(TaskRepository::findAll), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return merge(onAllShards(shard -> shard.findByStatus(status)), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByEmail(String email, TaskStatus status, Long dueFrom, Long dueTo,
+                                  Long afterDue, Long afterId, int limit) {
+        return shards.get(shardFor(email)).findByEmail(email, status, dueFrom, dueTo, afterDue, afterId, limit);
+    }
+
+    @Override
+    public List<Task> findAllIncludingArchived() {
+        return merge(onAllShards(TaskRepository::findAllIncludingArchived), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByStatusIncludingArchived(TaskStatus status) {
+        return merge(onAllShards(shard -> shard.findByStatusIncludingArchived(status)), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Update a task on its shard. A new email that belongs to another shard moves the task
+     * there, keeping its id and creation time: it is deleted from the old shard (leaving a
+     * tombstone) and then inserted and updated on the new one. The move is not atomic, and a
+     * moved task loses its reminder-sent marker.
+     */
+    @Override
+    public boolean update(Task task, List<OutboxMessage> notifications) {
+        Optional<Integer> current = locate(task.getId());
+        if (current.isEmpty()) {
+            return false;
+        }
+        int from = current.get();
+        int to = task.getEmail() != null ? shardFor(task.getEmail()) : from;
+        if (from == to) {
+            return shards.get(from).update(task, notifications);
+        }
+        Optional<Task> existing = shards.get(from).findById(task.getId());
+        if (existing.isEmpty() || !shards.get(from).deleteById(task.getId())) {
+            return false;
+        }
+        // Updates never change created_at, so the copy keeps the stored one
+        Task copy = new Task(task);
+        copy.setCreatedAt(existing.get().getCreatedAt());
+        shards.get(to).insertWithId(copy);
+        boolean updated = shards.get(to).update(task, notifications);
+        logger.info("Moved task {} from shard {} to shard {}", task.getId(), from, to);
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return locate(id).map(shard -> shards.get(shard).deleteById(id)).orElse(false);
+    }
+
+    @Override
+    public Map<Long, TaskStatus> findStatusesByIds(Collection<Long> taskIds) {
+        Map<Integer, List<Long>> byShard = new HashMap<>();
+        for (Long id : taskIds) {
+            byShard.computeIfAbsent(homeShard(id), s -> new ArrayList<>()).add(id);
+        }
+        Map<Long, TaskStatus> statuses = new HashMap<>();
+        onShards(byShard.keySet(), shard -> shards.get(shard).findStatusesByIds(byShard.get(shard)))
+            .forEach(statuses::putAll);
+
+        // Tasks moved by an email change are no longer on the shard in their id
+        Set<Long> missing = new HashSet<>(taskIds);
+        missing.removeAll(statuses.keySet());
+        if (!missing.isEmpty() && shards.size() > 1) {
+            onAllShards(shard -> shard.findStatusesByIds(missing)).forEach(statuses::putAll);
+        }
+        return statuses;
+    }
+
+    @Override
+    public List<Task> findByFilter(TaskFilter filter) {
+        if (filter.getEmail() != null) {
+            return shards.get(shardFor(filter.getEmail())).findByFilter(filter);
+        }
+        return merge(onAllShards(shard -> shard.findByFilter(filter)), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> completeByFilter(TaskFilter filter, long completedAt,
+                                       Function<Task, List<OutboxMessage>> notifications) {
+        if (filter.getEmail() != null) {
+            return shards.get(shardFor(filter.getEmail())).completeByFilter(filter, completedAt, notifications);
+        }
+        return merge(onAllShards(shard -> shard.completeByFilter(filter, completedAt, notifications)),
+            BY_ID, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Complete each task on the shard in its id, then look up the few that have moved since
+     * and complete them where they are.
+     */
+    @Override
+    public List<Task> completeAll(List<Task> tasks, Function<Task, List<OutboxMessage>> notifications) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Task>> byShard = new HashMap<>();
+        for (Task task : tasks) {
+            byShard.computeIfAbsent(homeShard(task.id()), s -> new ArrayList<>()).add(task);
+        }
+        List<Task> completed = new ArrayList<>();
+        onShards(byShard.keySet(), shard -> shards.get(shard).completeAll(byShard.get(shard), notifications))
+            .forEach(completed::addAll);
+        if (completed.size() < tasks.size() && shards.size() > 1) {
+            Set<Task> skipped = new HashSet<>(tasks);
+            skipped.removeAll(completed);
+            for (Task task : skipped) {
+                locate(task.getId())
+                    .filter(shard -> shard != homeShard(task.id()))
+                    .ifPresent(shard -> completed.addAll(shards.get(shard).completeAll(List.of(task), notifications)));
+            }
+        }
+        return completed;
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        return onAllShards(shard -> shard.countByStatus(status)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public long count() {
+        return onAllShards(TaskRepository::count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public long countArchived(TaskStatus status) {
+        return onAllShards(shard -> shard.countArchived(status)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Archive up to {@code limit} tasks on each shard. The total can exceed the limit, and is
+     * below it only once every shard has run out of tasks to archive.
+     */
+    @Override
+    public List<Long> archiveCompleted(long completedBefore, long archivedAt, int limit) {
+        return onAllShards(shard -> shard.archiveCompleted(completedBefore, archivedAt, limit))
+            .stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Task> findMissedReminders(long dueFrom, long afterId, long dueTo, long remindBy, int limit) {
+        return merge(onAllShards(shard -> shard.findMissedReminders(dueFrom, afterId, dueTo, remindBy, limit)),
+            BY_DUE_AND_ID, limit);
+    }
+
+    @Override
+    public void markReminderSent(Long id, long remindAt, List<OutboxMessage> notifications) {
+        locate(id).ifPresent(shard -> shards.get(shard).markReminderSent(id, remindAt, notifications));
+    }
+
+    /**
+     * Changes from every shard up to the given bound ({@link #findChangesSince} passes a common
+     * stable version). When a shard's page is truncated, the others are read again up to its
+     * cursor so nothing past it is skipped. A page holds up to {@code limit} changes per shard.
+     */
+    @Override
+    public TaskChanges findChangesBetween(long since, long afterId, long upper, long upperId, int limit) {
+        List<TaskChanges> pages = onAllShards(shard ->
+            shard.findChangesBetween(since, afterId, upper, upperId, limit));
+        TaskChanges lowest = null;
+        for (TaskChanges page : pages) {
+            if (page.isHasMore() && (lowest == null || page.getVersion() < lowest.getVersion()
+                    || page.getVersion() == lowest.getVersion() && page.afterId() < lowest.afterId())) {
+                lowest = page;
+            }
+        }
+        long cursorVersion = upper;
+        long cursorId = upperId;
+        boolean hasMore = lowest != null;
+        if (hasMore) {
+            cursorVersion = lowest.getVersion();
+            cursorId = lowest.afterId();
+            long endVersion = cursorVersion;
+            long endId = cursorId;
+            // Each shard's changes up to the cursor were all in its first page, so this read is bounded
+            pages = onAllShards(shard -> shard.findChangesBetween(since, afterId, endVersion, endId, Integer.MAX_VALUE));
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (TaskChanges page : pages) {
+            tasks.addAll(page.getTasks());
+        }
+        tasks.sort(Comparator.comparingLong(Task::version).thenComparingLong(Task::id));
+        // A moved task leaves a tombstone on its old shard that is older than its row on the new one
+        Set<Long> seen = tasks.stream().map(Task::getId).collect(Collectors.toSet());
+        List<Long> deleted = new ArrayList<>();
+        for (TaskChanges page : pages) {
+            page.getDeleted().stream().filter(seen::add).forEach(deleted::add);
+        }
+        return new TaskChanges(cursorVersion, cursorId, tasks, deleted, hasMore);
+    }
+
+    @Override
+    public Optional<Long> getKnownRowVersion(Long id) {
+        Optional<Long> version = shards.get(homeShard(id)).getKnownRowVersion(id);
+        if (version.isPresent()) {
+            return version;
+        }
+        for (TaskRepository shard : shards) {
+            version = shard.getKnownRowVersion(id);
+            if (version.isPresent()) {
+                return version;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int homeShard(long id) {
+        int shard = ShardIds.shardOf(id);
+        return shard < shards.size() ? shard : 0;
+    }
+
+    /**
+     * Shard a live task is on: the one in its id unless it has been moved since.
+     */
+    private Optional<Integer> locate(Long id) {
+        int home = homeShard(id);
+        if (shards.get(home).getKnownRowVersion(id).isPresent()
+                || !shards.get(home).findStatusesByIds(List.of(id)).isEmpty()) {
+            return Optional.of(home);
+        }
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard != home && !shards.get(shard).findStatusesByIds(List.of(id)).isEmpty()) {
+                return Optional.of(shard);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private <T> Optional<T> firstPresent(Long id, Function<TaskRepository, Optional<T>> lookup) {
+        int home = homeShard(id);
+        Optional<T> found = lookup.apply(shards.get(home));
+        for (int shard = 0; shard < shards.size() && found.isEmpty(); shard++) {
+            if (shard != home) {
+                found = lookup.apply(shards.get(shard));
+            }
+        }
+        return found;
+    }
+
+    private <T> List<T> onAllShards(Function<TaskRepository, T> query) {
+        List<Integer> all = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            all.add(shard);
+        }
+        return onShards(all, shard -> query.apply(shards.get(shard)));
+    }
+
+    /**
+     * Run a query on each of the given shards in parallel, the first on the calling thread,
+     * and return the results in shard order.
+     */
+    private <T> List<T> onShards(Collection<Integer> targets, Function<Integer, T> query) {
+        List<Integer> order = new ArrayList<>(targets);
+        Collections.sort(order);
+        if (order.size() == 1) {
+            return List.of(query.apply(order.get(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int i = 1; i < order.size(); i++) {
+            Integer shard = order.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), queryExecutor));
+        }
+        List<T> results = new ArrayList<>();
+        try {
+            results.add(query.apply(order.get(0)));
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+        return results;
+    }
+
+    /**
+     * K-way merge of per-shard lists that are each sorted by the comparator, up to limit rows.
+     */
+    static List<Task> merge(List<List<Task>> sorted, Comparator<Task> order, int limit) {
+        if (sorted.size() == 1) {
+            List<Task> only = sorted.get(0);
+            return only.size() <= limit ? only : new ArrayList<>(only.subList(0, limit));
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> order.compare(a.task, b.task));
+        int total = 0;
+        for (List<Task> list : sorted) {
+            total += list.size();
+            Iterator<Task> rows = list.iterator();
+            if (rows.hasNext()) {
+                heads.add(new Head(rows.next(), rows));
+            }
+        }
+        List<Task> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head head = heads.poll();
+            merged.add(head.task);
+            if (head.rows.hasNext()) {
+                heads.add(new Head(head.rows.next(), head.rows));
+            }
+        }
+        return merged;
+    }
+
+    private static final class Head {
+        final Task task;
+        final Iterator<Task> rows;
+
+        Head(Task task, Iterator<Task> rows) {
+            this.task = task;
+            this.rows = rows;
+        }
+    }
+}
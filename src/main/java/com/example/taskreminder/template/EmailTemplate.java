@@ -0,0 +1,101 @@
+package com.example.taskreminder.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Email template compiled once into a flat list of literal and placeholder segments.
+ * Placeholders use the {{name}} syntax; values are HTML-escaped when the template is HTML.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final boolean html;
+    // Even indexes are literals, odd indexes are placeholder names
+    private final String[] segments;
+    private final int literalLength;
+
+    private EmailTemplate(String name, boolean html, String[] segments, int literalLength) {
+        this.name = name;
+        this.html = html;
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Parse template source into segments.
+     */
+    public static EmailTemplate compile(String name, String source, boolean html) {
+        List<String> parts = new ArrayList<>();
+        int literalLength = 0;
+        int pos = 0;
+        while (true) {
+            int start = source.indexOf(OPEN, pos);
+            if (start < 0) {
+                break;
+            }
+            int end = source.indexOf(CLOSE, start + OPEN.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template " + name + " at offset " + start);
+            }
+            String literal = source.substring(pos, start);
+            parts.add(literal);
+            literalLength += literal.length();
+            parts.add(source.substring(start + OPEN.length(), end).trim());
+            pos = end + CLOSE.length();
+        }
+        String tail = source.substring(pos);
+        parts.add(tail);
+        literalLength += tail.length();
+        return new EmailTemplate(name, html, parts.toArray(new String[0]), literalLength);
+    }
+
+    /**
+     * Render into the given builder, resolving placeholders through the supplied lookup.
+     * Unknown placeholders render as empty strings.
+     */
+    public void renderTo(StringBuilder out, Function<String, String> values) {
+        out.ensureCapacity(out.length() + literalLength + 64);
+        for (int i = 0; i < segments.length; i++) {
+            if ((i & 1) == 0) {
+                out.append(segments[i]);
+                continue;
+            }
+            String value = values.apply(segments[i]);
+            if (value == null) {
+                continue;
+            }
+            if (html) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#39;"); break;
+                default: out.append(c);
+            }
+        }
+    }
+}
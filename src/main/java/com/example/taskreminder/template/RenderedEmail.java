@@ -0,0 +1,26 @@
+package com.example.taskreminder.template;
+
+/**
+ * Text and optional HTML body produced from a template pair.
+ */
+public class RenderedEmail {
+    private final String text;
+    private final String html; // null when no HTML variant exists
+
+    public RenderedEmail(String text, String html) {
+        this.text = text;
+        this.html = html;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public boolean hasHtml() {
+        return html != null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.taskreminder.writebehind;
+
+import com.example.taskreminder.model.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Append-only file of the completions a {@link WriteBehindTaskRepository} has acknowledged,
+ * one {@code id completedAt} line each, followed by a {@code -id} line once the completion has
+ * committed. Every append is handed to the operating system before the completion is
+ * acknowledged, without forcing it to disk, so the journal survives a crash of the application
+ * but not of the machine. The file is never truncated in place: once enough commit markers have
+ * piled up, what is still pending is written to a new file that is moved over the old one, so
+ * a crash at any point leaves one complete journal. Not thread-safe; the repository serialises
+ * access.
+ */
+class CompletionJournal {
+
+    private final Path path;
+    private final Path compacted;
+    private final int compactAfter;
+    private FileChannel channel;
+    private int markers;
+
+    /**
+     * @param compactAfter number of commit markers after which the journal is compacted
+     */
+    CompletionJournal(Path path, int compactAfter) {
+        this.path = path;
+        this.compacted = path.resolveSibling(path.getFileName() + ".compact");
+        this.compactAfter = compactAfter;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create directory for completion journal " + path, e);
+        }
+        this.channel = open();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Completions left uncommitted by a previous run, as {id, completedAt} pairs in the order
+     * they were logged. A line torn by a crash is skipped.
+     */
+    List<long[]> read() {
+        Map<Long, long[]> entries = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.US_ASCII)) {
+                try {
+                    if (line.startsWith("-")) {
+                        entries.remove(Long.parseLong(line.substring(1)));
+                        continue;
+                    }
+                    String[] fields = line.split(" ");
+                    if (fields.length == 2) {
+                        long id = Long.parseLong(fields[0]);
+                        entries.putIfAbsent(id, new long[]{id, Long.parseLong(fields[1])});
+                    }
+                } catch (NumberFormatException e) {
+                    // torn line
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read completion journal " + path, e);
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    void append(Task task) {
+        write(task.id() + " " + task.completedAt() + "\n");
+    }
+
+    /**
+     * Record that the given completions have committed, compacting the journal down to
+     * what is still pending once enough markers have accumulated.
+     */
+    void committed(Collection<Task> tasks, Supplier<Collection<Task>> pending) {
+        StringBuilder lines = new StringBuilder();
+        for (Task task : tasks) {
+            lines.append('-').append(task.id()).append('\n');
+        }
+        write(lines.toString());
+        markers += tasks.size();
+        if (markers >= compactAfter) {
+            compact(pending.get());
+        }
+    }
+
+    /**
+     * Replace the journal with one holding only the given completions: write them to a
+     * sibling file, force it to disk and move it over the journal in one step.
+     */
+    void compact(Collection<Task> pending) {
+        StringBuilder lines = new StringBuilder();
+        for (Task task : pending) {
+            lines.append(task.id()).append(' ').append(task.completedAt()).append('\n');
+        }
+        try {
+            Files.write(compacted, lines.toString().getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact completion journal " + path, e);
+        } finally {
+            if (!channel.isOpen()) {
+                channel = open();
+            }
+        }
+        markers = 0;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close completion journal " + path, e);
+        }
+    }
+
+    private FileChannel open() {
+        try {
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open completion journal " + path, e);
+        }
+    }
+
+    private void write(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write completion journal " + path, e);
+        }
+    }
+}
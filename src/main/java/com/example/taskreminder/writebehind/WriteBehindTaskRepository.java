@@ -0,0 +1,496 @@
+package com.example.taskreminder.writebehind;
+
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskChanges;
+import com.example.taskreminder.model.TaskFilter;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.example.taskreminder.repository.WriteVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Task repository that acknowledges completions before they commit. A completion enters an
+ * in-memory log (and the {@link CompletionJournal}, when one is configured) and the call
+ * returns; a flusher thread commits the log to the wrapped repository in batches of up to
+ * {@code flushSize}, each one JDBC batch in a single transaction, at most {@code commitLatency}
+ * after the oldest completion in it was logged. Reads of a single task or its status see
+ * pending completions through the log. Every other read and every other write first waits
+ * for the completions logged before it to commit, so a client always reads its own writes.
+ * Once the log holds four batches, completions wait for the flusher.
+ */
+public class WriteBehindTaskRepository extends TaskRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindTaskRepository.class);
+
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final TaskRepository store;
+    private final long commitLatencyNanos;
+    private final int flushSize;
+    private final int maxPending;
+    // Notifications for completions replayed from the journal, built as the service would
+    private final Function<Task, List<OutboxMessage>> replayNotifications;
+    private final CompletionJournal journal;
+
+    // Guards the log and the journal; flushes are serialised by flushLock
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private final LinkedHashMap<Long, PendingCompletion> pending = new LinkedHashMap<>();
+    private long logged;
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * @param journal file to journal pending completions in, or null to keep them in memory only
+     */
+    public WriteBehindTaskRepository(TaskRepository store, long commitLatencyMillis, int flushSize, Path journal,
+                                     Function<Task, List<OutboxMessage>> replayNotifications) {
+        super(new WriteVersions());
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("Flush size must be at least 1, got " + flushSize);
+        }
+        this.store = store;
+        this.commitLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, commitLatencyMillis));
+        this.flushSize = flushSize;
+        this.maxPending = flushSize * 4;
+        this.replayNotifications = replayNotifications;
+        // Compaction rewrites at most maxPending lines, so doing it every few batches keeps it cheap
+        this.journal = journal != null ? new CompletionJournal(journal, maxPending * 4) : null;
+    }
+
+    /**
+     * Commit the completions a previous run left in the journal, then start the flusher.
+     * The wrapped repository must already be initialised.
+     */
+    @Override
+    @PostConstruct
+    public void init() {
+        if (journal != null) {
+            replay();
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Write-behind completions: commit latency {} ms, flush size {}{}",
+            TimeUnit.NANOSECONDS.toMillis(commitLatencyNanos), flushSize,
+            journal != null ? ", journal " + journal.getPath() : "");
+        if (journal == null) {
+            logger.warn("No write-behind journal configured: completions acknowledged but not yet committed " +
+                "are lost if the application stops abruptly");
+        }
+    }
+
+    /**
+     * Stop the flusher and commit whatever is still pending.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Number of completions acknowledged but not yet committed.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Log a completion and return without waiting for it to commit. A task already pending
+     * keeps its first completion, as the database would.
+     */
+    @Override
+    public boolean complete(Task task, List<OutboxMessage> notifications) {
+        if (!running) {
+            return store.complete(task, notifications);
+        }
+        Task completed = new Task(task);
+        synchronized (lock) {
+            while (pending.size() >= maxPending && running) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for the completion log", e);
+                }
+            }
+            if (pending.containsKey(completed.getId())) {
+                return true;
+            }
+            if (journal != null) {
+                journal.append(completed);
+            }
+            pending.put(completed.getId(), new PendingCompletion(completed, notifications, ++logged, System.nanoTime()));
+            if (pending.size() == 1 || pending.size() >= flushSize) {
+                lock.notifyAll();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        PendingCompletion completion = pendingFor(id);
+        if (completion != null) {
+            return Optional.of(new Task(completion.task));
+        }
+        return store.findById(id);
+    }
+
+    @Override
+    public Map<Long, TaskStatus> findStatusesByIds(Collection<Long> ids) {
+        Map<Long, TaskStatus> statuses = new HashMap<>(store.findStatusesByIds(ids));
+        synchronized (lock) {
+            for (Long id : ids) {
+                if (pending.containsKey(id)) {
+                    statuses.put(id, TaskStatus.COMPLETED);
+                }
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Unknown while a completion is pending: the row's version changes when it commits.
+     */
+    @Override
+    public Optional<Long> getKnownRowVersion(Long id) {
+        if (pendingFor(id) != null) {
+            return Optional.empty();
+        }
+        return store.getKnownRowVersion(id);
+    }
+
+    @Override
+    public Task save(Task task) {
+        return store.save(task);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        return store.saveAll(tasks);
+    }
+
+    @Override
+    public Optional<Task> findArchivedById(Long id) {
+        return store.findArchivedById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        drain();
+        return store.findAll();
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        drain();
+        return store.findByStatus(status);
+    }
+
+    @Override
+    public List<Task> findByEmail(String email, TaskStatus status, Long dueFrom, Long dueTo,
+                                  Long afterDue, Long afterId, int limit) {
+        drain();
+        return store.findByEmail(email, status, dueFrom, dueTo, afterDue, afterId, limit);
+    }
+
+    @Override
+    public List<Task> findAllIncludingArchived() {
+        drain();
+        return store.findAllIncludingArchived();
+    }
+
+    @Override
+    public List<Task> findByStatusIncludingArchived(TaskStatus status) {
+        drain();
+        return store.findByStatusIncludingArchived(status);
+    }
+
+    @Override
+    public boolean update(Task task, List<OutboxMessage> notifications) {
+        drain();
+        return store.update(task, notifications);
+    }
+
+    @Override
+    public List<Task> completeAll(List<Task> tasks, Function<Task, List<OutboxMessage>> notifications) {
+        drain();
+        return store.completeAll(tasks, notifications);
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        drain();
+        return store.deleteById(id);
+    }
+
+    @Override
+    public List<Task> findByFilter(TaskFilter filter) {
+        drain();
+        return store.findByFilter(filter);
+    }
+
+    @Override
+    public List<Task> completeByFilter(TaskFilter filter, long completedAt,
+                                       Function<Task, List<OutboxMessage>> notifications) {
+        drain();
+        return store.completeByFilter(filter, completedAt, notifications);
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        drain();
+        return store.countByStatus(status);
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public long countArchived(TaskStatus status) {
+        drain();
+        return store.countArchived(status);
+    }
+
+    @Override
+    public List<Long> archiveCompleted(long completedBefore, long archivedAt, int limit) {
+        drain();
+        return store.archiveCompleted(completedBefore, archivedAt, limit);
+    }
+
+    @Override
+    public List<Task> findMissedReminders(long dueFrom, long afterId, long dueTo, long remindBy, int limit) {
+        drain();
+        return store.findMissedReminders(dueFrom, afterId, dueTo, remindBy, limit);
+    }
+
+    @Override
+    public void markReminderSent(Long id, long remindAt, List<OutboxMessage> notifications) {
+        drain();
+        store.markReminderSent(id, remindAt, notifications);
+    }
+
+    @Override
+    public TaskChanges findChangesSince(long since, long afterId, int limit) {
+        drain();
+        return store.findChangesSince(since, afterId, limit);
+    }
+
+    @Override
+    public TaskChanges findChangesBetween(long since, long afterId, long upper, long upperId, int limit) {
+        drain();
+        return store.findChangesBetween(since, afterId, upper, upperId, limit);
+    }
+
+    @Override
+    public List<NotificationOutboxRepository> getOutboxRepositories() {
+        return store.getOutboxRepositories();
+    }
+
+    @Override
+    public long getTableVersion() {
+        drain();
+        return store.getTableVersion();
+    }
+
+    /**
+     * Commit every completion logged so far, on the calling thread if the flusher is not
+     * already doing it.
+     *
+     * @throws RuntimeException if a batch fails to commit; it stays in the log
+     */
+    public void drain() {
+        long target;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            target = logged;
+        }
+        while (true) {
+            synchronized (lock) {
+                Iterator<PendingCompletion> oldest = pending.values().iterator();
+                if (!oldest.hasNext() || oldest.next().sequence > target) {
+                    return;
+                }
+            }
+            flush();
+        }
+    }
+
+    private PendingCompletion pendingFor(Long id) {
+        synchronized (lock) {
+            return pending.get(id);
+        }
+    }
+
+    private List<Task> pendingTasks() {
+        List<Task> tasks = new ArrayList<>(pending.size());
+        for (PendingCompletion completion : pending.values()) {
+            tasks.add(completion.task);
+        }
+        return tasks;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                if (awaitBatch()) {
+                    flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to commit {} pending completions, retrying in {} ms",
+                    getPendingCount(), RETRY_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait until a full batch is logged or the oldest completion has waited the commit latency.
+     * Returns false when stopped.
+     */
+    private boolean awaitBatch() throws InterruptedException {
+        synchronized (lock) {
+            while (running && pending.isEmpty()) {
+                lock.wait();
+            }
+            if (!running) {
+                return false;
+            }
+            long deadline = pending.values().iterator().next().loggedAt + commitLatencyNanos;
+            long remaining;
+            while (running && !pending.isEmpty() && pending.size() < flushSize
+                    && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return running;
+        }
+    }
+
+    /**
+     * Commit the oldest batch. Its completions stay visible in the log until the commit is
+     * done, then leave it and are marked committed in the journal. The marker is a short
+     * append made under the log lock, so completions logged meanwhile wait for it; every few
+     * batches the journal is also compacted there.
+     */
+    private void flush() {
+        synchronized (flushLock) {
+            Map<Long, PendingCompletion> batch = new LinkedHashMap<>();
+            synchronized (lock) {
+                for (PendingCompletion completion : pending.values()) {
+                    if (batch.size() == flushSize) {
+                        break;
+                    }
+                    batch.put(completion.task.getId(), completion);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Task> tasks = new ArrayList<>(batch.size());
+            for (PendingCompletion completion : batch.values()) {
+                tasks.add(new Task(completion.task));
+            }
+            List<Task> completed = store.completeAll(tasks, task -> batch.get(task.getId()).notifications);
+            synchronized (lock) {
+                List<Task> committed = new ArrayList<>(batch.size());
+                for (PendingCompletion completion : batch.values()) {
+                    pending.remove(completion.task.getId(), completion);
+                    committed.add(completion.task);
+                }
+                if (journal != null) {
+                    journal.committed(committed, this::pendingTasks);
+                }
+                lock.notifyAll();
+            }
+            logger.debug("Committed {} of {} logged completions", completed.size(), batch.size());
+        }
+    }
+
+    /**
+     * Complete the journalled tasks that are still pending in the store.
+     */
+    private void replay() {
+        List<long[]> entries = journal.read();
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (long[] entry : entries) {
+            store.findById(entry[0]).filter(task -> !task.isCompleted()).ifPresent(task -> {
+                task.setStatus(TaskStatus.COMPLETED);
+                task.setCompletedAt(entry[1]);
+                tasks.add(task);
+            });
+        }
+        List<Task> completed = new ArrayList<>();
+        for (int from = 0; from < tasks.size(); from += flushSize) {
+            completed.addAll(store.completeAll(tasks.subList(from, Math.min(from + flushSize, tasks.size())),
+                replayNotifications));
+        }
+        journal.compact(List.of());
+        logger.info("Replayed {} journalled completions, {} still pending in the store",
+            entries.size(), completed.size());
+    }
+
+    private static final class PendingCompletion {
+        final Task task;
+        final List<OutboxMessage> notifications;
+        final long sequence;
+        final long loggedAt;
+
+        PendingCompletion(Task task, List<OutboxMessage> notifications, long sequence, long loggedAt) {
+            this.task = task;
+            this.notifications = notifications;
+            this.sequence = sequence;
+            this.loggedAt = loggedAt;
+        }
+    }
+}
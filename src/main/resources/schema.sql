@@ -7,9 +7,11 @@ CREATE TABLE IF NOT EXISTS tasks (
     description VARCHAR(1000),
     due_timestamp BIGINT NOT NULL,
     email VARCHAR(255),
-    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    status SMALLINT NOT NULL DEFAULT 0, -- TaskStatus code: 0 = PENDING, 1 = COMPLETED
     created_at BIGINT NOT NULL,
-    completed_at BIGINT
+    completed_at BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
+    reminder_sent_at BIGINT
 );
 
 -- Create index on status for faster queries
@@ -18,3 +20,109 @@ CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks(status);
 -- Create index on due_timestamp for scheduling queries
 CREATE INDEX IF NOT EXISTS idx_tasks_due_timestamp ON tasks(due_timestamp);
 
+
+-- Create index on version for change tracking (delta sync) queries
+CREATE INDEX IF NOT EXISTS idx_tasks_version ON tasks(version);
+
+-- Tombstones for deleted tasks so delta sync clients can remove them
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_version ON task_tombstones(version);
+
+-- Supports the archiver's scan for old completed tasks
+CREATE INDEX IF NOT EXISTS idx_tasks_status_completed_at ON tasks(status, completed_at);
+
+-- Completed tasks moved out of the live table by the archiver; same columns plus archived_at
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    due_timestamp BIGINT NOT NULL,
+    email VARCHAR(255),
+    status SMALLINT NOT NULL,
+    created_at BIGINT NOT NULL,
+    completed_at BIGINT,
+    version BIGINT NOT NULL,
+    reminder_sent_at BIGINT,
+    archived_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_status ON tasks_archive(status);
+
+-- Pre-aggregated task analytics per hour ('H') or day ('D') bucket (UTC), per email ('' = all emails)
+CREATE TABLE IF NOT EXISTS task_rollups (
+    granularity CHAR(1) NOT NULL,
+    bucket_start BIGINT NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    created BIGINT NOT NULL DEFAULT 0,
+    completed BIGINT NOT NULL DEFAULT 0,
+    completed_on_time BIGINT NOT NULL DEFAULT 0,
+    total_completion_millis BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, email, bucket_start)
+);
+
+-- Per-recipient task views: equality on email (and status), range and order on due_timestamp
+CREATE INDEX IF NOT EXISTS idx_tasks_email_status_due ON tasks(email, status, due_timestamp);
+
+-- Transactional outbox: notifications written with the task change that caused them, drained by the relay.
+-- dedup_key identifies the notification so it is enqueued at most once
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    dedup_key VARCHAR(100) NOT NULL UNIQUE,
+    kind VARCHAR(20) NOT NULL,
+    task_id BIGINT NOT NULL,
+    email VARCHAR(255),
+    title VARCHAR(255),
+    description VARCHAR(1000),
+    due_timestamp BIGINT,
+    timezone VARCHAR(64),
+    created_at BIGINT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at BIGINT NOT NULL,
+    sent_at BIGINT,
+    last_error VARCHAR(500)
+);
+
+-- The relay's scan for undelivered messages that are due
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_pending ON notification_outbox(sent_at, next_attempt_at, id);
+
+-- Per-task notification channels (comma-separated, NULL = email only) and the webhook channel's callback URL
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS channels VARCHAR(50);
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS webhook_url VARCHAR(500);
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS channels VARCHAR(50);
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS webhook_url VARCHAR(500);
+
+-- Outbox messages are delivered through one channel each; target is the channel's address (e.g. the webhook URL)
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS channel VARCHAR(20) NOT NULL DEFAULT 'email';
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS target VARCHAR(500);
+
+-- Reminder offsets: millis before due_timestamp, packed as 8-byte values, largest first (NULL = one reminder at the
+-- due time). first_reminder_at is due_timestamp minus the largest offset, for the missed-reminder scan.
+-- reminder_sent_at holds the scheduled time of the last reminder handed off, so later reminders still count as missed
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS reminder_offsets VARBINARY(128);
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS first_reminder_at BIGINT;
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS reminder_offsets VARBINARY(128);
+UPDATE tasks SET first_reminder_at = due_timestamp WHERE first_reminder_at IS NULL;
+
+-- Locale (BCP 47 tag) that picks the notification email templates and date format; NULL = the default locale.
+-- Copied onto each outbox message, so a message renders the way it did when it was enqueued
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS locale VARCHAR(35);
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS locale VARCHAR(35);
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS locale VARCHAR(35);
+
+-- Status is stored as its TaskStatus code (0 = PENDING, 1 = COMPLETED). Converts a status column created as
+-- VARCHAR by an earlier version in place; a no-op once the column is SMALLINT
+UPDATE tasks SET status = CASE WHEN CAST(status AS VARCHAR) = 'COMPLETED' THEN 1 ELSE 0 END
+    WHERE CAST(status AS VARCHAR) IN ('PENDING', 'COMPLETED');
+ALTER TABLE tasks ALTER COLUMN status SET DEFAULT 0;
+ALTER TABLE tasks ALTER COLUMN status SET DATA TYPE SMALLINT;
+UPDATE tasks_archive SET status = CASE WHEN CAST(status AS VARCHAR) = 'COMPLETED' THEN 1 ELSE 0 END
+    WHERE CAST(status AS VARCHAR) IN ('PENDING', 'COMPLETED');
+ALTER TABLE tasks_archive ALTER COLUMN status SET DATA TYPE SMALLINT;
+
+-- Completion time of the task a completion message is about, so the email shows when it was completed
+-- rather than when the relay got to it
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS completed_at BIGINT;
@@ -0,0 +1,56 @@
+package com.example.taskreminder.harness;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options of the benchmark and harness mains, given as {@code --name=value}.
+ * Arguments of any other form are rejected; options a harness does not read are ignored.
+ */
+public final class HarnessOptions {
+
+    private final Map<String, String> values;
+
+    private HarnessOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * @throws IllegalArgumentException if an argument is not of the form {@code --name=value}
+     */
+    public static HarnessOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 3) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return new HarnessOptions(values);
+    }
+
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public boolean getBoolean(String name, boolean defaultValue) {
+        String value = values.get(name);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
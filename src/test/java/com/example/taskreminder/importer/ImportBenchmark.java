@@ -0,0 +1,234 @@
+package com.example.taskreminder.importer;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.event.TaskEventBus;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.ImportReport;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.example.taskreminder.service.TaskImportService;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Throughput benchmark for spreadsheet import. Generates a CSV file and an XLSX workbook with
+ * the same rows, then for each one measures parsing alone and a full import into a private
+ * in-memory H2 database, printing rows per second and peak heap use. Import peaks include the
+ * rows held by the in-memory database; the parse peaks show the readers' own footprint.
+ *
+ * <pre>
+ * java -Xmx256m -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.importer.ImportBenchmark \
+ *     --rows=1000000 --batch-size=1000
+ * </pre>
+ * Run with a small -Xmx to confirm parsing memory stays flat as --rows grows.
+ */
+public class ImportBenchmark {
+
+    private static final long START_EPOCH_MILLIS = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+
+    private final int rows;
+    private final int batchSize;
+    private Connection keepAlive;
+
+    ImportBenchmark(HarnessOptions options) {
+        this.rows = options.getInt("rows", 1000000);
+        this.batchSize = options.getInt("batch-size", 1000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+        new ImportBenchmark(options).run();
+    }
+
+    public void run() throws Exception {
+        File csv = Files.createTempFile("import-bench", ".csv").toFile();
+        File xlsx = Files.createTempFile("import-bench", ".xlsx").toFile();
+        try {
+            writeCsv(csv);
+            writeXlsx(xlsx);
+            System.out.printf("%d rows: csv %.1f MB, xlsx %.1f MB%n", rows, csv.length() / 1e6, xlsx.length() / 1e6);
+            System.out.println("format  phase   rows/s     seconds  peak heap MB");
+
+            measure("csv", "parse", () -> parse(new CsvRowReader(
+                new InputStreamReader(new FileInputStream(csv), StandardCharsets.UTF_8), ',')));
+            measure("xlsx", "parse", () -> parse(new XlsxRowReader(xlsx, null)));
+            measure("csv", "import", () -> {
+                try (InputStream in = new FileInputStream(csv)) {
+                    return newImportService().importCsv(in, new ImportOptions()).getImported();
+                }
+            });
+            measure("xlsx", "import", () -> newImportService().importXlsx(xlsx, new ImportOptions()).getImported());
+        } finally {
+            csv.delete();
+            xlsx.delete();
+            if (keepAlive != null) {
+                keepAlive.close();
+            }
+        }
+    }
+
+    private void measure(String format, String phase, Workload workload) throws Exception {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long started = System.nanoTime();
+        long count = workload.run();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        if (count != rows) {
+            System.out.printf("WARNING: %s %s handled %d of %d rows%n", format, phase, count, rows);
+        }
+        System.out.printf("%-6s  %-6s  %9.0f  %7.2f  %12.1f%n", format, phase, count / seconds, seconds, peak / 1e6);
+    }
+
+    private static long parse(RowReader reader) throws IOException {
+        long count = 0;
+        try (reader) {
+            // Header row is not counted
+            reader.nextRow();
+            while (reader.nextRow() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Import service over a fresh in-memory database, as the application uses, with no
+     * listeners and no scheduling. The database is dropped when its last connection closes.
+     */
+    private TaskImportService newImportService() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:importbench" + System.nanoTime());
+        // An in-memory database lives while a connection is open; closing the last one drops the previous run's data
+        if (keepAlive != null) {
+            keepAlive.close();
+        }
+        keepAlive = dataSource.getConnection();
+        ScriptUtils.executeSqlScript(keepAlive, new ClassPathResource("schema.sql"));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TaskRepository repository = new TaskRepository(jdbcTemplate, new NotificationOutboxRepository(jdbcTemplate),
+            new DataSourceTransactionManager(dataSource));
+        repository.init();
+        return new TaskImportService(repository, new TaskEventBus(), null, batchSize);
+    }
+
+    private void writeCsv(File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            out.write("Title,Description,Due Date,Email,Status\n");
+            for (int i = 0; i < rows; i++) {
+                out.write("Task " + i + ",\"Imported, row " + i + "\"," + due(i) + ",user" + (i % 1000)
+                    + "@example.com," + (i % 10 == 0 ? "Done" : "Open") + "\n");
+            }
+        }
+    }
+
+    /**
+     * Minimal workbook: inline strings for text and spreadsheet day numbers for due dates.
+     */
+    private void writeXlsx(File file) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            putEntry(zip, "[Content_Types].xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                + "</Types>");
+            putEntry(zip, "_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+            putEntry(zip, "xl/workbook.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                + "<sheets><sheet name=\"Tasks\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+            putEntry(zip, "xl/_rels/workbook.xml.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                + "</Relationships>");
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            Writer out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+            writeXlsxRow(out, 1, "Title", "Description", null, "Email", "Status");
+            for (int i = 0; i < rows; i++) {
+                // Day numbers count from 1899-12-30 (25569 is 1970-01-01)
+                double day = 25569.0 + due(i) / 86_400_000.0;
+                writeXlsxRow(out, i + 2, "Task " + i, "Imported, row " + i, String.valueOf(day),
+                    "user" + (i % 1000) + "@example.com", i % 10 == 0 ? "Done" : "Open");
+            }
+            out.write("</sheetData></worksheet>");
+            out.flush();
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Columns A to E; a null due cell becomes the "Due Date" header.
+     */
+    private static void writeXlsxRow(Writer out, int row, String title, String description, String due,
+                                     String email, String status) throws IOException {
+        out.write("<row r=\"" + row + "\">");
+        inlineCell(out, "A" + row, title);
+        inlineCell(out, "B" + row, description);
+        if (due == null) {
+            inlineCell(out, "C" + row, "Due Date");
+        } else {
+            out.write("<c r=\"C" + row + "\"><v>" + due + "</v></c>");
+        }
+        inlineCell(out, "D" + row, email);
+        inlineCell(out, "E" + row, status);
+        out.write("</row>");
+    }
+
+    private static void inlineCell(Writer out, String ref, String value) throws IOException {
+        out.write("<c r=\"" + ref + "\" t=\"inlineStr\"><is><t>" + value + "</t></is></c>");
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static long due(int i) {
+        return START_EPOCH_MILLIS + (i % 8760) * 3_600_000L;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        pools.removeIf(pool -> pool.getType() != MemoryType.HEAP);
+        return pools;
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        long run() throws Exception;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.taskreminder.notification;
+
+import com.example.taskreminder.harness.HarnessOptions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local webhook receiver for trying the webhook channel by hand. Accepts POSTs on any path,
+ * checks the signature, and prints one line per batch with the number of requests in flight,
+ * so batching and the per-endpoint concurrency limit are visible. Slow or failing receivers
+ * can be simulated with {@code --delay-millis} and {@code --fail-every}.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.notification.WebhookStubServer \
+ *     --port=9099 --secret=s3cret --delay-millis=200 --fail-every=0
+ * </pre>
+ */
+public class WebhookStubServer {
+
+    private final String secret;
+    private final long delayMillis;
+    private final int failEvery;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+
+    WebhookStubServer(HarnessOptions options) {
+        this.secret = options.get("secret", "");
+        this.delayMillis = options.getLong("delay-millis", 0);
+        this.failEvery = options.getInt("fail-every", 0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        HarnessOptions options = HarnessOptions.parse(args);
+        int port = options.getInt("port", 9099);
+
+        WebhookStubServer stub = new WebhookStubServer(options);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", stub::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.out.printf("webhook stub listening on http://127.0.0.1:%d/ (signature check %s)%n",
+            port, stub.secret.isEmpty() ? "off" : "on");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405);
+                return;
+            }
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            String timestamp = exchange.getRequestHeaders().getFirst(WebhookSignature.TIMESTAMP_HEADER);
+            String signature = exchange.getRequestHeaders().getFirst(WebhookSignature.SIGNATURE_HEADER);
+            String delivery = exchange.getRequestHeaders().getFirst(WebhookSignature.DELIVERY_HEADER);
+            boolean signed = secret.isEmpty() || WebhookSignature.verify(secret, timestamp, body, signature);
+
+            JsonNode payload = objectMapper.readTree(body);
+            int count = payload.path("events").size();
+            long request = requests.incrementAndGet();
+            long total = events.addAndGet(count);
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            int status = !signed ? 401 : failEvery > 0 && request % failEvery == 0 ? 500 : 204;
+            System.out.printf("%s %s delivery=%s events=%d signature=%s in-flight=%d (max %d) -> %d, %d events total%n",
+                exchange.getRequestMethod(), exchange.getRequestURI(), delivery, count,
+                secret.isEmpty() ? "unchecked" : signed ? "ok" : "BAD", concurrent, maxInFlight.get(), status, total);
+            for (JsonNode event : payload.path("events")) {
+                System.out.printf("    %s %s task=%s %s%n", event.path("type").asText(), event.path("id").asText(),
+                    event.path("taskId").asText(), event.path("title").asText());
+            }
+            respond(exchange, status);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503);
+        } catch (IOException e) {
+            respond(exchange, 400);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.taskreminder.readmodel;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Read benchmark for the in-memory read model against the database repository it wraps.
+ * Loads tasks into an H2 database, then runs each query from reader threads for a fixed
+ * time, first on the database and then on the read model, while a writer thread keeps
+ * updating random tasks through the read model. Checks that both give the same answers and
+ * prints queries per second for each.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.readmodel.ReadModelBenchmark \
+ *     --tasks=20000 --readers=4 --seconds=5
+ * </pre>
+ * {@code --writes-per-second=0} turns the background writer off.
+ */
+public class ReadModelBenchmark {
+
+    private final int tasks;
+    private final int recipients;
+    private final int readers;
+    private final int seconds;
+    private final int writesPerSecond;
+
+    ReadModelBenchmark(HarnessOptions options) {
+        this.tasks = options.getInt("tasks", 20000);
+        this.recipients = options.getInt("recipients", 1000);
+        this.readers = options.getInt("readers", 4);
+        this.seconds = options.getInt("seconds", 5);
+        this.writesPerSecond = options.getInt("writes-per-second", 200);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+        if (!new ReadModelBenchmark(options).run()) {
+            throw new IllegalStateException("Read model checks failed");
+        }
+    }
+
+    public boolean run() throws Exception {
+        System.out.printf("%d tasks, %d recipients, %d readers, %d s per query, %d writes/s, %d cores%n",
+            tasks, recipients, readers, seconds, writesPerSecond, Runtime.getRuntime().availableProcessors());
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:readmodelbench;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(readers + 2);
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            TaskRepository database = new TaskRepository(jdbcTemplate,
+                new NotificationOutboxRepository(jdbcTemplate), new DataSourceTransactionManager(dataSource));
+            database.init();
+            load(database);
+            ReadModelTaskRepository memory = new ReadModelTaskRepository(database);
+            long started = System.nanoTime();
+            memory.init();
+            System.out.printf("read model loaded in %.0f ms%n", (System.nanoTime() - started) / 1e6);
+
+            String problem = compare(database, memory);
+            Map<String, Consumer<TaskRepository>> queries = queries();
+            System.out.println("query                db q/s    memory q/s  speed-up");
+            for (Map.Entry<String, Consumer<TaskRepository>> query : queries.entrySet()) {
+                double onDatabase = measure(database, memory, query.getValue());
+                double inMemory = measure(memory, memory, query.getValue());
+                System.out.printf("%-17s %9.0f  %12.0f  %7.1fx%n", query.getKey(), onDatabase, inMemory,
+                    inMemory / onDatabase);
+            }
+            if (problem == null) {
+                problem = compare(database, memory);
+            }
+            System.out.println(problem == null ? "check: ok" : "check: " + problem);
+            return problem == null;
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private Map<String, Consumer<TaskRepository>> queries() {
+        Map<String, Consumer<TaskRepository>> queries = new LinkedHashMap<>();
+        queries.put("findById", repository ->
+            repository.findById(1L + ThreadLocalRandom.current().nextInt(tasks)));
+        queries.put("findByEmail(20)", repository ->
+            repository.findByEmail(randomEmail(), null, null, null, null, null, 20));
+        queries.put("count", TaskRepository::count);
+        queries.put("countByStatus", repository -> repository.countByStatus(TaskStatus.COMPLETED));
+        queries.put("findByStatus", repository -> repository.findByStatus(TaskStatus.COMPLETED));
+        return queries;
+    }
+
+    private void load(TaskRepository database) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Benchmark task " + i);
+            task.setDueTimestamp(now + random.nextLong(TimeUnit.DAYS.toMillis(30)));
+            task.setEmail("user" + random.nextInt(recipients) + "@example.com");
+            // One in ten completed, so findByStatus returns a tenth of the table
+            task.setStatus(i % 10 == 0 ? TaskStatus.COMPLETED : TaskStatus.PENDING);
+            task.setCreatedAt(now - i);
+            batch.add(task);
+            if (batch.size() == 1000) {
+                database.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            database.saveAll(batch);
+        }
+    }
+
+    /**
+     * Queries per second over all readers, with the writer running against the read model.
+     */
+    private double measure(TaskRepository target, ReadModelTaskRepository writeTarget,
+                           Consumer<TaskRepository> query) throws InterruptedException {
+        AtomicLong done = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    query.accept(target);
+                    count++;
+                }
+                done.addAndGet(count);
+            });
+            reader.start();
+            threads.add(reader);
+        }
+        Thread writer = new Thread(() -> write(writeTarget, stop));
+        if (writesPerSecond > 0) {
+            writer.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        stop.set(true);
+        if (writesPerSecond > 0) {
+            writer.join();
+        }
+        return done.get() / elapsed;
+    }
+
+    /**
+     * Re-time random tasks at a steady rate; status is left alone so counts stay comparable.
+     */
+    private void write(ReadModelTaskRepository repository, AtomicBoolean stop) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / writesPerSecond;
+        long next = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!stop.get()) {
+            repository.findById(1L + random.nextInt(tasks)).ifPresent(task -> {
+                task.setDueTimestamp(task.getDueTimestamp() + 1);
+                repository.update(task, Collections.emptyList());
+            });
+            next += interval;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Null when the read model answers a sample of queries exactly as the database does.
+     */
+    private String compare(TaskRepository database, TaskRepository memory) {
+        if (database.count() != memory.count()) {
+            return "count " + memory.count() + " != " + database.count();
+        }
+        if (!ids(database.findByStatus(TaskStatus.COMPLETED)).equals(ids(memory.findByStatus(TaskStatus.COMPLETED)))) {
+            return "findByStatus differs";
+        }
+        for (int i = 0; i < 100; i++) {
+            String email = randomEmail();
+            if (!snapshotOf(database.findByEmail(email, null, null, null, null, null, 50))
+                    .equals(snapshotOf(memory.findByEmail(email, null, null, null, null, null, 50)))) {
+                return "findByEmail differs for " + email;
+            }
+        }
+        return null;
+    }
+
+    private String randomEmail() {
+        return "user" + ThreadLocalRandom.current().nextInt(recipients) + "@example.com";
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    private static List<Integer> snapshotOf(List<Task> tasks) {
+        List<Integer> hashes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            hashes.add(Objects.hash(task.getId(), task.getTitle(), task.getDueTimestamp(), task.getEmail(),
+                task.getStatus(), task.getCreatedAt(), task.getCompletedAt(), task.getVersion()));
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.taskreminder.repository;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Footprint and row-mapping benchmark for {@link Task}. Loads tasks into an H2 database,
+ * maps every row repeatedly for a fixed time and prints rows mapped per second, then keeps
+ * one full result in memory and prints the heap it takes per task, as the scheduler and
+ * other in-memory holders of tasks keep them.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.repository.TaskMappingBenchmark \
+ *     --tasks=100000 --seconds=5
+ * </pre>
+ * The heap figure counts everything only the held tasks reference, their strings included.
+ * Run with a fixed heap ({@code -Xms512m -Xmx512m}) for steady numbers.
+ */
+public class TaskMappingBenchmark {
+
+    private final int tasks;
+    private final int seconds;
+
+    TaskMappingBenchmark(HarnessOptions options) {
+        this.tasks = options.getInt("tasks", 100000);
+        this.seconds = options.getInt("seconds", 5);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+        new TaskMappingBenchmark(options).run();
+    }
+
+    public void run() throws Exception {
+        System.out.printf("%d tasks, %d s of mapping, %d cores%n",
+            tasks, seconds, Runtime.getRuntime().availableProcessors());
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:mappingbench;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            TaskRepository repository = new TaskRepository(jdbcTemplate,
+                new NotificationOutboxRepository(jdbcTemplate), new DataSourceTransactionManager(dataSource));
+            load(jdbcTemplate);
+            repository.init();
+
+            // Warm up, then map the whole table until the time is up
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (System.nanoTime() < deadline) {
+                repository.findAll();
+            }
+            long rows = 0;
+            long started = System.nanoTime();
+            deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                rows += repository.findAll().size();
+            }
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            System.out.printf("mapping: %.0f rows/s (%.0f ns/row)%n", rows / elapsed, elapsed * 1e9 / rows);
+
+            // Measured by dropping the result rather than before taking it, as the database
+            // keeps the previous result of a repeated query cached until the next one replaces it
+            List<Task> held = repository.findAll();
+            int count = held.size();
+            long holding = usedHeap();
+            held = null;
+            long released = usedHeap();
+            System.out.printf("heap: %.1f bytes per held task (%d tasks)%n",
+                (double) (holding - released) / count, count);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Pending tasks with every tenth completed, written with plain SQL so the load itself
+     * does not go through the code being measured.
+     */
+    private void load(JdbcTemplate jdbcTemplate) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO tasks (title, description, due_timestamp, email, created_at, version) " +
+            "SELECT 'Benchmark task ' || X, CASE WHEN MOD(X, 4) = 0 THEN 'Details of task ' || X END, " +
+            "? + X * 60000, 'user' || MOD(X, 1000) || '@example.com', ? - X, X FROM SYSTEM_RANGE(1, ?)",
+            now, now, tasks);
+        jdbcTemplate.update("UPDATE tasks SET status = ?, completed_at = created_at + 1000 WHERE MOD(id, 10) = 0",
+            TaskStatus.COMPLETED.code());
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
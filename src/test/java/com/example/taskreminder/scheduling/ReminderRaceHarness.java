@@ -0,0 +1,269 @@
+package com.example.taskreminder.scheduling;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.service.ReminderCatchUpService;
+import com.example.taskreminder.service.ReminderDispatcher;
+import com.example.taskreminder.service.ReminderSendShaper;
+import com.example.taskreminder.service.ScheduleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stress harness for ScheduleService on real threads and wall-clock time.
+ *
+ * Phase 1 hammers schedule / cancel / fire for a small set of task IDs from many threads.
+ * Phase 2 cancels everything and checks that nothing fires afterwards and no futures or
+ * records are left behind. Phase 3 reschedules every task concurrently and checks each one
+ * fires exactly once. Finally a schedule+cancel throughput run shows the contention profile
+ * for disjoint and shared task IDs. Exits non-zero if any invariant is violated.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.scheduling.ReminderRaceHarness \
+ *     --threads=8 --tasks=64 --seconds=10
+ * </pre>
+ */
+public class ReminderRaceHarness {
+
+    private final int threads;
+    private final int tasks;
+    private final int seconds;
+
+    private final AtomicLong generations = new AtomicLong();
+    private final Map<String, AtomicInteger> sends = new ConcurrentHashMap<>();
+    private final List<String> violations = new ArrayList<>();
+
+    ReminderRaceHarness(HarnessOptions options) {
+        this.threads = options.getInt("threads", 8);
+        this.tasks = options.getInt("tasks", 64);
+        this.seconds = options.getInt("seconds", 10);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+
+        ReminderRaceHarness harness = new ReminderRaceHarness(options);
+        boolean ok = harness.checkInvariants();
+        harness.measureThroughput();
+        if (!ok) {
+            throw new IllegalStateException("Reminder invariants violated");
+        }
+    }
+
+    /**
+     * Runs phases 1 to 3 and prints any violations. Returns true when all invariants hold.
+     */
+    public boolean checkInvariants() throws InterruptedException {
+        Pipeline pipeline = new Pipeline();
+        ScheduleService scheduleService = pipeline.scheduleService;
+
+        // Phase 1: random schedule / cancel / info calls racing with fires
+        AtomicLong operations = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        runConcurrently(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long ops = 0;
+            while (System.nanoTime() < deadline) {
+                long taskId = random.nextInt(tasks);
+                int op = random.nextInt(100);
+                if (op < 45) {
+                    // Mostly a few ms out so fires race with cancels; some overdue for the catch-up lane
+                    long due = System.currentTimeMillis() + (op < 5 ? -1L : random.nextInt(5));
+                    scheduleService.scheduleReminder(newTask(taskId, due));
+                } else if (op < 90) {
+                    scheduleService.cancelReminder(taskId);
+                } else {
+                    scheduleService.getReminderInfo(taskId);
+                }
+                ops++;
+            }
+            operations.addAndGet(ops);
+        });
+        System.out.printf("phase 1: %d operations on %d tasks from %d threads, %d reminders sent%n",
+            operations.get(), tasks, threads, totalSends());
+
+        // Phase 2: cancel everything; nothing may fire afterwards and nothing may be left behind
+        for (long taskId = 0; taskId < tasks; taskId++) {
+            scheduleService.cancelReminder(taskId);
+        }
+        // Sends that won the race before the cancels may still be finishing
+        Thread.sleep(200);
+        long settled = totalSends();
+        Thread.sleep(500);
+        check(totalSends() == settled, "reminders fired after being cancelled: " + (totalSends() - settled));
+        check(scheduleService.getScheduledReminderCount() == 0,
+            "records left after cancel: " + scheduleService.getScheduledReminderCount());
+        check(pipeline.scheduler.getQueue().isEmpty(), "orphaned futures: " + pipeline.scheduler.getQueue().size());
+        check(pipeline.catchUp.getBacklogSize() == 0, "orphaned catch-up entries: " + pipeline.catchUp.getBacklogSize());
+        System.out.printf("phase 2: cancelled all, %d reminders sent in total%n", settled);
+
+        // Phase 3: every thread reschedules every task; the last schedule of each must fire exactly once
+        Map<Long, Long> phase3Sends = new ConcurrentHashMap<>();
+        long due = System.currentTimeMillis() + 50;
+        long before = generations.get();
+        runConcurrently(threads, () -> {
+            for (long taskId = 0; taskId < tasks; taskId++) {
+                scheduleService.scheduleReminder(newTask(taskId, due));
+            }
+        });
+        Thread.sleep(500);
+        for (long taskId = 0; taskId < tasks; taskId++) {
+            phase3Sends.put(taskId, 0L);
+        }
+        for (Map.Entry<String, AtomicInteger> entry : sends.entrySet()) {
+            String[] parts = entry.getKey().split("-g");
+            if (Long.parseLong(parts[1]) >= before) {
+                phase3Sends.merge(Long.parseLong(parts[0].substring(1)), (long) entry.getValue().get(), Long::sum);
+            }
+        }
+        phase3Sends.forEach((taskId, count) ->
+            check(count == 1, "task " + taskId + " fired " + count + " times after concurrent rescheduling"));
+        check(scheduleService.getScheduledReminderCount() == 0,
+            "records left after firing: " + scheduleService.getScheduledReminderCount());
+        System.out.printf("phase 3: %d tasks rescheduled by %d threads each%n", tasks, threads);
+
+        // At most one send per schedule call, across all phases
+        sends.forEach((generation, count) -> check(count.get() <= 1, generation + " sent " + count.get() + " times"));
+
+        pipeline.shutdown();
+        if (violations.isEmpty()) {
+            System.out.println("all invariants hold");
+        } else {
+            violations.forEach(v -> System.out.println("VIOLATION: " + v));
+        }
+        return violations.isEmpty();
+    }
+
+    /**
+     * Schedule+cancel pairs per second for increasing thread counts, with each thread on its own
+     * task IDs (no contention) and with all threads sharing eight task IDs (heavy contention).
+     */
+    public void measureThroughput() throws InterruptedException {
+        System.out.println("threads  disjoint ops/s  shared ops/s");
+        int maxThreads = Math.max(threads, 1);
+        for (int n = 1; n <= maxThreads; n *= 2) {
+            System.out.printf("%7d  %14.0f  %12.0f%n", n, throughput(n, false), throughput(n, true));
+        }
+    }
+
+    private double throughput(int threadCount, boolean shared) throws InterruptedException {
+        Pipeline pipeline = new Pipeline();
+        ScheduleService scheduleService = pipeline.scheduleService;
+        // Far enough out that nothing fires during the run
+        long due = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        AtomicLong operations = new AtomicLong();
+        AtomicInteger threadIds = new AtomicInteger();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        long started = System.nanoTime();
+        runConcurrently(threadCount, () -> {
+            int thread = threadIds.getAndIncrement();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long ops = 0;
+            while (System.nanoTime() < deadline) {
+                long taskId = shared ? random.nextInt(8) : thread * 1_000_000L + (ops & 1023);
+                scheduleService.scheduleReminder(newTask(taskId, due));
+                scheduleService.cancelReminder(taskId);
+                ops++;
+            }
+            operations.addAndGet(ops);
+        });
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        pipeline.shutdown();
+        return operations.get() / elapsedSeconds;
+    }
+
+    private Task newTask(long taskId, long due) {
+        // Title carries a unique generation so every schedule call's sends can be counted
+        String title = "t" + taskId + "-g" + generations.getAndIncrement();
+        return new Task(taskId, title, null, due, "user" + taskId + "@example.com", TaskStatus.PENDING, due,
+            Task.ABSENT);
+    }
+
+    private long totalSends() {
+        return sends.values().stream().mapToLong(AtomicInteger::get).sum();
+    }
+
+    private void check(boolean condition, String violation) {
+        if (!condition) {
+            synchronized (violations) {
+                violations.add(violation);
+            }
+        }
+    }
+
+    private static void runConcurrently(int threadCount, Runnable body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * The production scheduling pipeline with a dispatcher that counts sends instead of emailing.
+     */
+    private final class Pipeline {
+        private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(4);
+        private final ScheduledExecutorService shaperExecutor = Executors.newSingleThreadScheduledExecutor();
+        private final ExecutorService senders = Executors.newFixedThreadPool(4);
+        private final ScheduledExecutorService catchUpExecutor = Executors.newSingleThreadScheduledExecutor();
+        private final ReminderCatchUpService catchUp;
+        private final ScheduleService scheduleService;
+
+        Pipeline() {
+            scheduler.setRemoveOnCancelPolicy(true);
+            Clock clock = Clock.systemUTC();
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            ReminderDispatcher dispatcher = new ReminderDispatcher(null, null, null, clock) {
+                @Override
+                public void dispatch(Task task, String timezone, long remindAt) {
+                    sends.computeIfAbsent(task.getTitle(), k -> new AtomicInteger()).incrementAndGet();
+                }
+            };
+            // Shaping on with no lead and no effective rate limit, so fires go through the shaper hand-off
+            ReminderSendShaper shaper = new ReminderSendShaper(registry, shaperExecutor, senders, clock,
+                true, 1_000_000, 1_000_000, 0);
+            this.catchUp = new ReminderCatchUpService(registry, catchUpExecutor, shaper, clock, true, 1_000_000, 60);
+            this.scheduleService = new ScheduleService(dispatcher, catchUp, shaper, null, scheduler, clock);
+        }
+
+        void shutdown() {
+            scheduler.shutdownNow();
+            shaperExecutor.shutdownNow();
+            senders.shutdownNow();
+            catchUpExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.taskreminder.scheduling;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.service.ReminderCatchUpService;
+import com.example.taskreminder.service.ReminderDispatcher;
+import com.example.taskreminder.service.ReminderSendShaper;
+import com.example.taskreminder.service.ScheduleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline driver that replays a day (or more) of reminder traffic through the real
+ * ScheduleService / ReminderSendShaper pipeline on virtual time.
+ *
+ * Usage (after {@code mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp-test.txt}):
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.scheduling.SchedulerSimulation \
+ *     --reminders=1000000 --hours=24 --round-hour-share=0.8 --global-rate=500 --domain-rate=200 --lead-seconds=60
+ * </pre>
+ * Runs the workload once without and once with send shaping, and prints throughput,
+ * fire ordering, lag distribution and peak-to-average send rate for each.
+ */
+public class SchedulerSimulation {
+
+    private static final long START_EPOCH_MILLIS = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+
+    private final int reminders;
+    private final int hours;
+    private final double roundHourShare;
+    private final double globalRate;
+    private final double domainRate;
+    private final long leadSeconds;
+    private final long seed;
+
+    SchedulerSimulation(HarnessOptions options) {
+        this.reminders = options.getInt("reminders", 1000000);
+        this.hours = options.getInt("hours", 24);
+        this.roundHourShare = options.getDouble("round-hour-share", 0.8);
+        this.globalRate = options.getDouble("global-rate", 500);
+        this.domainRate = options.getDouble("domain-rate", 200);
+        this.leadSeconds = options.getLong("lead-seconds", 60);
+        this.seed = options.getLong("seed", 42);
+    }
+
+    public static void main(String[] args) {
+        // Per-reminder INFO logging would dominate the run time
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+
+        SchedulerSimulation simulation = new SchedulerSimulation(options);
+        simulation.run(false).print("unshaped");
+        simulation.run(true).print("shaped");
+    }
+
+    /**
+     * Replay the workload once and collect the results.
+     */
+    public Result run(boolean shaping) {
+        VirtualClock clock = new VirtualClock(START_EPOCH_MILLIS);
+        VirtualTimeScheduler scheduler = new VirtualTimeScheduler(clock);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        Result result = new Result(reminders);
+        RecordingDispatcher dispatcher = new RecordingDispatcher(clock, result);
+        ReminderSendShaper shaper = new ReminderSendShaper(registry, scheduler, scheduler, clock,
+            shaping, globalRate, domainRate, leadSeconds);
+        ReminderCatchUpService catchUp = new ReminderCatchUpService(registry, scheduler, shaper, clock,
+            true, globalRate, TimeUnit.DAYS.toMinutes(1));
+        ScheduleService scheduleService = new ScheduleService(dispatcher, catchUp, shaper, null, scheduler, clock);
+
+        long wallStart = System.nanoTime();
+        Random random = new Random(seed);
+        // Reminders are scheduled from one hour in, so the earliest ones still have a full lead window
+        long windowStart = START_EPOCH_MILLIS + TimeUnit.HOURS.toMillis(1);
+        long windowMillis = TimeUnit.HOURS.toMillis(hours);
+        for (int i = 0; i < reminders; i++) {
+            long due;
+            if (random.nextDouble() < roundHourShare) {
+                due = windowStart + TimeUnit.HOURS.toMillis(random.nextInt(hours));
+            } else {
+                due = windowStart + (long) (random.nextDouble() * windowMillis);
+            }
+            Task task = new Task((long) i, "Task " + i, null, due, "user" + i + "@" + domain(random),
+                TaskStatus.PENDING, START_EPOCH_MILLIS, Task.ABSENT);
+            result.due[i] = due;
+            scheduleService.scheduleReminder(task);
+        }
+
+        long tasksRun = scheduler.runUntilIdle();
+        result.wallNanos = System.nanoTime() - wallStart;
+        result.virtualMillis = clock.millis() - START_EPOCH_MILLIS;
+        result.executorTasks = tasksRun;
+        return result;
+    }
+
+    private static String domain(Random random) {
+        // A few large providers plus a long tail, roughly like real recipient lists
+        double r = random.nextDouble();
+        if (r < 0.35) {
+            return "gmail.com";
+        }
+        if (r < 0.55) {
+            return "outlook.com";
+        }
+        if (r < 0.65) {
+            return "yahoo.com";
+        }
+        return "company" + random.nextInt(500) + ".com";
+    }
+
+    /**
+     * Dispatcher that records fire times instead of sending email.
+     */
+    private static class RecordingDispatcher extends ReminderDispatcher {
+        private final VirtualClock clock;
+        private final Result result;
+
+        RecordingDispatcher(VirtualClock clock, Result result) {
+            super(null, null, null, clock);
+            this.clock = clock;
+            this.result = result;
+        }
+
+        @Override
+        public void dispatch(Task task, String timezone, long remindAt) {
+            int index = task.getId().intValue();
+            result.fired[index] = clock.millis();
+            result.fireOrder[result.firedCount++] = index;
+        }
+    }
+
+    /**
+     * Collected measurements for one run.
+     */
+    public static class Result {
+        private final long[] due;
+        private final long[] fired;
+        private final int[] fireOrder;
+        private int firedCount;
+        private long wallNanos;
+        private long virtualMillis;
+        private long executorTasks;
+
+        Result(int reminders) {
+            this.due = new long[reminders];
+            this.fired = new long[reminders];
+            this.fireOrder = new int[reminders];
+        }
+
+        void print(String label) {
+            double wallSeconds = wallNanos / 1e9;
+            long[] lags = new long[firedCount];
+            long early = 0;
+            long inversions = 0;
+            for (int i = 0; i < firedCount; i++) {
+                int index = fireOrder[i];
+                lags[i] = fired[index] - due[index];
+                if (lags[i] < 0) {
+                    early++;
+                }
+                if (i > 0 && due[index] < due[fireOrder[i - 1]]) {
+                    inversions++;
+                }
+            }
+            Arrays.sort(lags);
+
+            // Peak-to-average send rate over one-second buckets between the first and last send
+            long first = Long.MAX_VALUE;
+            long last = Long.MIN_VALUE;
+            Map<Long, Integer> perSecond = new HashMap<>();
+            for (int i = 0; i < firedCount; i++) {
+                long second = fired[fireOrder[i]] / 1000L;
+                first = Math.min(first, second);
+                last = Math.max(last, second);
+                perSecond.merge(second, 1, Integer::sum);
+            }
+            int peak = perSecond.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            double average = firedCount / (double) Math.max(1L, last - first + 1);
+
+            System.out.printf("=== %s ===%n", label);
+            System.out.printf("reminders fired:     %d (%d executor tasks)%n", firedCount, executorTasks);
+            System.out.printf("virtual time:        %.1f h in %.2f s wall (%.0fx real time)%n",
+                virtualMillis / 3_600_000.0, wallSeconds, virtualMillis / 1000.0 / Math.max(wallSeconds, 1e-9));
+            System.out.printf("throughput:          %.0f reminders/s wall%n", firedCount / Math.max(wallSeconds, 1e-9));
+            System.out.printf("fire ordering:       %d adjacent due-order inversions%n", inversions);
+            System.out.printf("lag ms (fire - due): min %d, p50 %d, p90 %d, p99 %d, p99.9 %d, max %d, early %d%n",
+                percentile(lags, 0), percentile(lags, 0.5), percentile(lags, 0.9), percentile(lags, 0.99),
+                percentile(lags, 0.999), percentile(lags, 1.0), early);
+            System.out.printf("send rate per sec:   peak %d, average %.1f, peak/average %.1f%n",
+                peak, average, peak / Math.max(average, 1e-9));
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)));
+            return sorted[index];
+        }
+    }
+}
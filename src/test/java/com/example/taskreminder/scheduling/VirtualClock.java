@@ -0,0 +1,52 @@
+package com.example.taskreminder.scheduling;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Clock whose time only moves when advanced explicitly, for deterministic simulations.
+ */
+public class VirtualClock extends Clock {
+
+    private volatile long epochNanos;
+
+    public VirtualClock(long startEpochMillis) {
+        this.epochNanos = startEpochMillis * 1_000_000L;
+    }
+
+    public long nanos() {
+        return epochNanos;
+    }
+
+    /**
+     * Move time forward. Going backwards is ignored.
+     */
+    public void advanceTo(long newEpochNanos) {
+        if (newEpochNanos > epochNanos) {
+            epochNanos = newEpochNanos;
+        }
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException("VirtualClock is always UTC");
+    }
+
+    @Override
+    public long millis() {
+        return epochNanos / 1_000_000L;
+    }
+
+    @Override
+    public Instant instant() {
+        long nanos = epochNanos;
+        return Instant.ofEpochSecond(nanos / 1_000_000_000L, nanos % 1_000_000_000L);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.taskreminder.scheduling;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded ScheduledExecutorService driven by a {@link VirtualClock}.
+ * Nothing runs on its own: the caller drives execution with {@link #runUntil(long)} or
+ * {@link #runUntilIdle()}, which jump the clock straight to the next task's time. Tasks due
+ * at the same instant run in submission order, so runs are fully deterministic.
+ */
+public class VirtualTimeScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final VirtualClock clock;
+    private final PriorityQueue<VirtualTask<?>> queue = new PriorityQueue<>();
+    private long sequence;
+    private long executed;
+    private boolean shutdown;
+
+    public VirtualTimeScheduler(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Run every task due at or before the given epoch time, advancing the clock as it goes.
+     * Returns the number of tasks run.
+     */
+    public long runUntil(long epochNanos) {
+        long ran = drain(epochNanos);
+        clock.advanceTo(epochNanos);
+        return ran;
+    }
+
+    /**
+     * Run until no tasks remain (periodic tasks must be cancelled first), leaving the clock at the
+     * time of the last task. Returns the number of tasks run.
+     */
+    public long runUntilIdle() {
+        return drain(Long.MAX_VALUE);
+    }
+
+    public synchronized int getQueuedTaskCount() {
+        return queue.size();
+    }
+
+    public long getExecutedTaskCount() {
+        return executed;
+    }
+
+    private long drain(long epochNanos) {
+        long ran = 0;
+        while (true) {
+            VirtualTask<?> next;
+            synchronized (this) {
+                next = queue.peek();
+                if (next == null || next.time > epochNanos) {
+                    break;
+                }
+                queue.poll();
+            }
+            clock.advanceTo(next.time);
+            next.run();
+            ran++;
+        }
+        executed += ran;
+        return ran;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return enqueue(new VirtualTask<>(command, null, at(delay, unit), 0L));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return enqueue(new VirtualTask<>(null, callable, at(delay, unit), 0L));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return enqueue(new VirtualTask<>(command, null, at(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        // Tasks take no virtual time, so fixed delay and fixed rate are the same here
+        return scheduleAtFixedRate(command, initialDelay, delay, unit);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        shutdown = true;
+        queue.clear();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return shutdown && queue.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private long at(long delay, TimeUnit unit) {
+        return clock.nanos() + Math.max(0L, unit.toNanos(delay));
+    }
+
+    private synchronized <V> VirtualTask<V> enqueue(VirtualTask<V> task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("VirtualTimeScheduler is shut down");
+        }
+        task.sequence = sequence++;
+        queue.add(task);
+        return task;
+    }
+
+    private synchronized void requeue(VirtualTask<?> task) {
+        if (!shutdown) {
+            task.sequence = sequence++;
+            queue.add(task);
+        }
+    }
+
+    private final class VirtualTask<V> implements ScheduledFuture<V>, Runnable {
+        private final Runnable runnable;
+        private final Callable<V> callable;
+        private final long period;
+        private long time;
+        private long sequence;
+        private boolean cancelled;
+        private boolean done;
+        private V result;
+        private Throwable failure;
+
+        VirtualTask(Runnable runnable, Callable<V> callable, long time, long period) {
+            this.runnable = runnable;
+            this.callable = callable;
+            this.time = time;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                if (callable != null) {
+                    result = callable.call();
+                } else {
+                    runnable.run();
+                }
+            } catch (Throwable t) {
+                failure = t;
+                done = true;
+                return;
+            }
+            if (period > 0 && !cancelled) {
+                time += period;
+                requeue(this);
+            } else {
+                done = true;
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - clock.nanos(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            VirtualTask<?> that = (VirtualTask<?>) other;
+            int byTime = Long.compare(time, that.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, that.sequence);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            done = true;
+            synchronized (VirtualTimeScheduler.this) {
+                queue.remove(this);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public V get() throws ExecutionException {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            if (!done) {
+                throw new IllegalStateException("Virtual task has not run yet; drive the scheduler first");
+            }
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return result;
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws ExecutionException {
+            return get();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.template.RenderedEmail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for rendering a reminder email body. {@code formatted} is how bodies were built
+ * before templates: {@code String.format} over an inline text and {@code Date.toString()}.
+ * The others render the precompiled {@code reminder} template with a cached zone-aware
+ * formatter, in the default locale (text and HTML parts) and in a locale with only a text
+ * template; {@code dueDateOnly} is the formatter's share of that.
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp-test.txt
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) org.openjdk.jmh.Main EmailRenderingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private static final String TITLE = "Quarterly report";
+    private static final String DESCRIPTION = "Collect the numbers from every team and send the summary";
+    private static final long DUE = 1735732800000L;
+    private static final String TIMEZONE = "Europe/Madrid";
+    private static final Locale SPANISH = Locale.forLanguageTag("es");
+
+    private EmailTemplateService templateService;
+
+    @Setup
+    public void setUp() throws IOException {
+        templateService = new EmailTemplateService("EEE, d MMM yyyy HH:mm z", "en");
+        templateService.init();
+    }
+
+    @Benchmark
+    public String formatted() {
+        return String.format(
+            "This is a reminder for your task:\n\n" +
+            "Title: %s\n" +
+            "Description: %s\n" +
+            "Due Date: %s\n\n" +
+            "Please complete this task before the due date.",
+            TITLE, DESCRIPTION, new Date(DUE).toString());
+    }
+
+    @Benchmark
+    public RenderedEmail precompiled() {
+        return render(null);
+    }
+
+    @Benchmark
+    public RenderedEmail precompiledSpanish() {
+        return render(SPANISH);
+    }
+
+    @Benchmark
+    public String dueDateOnly() {
+        return templateService.formatTimestamp(DUE, TIMEZONE, null);
+    }
+
+    private RenderedEmail render(Locale locale) {
+        String dueDate = templateService.formatTimestamp(DUE, TIMEZONE, locale);
+        return templateService.render("reminder", locale, name -> {
+            switch (name) {
+                case "title": return TITLE;
+                case "description": return DESCRIPTION;
+                case "dueDate": return dueDate;
+                default: return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.taskreminder.service;
+
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for encoding a {@code /tasks/list} page as JSON and as CBOR, and decoding it
+ * back. Both mappers come from a {@link Jackson2ObjectMapperBuilder}, as in the application.
+ * The encoded size of the page in each format is printed once per fork.
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp-test.txt
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) org.openjdk.jmh.Main TaskEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskEncodingBenchmark {
+
+    private static final TypeReference<List<Task>> TASK_LIST = new TypeReference<List<Task>>() {
+    };
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"100"})
+    public int tasks;
+
+    private ObjectMapper mapper;
+    private List<Task> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        mapper = "cbor".equals(format) ? builder.factory(new CBORFactory()).build() : builder.build();
+        page = new ArrayList<>(tasks);
+        long now = 1792420000000L;
+        for (int i = 1; i <= tasks; i++) {
+            Task task = new Task(i, "Quarterly report " + i, "Collect the numbers from every team and send the summary",
+                now + i * 3_600_000L, "user" + i + "@example.com", i % 3 == 0 ? TaskStatus.COMPLETED : TaskStatus.PENDING,
+                now - 86_400_000L, i % 3 == 0 ? now : Task.ABSENT);
+            task.setVersion((long) i);
+            task.setLocale("es");
+            page.add(task);
+        }
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.println(format + ": " + tasks + " tasks encode to " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<Task> decode() throws IOException {
+        return mapper.readValue(encoded, TASK_LIST);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.taskreminder.sharding;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write and scatter-gather benchmark for the sharded task store over local H2 databases.
+ * For each shard count, writer threads insert tasks for random recipients for a fixed time,
+ * then the whole store is listed and counted. Checks that every id is unique and the merged
+ * listing is newest first, and prints inserts per second, speed-up over the first shard
+ * count, and the listing and count times.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.sharding.ShardBenchmark \
+ *     --shards=1,2,4 --writers=8 --seconds=10 --storage=file
+ * </pre>
+ * {@code --storage=mem} uses in-memory databases; {@code file} writes each shard to its own
+ * file under a temporary directory. {@code --batch-size} above 1 inserts with saveAll.
+ */
+public class ShardBenchmark {
+
+    private final int[] shardCounts;
+    private final int writers;
+    private final int seconds;
+    private final int warmupSeconds;
+    private final int batchSize;
+    private final int recipients;
+    private final String storage;
+
+    ShardBenchmark(HarnessOptions options) {
+        this.shardCounts = Arrays.stream(options.get("shards", "1,2,4").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+        this.writers = options.getInt("writers", 8);
+        this.seconds = options.getInt("seconds", 10);
+        this.warmupSeconds = options.getInt("warmup-seconds", 5);
+        this.batchSize = options.getInt("batch-size", 1);
+        this.recipients = options.getInt("recipients", 10000);
+        this.storage = options.get("storage", "file");
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+        if (!new ShardBenchmark(options).run()) {
+            throw new IllegalStateException("Shard checks failed");
+        }
+    }
+
+    public boolean run() throws Exception {
+        System.out.printf("%d writers, %d s per run, batch size %d, %s storage, %d cores%n",
+            writers, seconds, batchSize, storage, Runtime.getRuntime().availableProcessors());
+        // Unreported run so the first measured shard count is not paying for JIT compilation
+        if (warmupSeconds > 0) {
+            measure(shardCounts[shardCounts.length - 1], warmupSeconds);
+        }
+        System.out.println("shards  inserts/s  speed-up    rows  findAll ms  count ms  check");
+        boolean ok = true;
+        double baseline = 0;
+        for (int shards : shardCounts) {
+            Run run = measure(shards, seconds);
+            if (baseline == 0) {
+                baseline = run.insertsPerSecond;
+            }
+            ok &= run.problem == null;
+            System.out.printf("%6d  %9.0f  %7.2fx  %6d  %10.1f  %8.1f  %s%n", shards, run.insertsPerSecond,
+                run.insertsPerSecond / baseline, run.rows, run.listMillis, run.countMillis,
+                run.problem == null ? "ok" : run.problem);
+        }
+        return ok;
+    }
+
+    /**
+     * One timed run over fresh databases.
+     */
+    private Run measure(int shards, int runSeconds) throws Exception {
+        File directory = Files.createTempDirectory("shard-bench").toFile();
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                dataSources.add(newDataSource(directory, shard));
+            }
+            ShardedTaskRepository repository = new ShardedTaskRepository(new ArrayList<DataSource>(dataSources), shards * 2);
+            repository.init();
+            try {
+                Run run = new Run();
+                run.insertsPerSecond = measureWrites(repository, runSeconds);
+
+                long started = System.nanoTime();
+                List<Task> all = repository.findAll();
+                run.listMillis = (System.nanoTime() - started) / 1e6;
+                started = System.nanoTime();
+                run.rows = repository.count();
+                run.countMillis = (System.nanoTime() - started) / 1e6;
+                run.problem = check(all, run.rows);
+                return run;
+            } finally {
+                repository.shutdown();
+            }
+        } finally {
+            dataSources.forEach(HikariDataSource::close);
+            deleteRecursively(directory);
+        }
+    }
+
+    private double measureWrites(ShardedTaskRepository repository, int runSeconds) throws InterruptedException {
+        AtomicLong inserted = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(runSeconds);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    if (batchSize > 1) {
+                        List<Task> batch = new ArrayList<>(batchSize);
+                        for (int j = 0; j < batchSize; j++) {
+                            batch.add(newTask(random));
+                        }
+                        repository.saveAll(batch);
+                        count += batchSize;
+                    } else {
+                        repository.save(newTask(random));
+                        count++;
+                    }
+                }
+                inserted.addAndGet(count);
+            });
+            writer.start();
+            threads.add(writer);
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return inserted.get() / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private Task newTask(ThreadLocalRandom random) {
+        long now = System.currentTimeMillis();
+        Task task = new Task();
+        task.setTitle("Benchmark task");
+        task.setDueTimestamp(now + TimeUnit.DAYS.toMillis(1));
+        task.setEmail("user" + random.nextInt(recipients) + "@example.com");
+        task.setStatus(TaskStatus.PENDING);
+        task.setCreatedAt(now);
+        return task;
+    }
+
+    /**
+     * Null when every id is unique, the listing matches the count and is newest first.
+     */
+    private static String check(List<Task> all, long count) {
+        if (all.size() != count) {
+            return "listed " + all.size() + " of " + count;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            if (!ids.add(all.get(i).getId())) {
+                return "duplicate id " + all.get(i).getId();
+            }
+            if (i > 0 && all.get(i).getCreatedAt() > all.get(i - 1).getCreatedAt()) {
+                return "out of order at row " + i;
+            }
+        }
+        return null;
+    }
+
+    private HikariDataSource newDataSource(File directory, int shard) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("mem".equals(storage)
+            ? "jdbc:h2:mem:shardbench-" + directory.getName() + "-" + shard
+            : "jdbc:h2:file:" + new File(directory, "shard" + shard).getAbsolutePath());
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(writers);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static final class Run {
+        double insertsPerSecond;
+        long rows;
+        double listMillis;
+        double countMillis;
+        String problem;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.taskreminder.writebehind;
+
+import ch.qos.logback.classic.Level;
+import com.example.taskreminder.harness.HarnessOptions;
+import com.example.taskreminder.model.OutboxMessage;
+import com.example.taskreminder.model.Task;
+import com.example.taskreminder.model.TaskStatus;
+import com.example.taskreminder.readmodel.ReadModelTaskRepository;
+import com.example.taskreminder.repository.NotificationOutboxRepository;
+import com.example.taskreminder.repository.TaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Completion benchmark for the write-behind log against the database repository it wraps.
+ * Client threads complete distinct tasks for a fixed time the way {@code PUT /completion/mark}
+ * does: a status check, a read of the task, then the completion with its email notification.
+ * Runs once committing every completion and once through a {@link WriteBehindTaskRepository},
+ * each on a fresh database, prints completions per second, and checks that every completion
+ * and its notification were committed.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp-test.txt) com.example.taskreminder.writebehind.WriteBehindBenchmark \
+ *     --tasks=200000 --clients=8 --seconds=5 --commit-latency-millis=5 --flush-size=500
+ * </pre>
+ * {@code --url} sets the database; the default is an H2 file database that writes each commit
+ * to its file, as a durable database would. {@code --read-model=true} puts the in-memory read
+ * model under both runs, so the reads of each completion no longer go to the database. The
+ * write-behind run journals its completions to {@code target/writebehind-bench} as the durable
+ * configuration does; {@code --journal=false} measures the in-memory log alone.
+ */
+public class WriteBehindBenchmark {
+
+    private final int tasks;
+    private final int clients;
+    private final int seconds;
+    private final long commitLatencyMillis;
+    private final int flushSize;
+    private final boolean readModel;
+    private final boolean journal;
+    private final String url;
+
+    WriteBehindBenchmark(HarnessOptions options) {
+        this.tasks = options.getInt("tasks", 200000);
+        this.clients = options.getInt("clients", 8);
+        this.seconds = options.getInt("seconds", 5);
+        this.commitLatencyMillis = options.getLong("commit-latency-millis", 5);
+        this.flushSize = options.getInt("flush-size", 500);
+        this.readModel = options.getBoolean("read-model", false);
+        this.journal = options.getBoolean("journal", true);
+        this.url = options.get("url", "jdbc:h2:file:./target/writebehind-bench/{run};WRITE_DELAY=0");
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HarnessOptions options = HarnessOptions.parse(args);
+        if (!new WriteBehindBenchmark(options).run()) {
+            throw new IllegalStateException("Write-behind checks failed");
+        }
+    }
+
+    public boolean run() throws Exception {
+        System.out.printf("%d tasks, %d clients, %d s per run, commit latency %d ms, flush size %d, read model %s, " +
+                "journal %s, %d cores%n",
+            tasks, clients, seconds, commitLatencyMillis, flushSize, readModel ? "on" : "off", journal ? "on" : "off",
+            Runtime.getRuntime().availableProcessors());
+        double direct = measure("direct", false);
+        double writeBehind = measure("write-behind", true);
+        if (direct < 0 || writeBehind < 0) {
+            return false;
+        }
+        System.out.printf("speed-up: %.1fx%n", writeBehind / direct);
+        return true;
+    }
+
+    /**
+     * Completions per second, or -1 if the committed state does not match what was acknowledged.
+     */
+    private double measure(String run, boolean writeBehind) throws Exception {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url.replace("{run}", run));
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(clients + 2);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("DROP ALL OBJECTS");
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            load(jdbcTemplate);
+            TaskRepository database = new TaskRepository(jdbcTemplate,
+                new NotificationOutboxRepository(jdbcTemplate), new DataSourceTransactionManager(dataSource));
+            database.init();
+            if (readModel) {
+                database = new ReadModelTaskRepository(database);
+                database.init();
+            }
+            WriteBehindTaskRepository log = null;
+            TaskRepository repository = database;
+            if (writeBehind) {
+                Path journalFile = null;
+                if (journal) {
+                    journalFile = Paths.get("target", "writebehind-bench", run + ".journal");
+                    Files.deleteIfExists(journalFile);
+                }
+                log = new WriteBehindTaskRepository(database, commitLatencyMillis, flushSize, journalFile, task -> List.of());
+                log.init();
+                repository = log;
+            }
+
+            AtomicLong nextId = new AtomicLong();
+            AtomicLong completed = new AtomicLong();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            List<Thread> threads = new ArrayList<>();
+            TaskRepository target = repository;
+            long started = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                Thread thread = new Thread(() -> {
+                    long id;
+                    while (System.nanoTime() < deadline && (id = nextId.incrementAndGet()) <= tasks) {
+                        if (complete(target, id)) {
+                            completed.incrementAndGet();
+                        }
+                    }
+                }, "client-" + i);
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            if (log != null) {
+                log.shutdown();
+            }
+            double perSecond = completed.get() / elapsed;
+            System.out.printf("%-12s %,10.0f completions/s (%,d in %.1f s)%n", run, perSecond, completed.get(), elapsed);
+            if (completed.get() >= tasks) {
+                System.out.println("  ran out of tasks, raise --tasks");
+            }
+
+            Long committed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE status = ?", Long.class, TaskStatus.COMPLETED.code());
+            Long notifications = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox", Long.class);
+            if (committed == null || committed != completed.get() || notifications == null
+                    || notifications != completed.get()) {
+                System.out.printf("  check FAILED: %d acknowledged, %d committed, %d notifications%n",
+                    completed.get(), committed, notifications);
+                return -1;
+            }
+            return perSecond;
+        } finally {
+            // A file database keeps every commit for a while; drop it rather than leave it behind
+            new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS DELETE FILES");
+            dataSource.close();
+        }
+    }
+
+    /**
+     * What the status check, the service and the controller do for one {@code PUT /completion/mark}.
+     */
+    private static boolean complete(TaskRepository repository, long id) {
+        if (repository.findById(id).isEmpty()) {
+            return false;
+        }
+        Optional<Task> found = repository.findById(id);
+        if (found.isEmpty() || found.get().isCompleted()) {
+            return false;
+        }
+        Task task = found.get();
+        long now = System.currentTimeMillis();
+        task.setStatus(TaskStatus.COMPLETED);
+        task.setCompletedAt(now);
+        return repository.complete(task, List.of(OutboxMessage.completion("email", task.getEmail(), task, now)));
+    }
+
+    private void load(JdbcTemplate jdbcTemplate) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO tasks (title, due_timestamp, email, created_at, version) " +
+            "SELECT 'Benchmark task ' || X, ? + X * 60000, 'user' || MOD(X, 1000) || '@example.com', ?, X " +
+            "FROM SYSTEM_RANGE(1, ?)", now, now, tasks);
+    }
+}